@@ -32,6 +32,7 @@ import act.event.EventBus;
 import act.event.SystemEvent;
 import act.handler.RequestHandler;
 import act.i18n.LocaleResolver;
+import act.inject.genie.SessionScope;
 import act.route.Router;
 import act.security.CORS;
 import act.util.ActContext;
@@ -46,6 +47,7 @@ import org.osgl.mvc.result.Result;
 import org.osgl.storage.ISObject;
 import org.osgl.util.C;
 import org.osgl.util.E;
+import org.osgl.util.IO;
 import org.osgl.util.S;
 import org.osgl.web.util.UserAgent;
 
@@ -80,6 +82,7 @@ public class ActionContext extends ActContext.Base<ActionContext> implements Des
     private Set<Map.Entry<String, String[]>> requestParamCache;
     private Map<String, String> extraParams;
     private volatile Map<String, String[]> bodyParams;
+    private volatile byte[] bodyBytes;
     private Map<String, String[]> allParams;
     private String actionPath; // e.g. com.mycorp.myapp.controller.AbcController.foo
     private State state;
@@ -102,6 +105,7 @@ public class ActionContext extends ActContext.Base<ActionContext> implements Des
     private boolean byPassImplicitTemplateVariable;
     private int pathVarCount;
     private Set<String> pathVarNames = new HashSet<>();
+    private SessionScope.RequestView sessionScopeView;
 
 
     @Inject
@@ -169,6 +173,17 @@ public class ActionContext extends ActContext.Base<ActionContext> implements Des
         return flash;
     }
 
+    /**
+     * Returns the per request view of session scoped objects
+     * @return the session scope view or `null` if session is not resolved
+     */
+    public SessionScope.RequestView sessionScopeView() {
+        if (null == sessionScopeView && null != session) {
+            sessionScopeView = new SessionScope.RequestView(session);
+        }
+        return sessionScopeView;
+    }
+
     public String flash(String key) {
         return flash.get(key);
     }
@@ -347,6 +362,26 @@ public class ActionContext extends ActContext.Base<ActionContext> implements Des
         return paramVal(REQ_BODY);
     }
 
+    /**
+     * Returns the raw bytes of the request body.
+     *
+     * The request input stream is read only once, thus this method
+     * can be called multiple times. Note it shall not be used with
+     * multipart request.
+     *
+     * @return the request body bytes
+     */
+    public byte[] bodyBytes() {
+        if (null == bodyBytes) {
+            synchronized (this) {
+                if (null == bodyBytes) {
+                    bodyBytes = IO.readContent(req().inputStream());
+                }
+            }
+        }
+        return bodyBytes;
+    }
+
     public ActionContext param(String name, String value) {
         extraParams.put(name, value);
         return this;
@@ -834,7 +869,9 @@ public class ActionContext extends ActContext.Base<ActionContext> implements Des
             // xio impl might need this this.response = null;
             this.flash = null;
             this.session = null;
+            this.sessionScopeView = null;
             this.controllerInstances = null;
+            this.bodyBytes = null;
             clearLocal();
             this.uploads.clear();
         }
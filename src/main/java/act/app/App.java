@@ -30,6 +30,7 @@ import act.app.util.AppCrypto;
 import act.app.util.NamedPort;
 import act.boot.BootstrapClassLoader;
 import act.boot.app.BlockIssueSignal;
+import act.boot.app.FullStackAppBootstrapClassLoader;
 import act.cli.CliDispatcher;
 import act.cli.bytecode.CommanderByteCodeScanner;
 import act.conf.AppConfLoader;
@@ -45,6 +46,7 @@ import act.event.bytecode.SimpleEventListenerByteCodeScanner;
 import act.handler.RequestHandler;
 import act.handler.builtin.StaticResourceGetter;
 import act.handler.builtin.controller.FastRequestHandler;
+import act.i18n.I18n;
 import act.inject.DependencyInjectionBinder;
 import act.inject.DependencyInjector;
 import act.inject.genie.GenieInjector;
@@ -118,7 +120,9 @@ public class App extends DestroyableBase {
     private CliDispatcher cliDispatcher;
     private Map<NamedPort, Router> moreRouters;
     private AppConfig<?> config;
-    private AppClassLoader classLoader;
+    private volatile AppClassLoader classLoader;
+    // survives app refresh and restart so that unchanged sources need not be recompiled
+    private CompilationCache compilationCache;
     private ProjectLayout layout;
     private AppBuilder builder;
     private EventBus eventBus;
@@ -141,8 +145,8 @@ public class App extends DestroyableBase {
     private IdGenerator idGenerator;
     private CacheService cache;
     // used in dev mode only
-    private CompilationException compilationException;
-    private AppEventId currentState;
+    private volatile CompilationException compilationException;
+    private volatile AppEventId currentState;
     private Set<AppEventId> eventEmitted;
     private Thread mainThread;
     private Set<String> scanList;
@@ -396,6 +400,16 @@ public class App extends DestroyableBase {
         return classLoader;
     }
 
+    synchronized CompilationCache compilationCache() {
+        if (null == compilationCache) {
+            // bytecode compiled with different language level shall not be reused
+            String level = S.concat(config().sourceVersion(), "-", config().targetVersion());
+            String classpath = CompilationCache.fingerprint(FullStackAppBootstrapClassLoader.jars(AppClassLoader.class.getClassLoader()));
+            compilationCache = new CompilationCache(new File(tmpDir(), "bytecode/" + level), classpath);
+        }
+        return compilationCache;
+    }
+
     public ProjectLayout layout() {
         return layout;
     }
@@ -410,6 +424,11 @@ public class App extends DestroyableBase {
         if (!Act.isDev()) {
             return false;
         }
+        AppClassLoader classLoader = this.classLoader;
+        if (null != classLoader && isStarted() && null == compilationException && !classLoader.hasPendingChanges()) {
+            // fast path: do not block concurrent requests when nothing changed
+            return false;
+        }
         synchronized (this) {
             try {
                 detectChanges();
@@ -499,6 +518,7 @@ public class App extends DestroyableBase {
         if (null != classLoader && config().i18nEnabled()) {
             // clear resource bundle cache for Act I18n
             ResourceBundle.clearCache(classLoader);
+            I18n.clearCache();
             // clear resource bundle cache for Rythm I18n
             ResourceBundle.clearCache(I18N.class.getClassLoader());
         }
@@ -509,7 +529,13 @@ public class App extends DestroyableBase {
         shutdownCliServer();
         shutdownEventBus();
         shutdownJobManager();
+        if (null != crypto) {
+            crypto.destroy();
+        }
         clearServiceResourceManager();
+        if (null != classLoader) {
+            classLoader.stopChangeDetection();
+        }
         classLoader = null;
     }
 
@@ -631,6 +657,7 @@ public class App extends DestroyableBase {
 
                 initHttpConfig();
                 initViewManager();
+                preloadI18nMessages();
 
                 // let's any emit the dependency injector loaded event
                 // in case some other service depend on this event.
@@ -1284,6 +1311,9 @@ public class App extends DestroyableBase {
     }
 
     private void initClassLoader() {
+        if (null != classLoader) {
+            classLoader.stopChangeDetection();
+        }
         classLoader = Act.mode().classLoader(this);
     }
 
@@ -1323,6 +1353,12 @@ public class App extends DestroyableBase {
         // TODO: load app level plugins
     }
 
+    private void preloadI18nMessages() {
+        if (isProd()) {
+            I18n.preload(this);
+        }
+    }
+
     private void initViewManager() {
         Act.viewManager().onAppStart();
         registerBuiltInRythmTransformers();
@@ -162,6 +162,22 @@ public class AppClassLoader
         // don't do anything when running in none-dev mode
     }
 
+    /**
+     * Check if there might be changes to be found by {@link #detectChanges()}.
+     * This method shall be cheap and safe to be called concurrently
+     * @return `true` if there might be changes
+     */
+    public boolean hasPendingChanges() {
+        return true;
+    }
+
+    /**
+     * Stop watching file changes, called when this class loader is replaced
+     */
+    public void stopChangeDetection() {
+        // don't do anything when running in none-dev mode
+    }
+
     public ControllerClassMetaInfo controllerClassMetaInfo(String controllerClassName) {
         return controllerInfo.controllerMetaInfo(controllerClassName);
     }
@@ -41,9 +41,9 @@ import org.osgl.util.C;
 import org.osgl.util.E;
 import org.osgl.util.S;
 
-import java.util.Collection;
-import java.util.Locale;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static org.eclipse.jdt.internal.compiler.impl.CompilerOptions.*;
 
@@ -53,7 +53,12 @@ import static org.eclipse.jdt.internal.compiler.impl.CompilerOptions.*;
  */
 class AppCompiler extends DestroyableBase {
 
-    Map<String, Boolean> packagesCache = C.newMap();
+    // name environment lookups might come from JDT processing thread
+    Map<String, Boolean> packagesCache = new ConcurrentHashMap<>();
+    // answers of binary types from libraries, could be shared by all compilations
+    private final ConcurrentMap<String, NameEnvironmentAnswer> binaryTypesCache = new ConcurrentHashMap<>();
+    // source types compiled by the current batch
+    private final Set<String> compiling = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
     private DevModeClassLoader classLoader;
     private App app;
     private AppConfig conf;
@@ -71,6 +76,8 @@ class AppCompiler extends DestroyableBase {
     @Override
     protected void releaseResources() {
         packagesCache.clear();
+        binaryTypesCache.clear();
+        compiling.clear();
         super.releaseResources();
     }
 
@@ -102,6 +109,7 @@ class AppCompiler extends DestroyableBase {
         int i = 0;
         for (Source source: sources) {
             compilationUnits[i++] = source.compilationUnit();
+            compiling.add(source.className());
         }
         IErrorHandlingPolicy policy = DefaultErrorHandlingPolicies.exitOnFirstError();
         IProblemFactory problemFactory = new DefaultProblemFactory(Locale.ENGLISH);
@@ -112,9 +120,16 @@ class AppCompiler extends DestroyableBase {
             protected void handleInternalException(Throwable e, CompilationUnitDeclaration ud, CompilationResult result) {
             }
         };
+        // let JDT process (resolve, analyze and generate) compilation units on
+        // a separate thread while parsing the rest units
+        jdtCompiler.useSingleThread = false;
 
-        jdtCompiler.compile(compilationUnits);
-        timer.stop();
+        try {
+            jdtCompiler.compile(compilationUnits);
+        } finally {
+            compiling.clear();
+            timer.stop();
+        }
     }
 
     public void compile(String className) {
@@ -198,13 +213,27 @@ class AppCompiler extends DestroyableBase {
                 if (Act.isDev()) {
                     source = classLoader.source(type);
                     if (null != source) {
+                        if (compiling.contains(source.className())) {
+                            return new NameEnvironmentAnswer(source.compilationUnit(), null);
+                        }
+                        // sources restored from compilation cache need not be recompiled
+                        bytes = type.contains("$") ? source.bytes(S.afterFirst(type, "$")) : source.bytes();
+                        if (null != bytes) {
+                            return new NameEnvironmentAnswer(new ClassFileReader(bytes, type.toCharArray(), true), null);
+                        }
                         return new NameEnvironmentAnswer(source.compilationUnit(), null);
                     }
                 }
+                NameEnvironmentAnswer answer = binaryTypesCache.get(type);
+                if (null != answer) {
+                    return answer;
+                }
                 bytes = classLoader.enhancedBytecode(type);
                 if (bytes != null) {
                     ClassFileReader classFileReader = new ClassFileReader(bytes, type.toCharArray(), true);
-                    return new NameEnvironmentAnswer(classFileReader, null);
+                    answer = new NameEnvironmentAnswer(classFileReader, null);
+                    binaryTypesCache.putIfAbsent(type, answer);
+                    return answer;
                 } else {
                     if (type.startsWith("org.osgl") || type.startsWith("java.") || type.startsWith("javax.")) {
                         return null;
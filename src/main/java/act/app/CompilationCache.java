@@ -0,0 +1,453 @@
+package act.app;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.util.LogSupport;
+import org.osgl.util.Charsets;
+import org.osgl.util.Codec;
+import org.osgl.util.E;
+import org.osgl.util.IO;
+
+import java.io.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Keep compiled bytecode of app sources across dev mode app refreshes so
+ * that only changed sources and the sources depend on them are recompiled.
+ * When a directory is specified the bytecode is also persisted into the
+ * directory so that it can be reused across dev mode restarts.
+ *
+ * A source depends on another source if its class files reference the
+ * other class in the constant pool, or its code mentions the simple name
+ * of the other class. The latter covers references to compile time
+ * constants, which are inlined by the compiler and not visible in the
+ * constant pool. Dependencies are followed transitively, e.g. when `A`
+ * changed and `B` declares a constant initialized with a constant of `A`,
+ * then `C` that uses the constant of `B` is recompiled as well.
+ *
+ * Sources are matched by the SHA-1 digest of their code. The cache shall be
+ * {@link #clear() cleared} when the app libraries changed. Across restarts
+ * this is detected with a {@link #fingerprint(List) fingerprint} of the
+ * classpath jars, which is persisted along with the bytecode.
+ */
+class CompilationCache extends LogSupport {
+
+    // bump the version when the file format changed
+    private static final int FORMAT = 2;
+
+    private static final String CLASSPATH_FILE = "classpath.fingerprint";
+
+    private static class Entry {
+        final byte[] codeDigest;
+        final byte[] bytes;
+        final Map<String, byte[]> innerBytes;
+        final Set<String> references;
+
+        Entry(Source source) {
+            this(source.className(), digest(source.code()), source.bytes(), innerBytesOf(source));
+        }
+
+        Entry(String className, byte[] codeDigest, byte[] bytes, Map<String, byte[]> innerBytes) {
+            this.codeDigest = codeDigest;
+            this.bytes = bytes;
+            this.innerBytes = innerBytes;
+            Set<String> references = new HashSet<>();
+            collectReferences(bytes, references);
+            for (byte[] ba : innerBytes.values()) {
+                collectReferences(ba, references);
+            }
+            references.remove(className);
+            this.references = references;
+        }
+
+        boolean matches(Source source) {
+            return MessageDigest.isEqual(codeDigest, digest(source.code()));
+        }
+
+        private static Map<String, byte[]> innerBytesOf(Source source) {
+            Map<String, byte[]> map = new HashMap<>();
+            for (String innerName : source.innerClassNames()) {
+                map.put(innerName, source.bytes(innerName));
+            }
+            return map;
+        }
+    }
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    // directory to persist bytecode across dev mode restarts, could be null
+    private final File dir;
+    private final String classpath;
+    private boolean loaded;
+
+    CompilationCache() {
+        this(null, "");
+    }
+
+    /**
+     * Construct a compilation cache that persists bytecode into a directory
+     * @param dir the directory, or `null` if persistence is not required
+     * @param classpath the {@link #fingerprint(List) classpath fingerprint}
+     */
+    CompilationCache(File dir, String classpath) {
+        this.classpath = classpath;
+        if (null != dir && !dir.isDirectory() && !dir.mkdirs()) {
+            warn("cannot create bytecode cache dir: %s", dir);
+            dir = null;
+        }
+        this.dir = dir;
+        this.loaded = null == dir;
+        if (null != dir) {
+            checkClasspath();
+        }
+    }
+
+    /**
+     * Cache the bytecode of a compiled source
+     * @param source the source
+     */
+    synchronized void put(Source source) {
+        if (null == source.bytes()) {
+            return;
+        }
+        Entry entry = new Entry(source);
+        entries.put(source.className(), entry);
+        persist(source.className(), entry);
+    }
+
+    /**
+     * Restore bytecode to sources that are neither changed nor depend on
+     * changed sources.
+     *
+     * @param sources all app sources indexed by class name
+     * @return sources need to be compiled
+     */
+    synchronized List<Source> restore(Map<String, Source> sources) {
+        if (!loaded) {
+            load();
+            loaded = true;
+        }
+        Set<String> changed = new HashSet<>();
+        for (String className : entries.keySet()) {
+            if (!sources.containsKey(className)) {
+                changed.add(className);
+            }
+        }
+        for (Source source : sources.values()) {
+            Entry entry = entries.get(source.className());
+            if (null == entry || !entry.matches(source)) {
+                changed.add(source.className());
+            }
+        }
+        for (String className : changed) {
+            if (!sources.containsKey(className)) {
+                remove(className);
+            }
+        }
+        List<Source> toBeCompiled = new ArrayList<>();
+        if (changed.isEmpty()) {
+            for (Source source : sources.values()) {
+                restore(source, entries.get(source.className()));
+            }
+            return toBeCompiled;
+        }
+        Set<String> recompile = new HashSet<>(changed);
+        Set<String> delta = changed;
+        while (!delta.isEmpty()) {
+            Set<String> deltaSimpleNames = simpleNamesOf(delta);
+            Set<String> dependents = new HashSet<>();
+            for (Source source : sources.values()) {
+                String className = source.className();
+                if (!recompile.contains(className) && dependsOn(entries.get(className), source, delta, deltaSimpleNames)) {
+                    dependents.add(className);
+                }
+            }
+            recompile.addAll(dependents);
+            delta = dependents;
+        }
+        for (Source source : sources.values()) {
+            String className = source.className();
+            if (recompile.contains(className)) {
+                toBeCompiled.add(source);
+                remove(className);
+            } else {
+                restore(source, entries.get(className));
+            }
+        }
+        debug("%s of %s sources to be recompiled", toBeCompiled.size(), sources.size());
+        return toBeCompiled;
+    }
+
+    synchronized void clear() {
+        for (String className : new ArrayList<>(entries.keySet())) {
+            remove(className);
+        }
+    }
+
+    private void remove(String className) {
+        entries.remove(className);
+        if (null != dir) {
+            File file = file(className);
+            if (file.exists() && !file.delete()) {
+                warn("cannot delete bytecode cache file: %s", file);
+            }
+        }
+    }
+
+    private File file(String className) {
+        return new File(dir, className + ".bytecode");
+    }
+
+    private void persist(String className, Entry entry) {
+        if (null == dir) {
+            return;
+        }
+        File file = file(className);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(FORMAT);
+            writeBytes(entry.codeDigest, out);
+            writeBytes(entry.bytes, out);
+            out.writeInt(entry.innerBytes.size());
+            for (Map.Entry<String, byte[]> inner : entry.innerBytes.entrySet()) {
+                out.writeUTF(inner.getKey());
+                writeBytes(inner.getValue(), out);
+            }
+        } catch (IOException e) {
+            warn(e, "error writing bytecode cache file: %s", file);
+            if (file.exists() && !file.delete()) {
+                warn("cannot delete bytecode cache file: %s", file);
+            }
+        }
+    }
+
+    private void checkClasspath() {
+        File classpathFile = new File(dir, CLASSPATH_FILE);
+        if (classpathFile.exists() && classpath.equals(IO.readContentAsString(classpathFile))) {
+            return;
+        }
+        // bytecode might be compiled against different libraries
+        File[] files = dir.listFiles();
+        if (null != files) {
+            for (File file : files) {
+                String fileName = file.getName();
+                if (fileName.endsWith(".bytecode") && !file.delete()) {
+                    warn("cannot delete bytecode cache file: %s", file);
+                }
+            }
+        }
+        IO.writeContent(classpath, classpathFile);
+    }
+
+    private void load() {
+        File[] files = dir.listFiles();
+        if (null == files) {
+            return;
+        }
+        int n = 0;
+        for (File file : files) {
+            String fileName = file.getName();
+            if (!fileName.endsWith(".bytecode")) {
+                continue;
+            }
+            String className = fileName.substring(0, fileName.length() - ".bytecode".length());
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                if (FORMAT != in.readInt()) {
+                    remove(className);
+                    continue;
+                }
+                byte[] codeDigest = readBytes(in);
+                byte[] bytes = readBytes(in);
+                int innerCount = in.readInt();
+                Map<String, byte[]> innerBytes = new HashMap<>();
+                for (int i = 0; i < innerCount; ++i) {
+                    String innerName = in.readUTF();
+                    innerBytes.put(innerName, readBytes(in));
+                }
+                entries.put(className, new Entry(className, codeDigest, bytes, innerBytes));
+                n++;
+            } catch (IOException e) {
+                warn(e, "error reading bytecode cache file: %s", file);
+                remove(className);
+            }
+        }
+        debug("%s bytecode cache entries loaded from %s", n, dir);
+    }
+
+    /**
+     * Calculate the fingerprint of classpath jars from their paths, sizes
+     * and timestamps.
+     *
+     * @param jars the classpath jars
+     * @return the fingerprint
+     */
+    static String fingerprint(List<File> jars) {
+        List<String> lines = new ArrayList<>(jars.size());
+        for (File jar : jars) {
+            lines.add(jar.getAbsolutePath() + ":" + jar.length() + ":" + jar.lastModified());
+        }
+        Collections.sort(lines);
+        MessageDigest digest = sha1();
+        for (String line : lines) {
+            digest.update(line.getBytes(Charsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        return Codec.byteToHexString(digest.digest());
+    }
+
+    private static byte[] digest(String code) {
+        return sha1().digest(code.getBytes(Charsets.UTF_8));
+    }
+
+    private static MessageDigest sha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw E.unexpected(e);
+        }
+    }
+
+    private static void writeBytes(byte[] bytes, DataOutputStream out) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static void restore(Source source, Entry entry) {
+        source.compiled(entry.bytes);
+        for (Map.Entry<String, byte[]> inner : entry.innerBytes.entrySet()) {
+            source.compiled(inner.getKey(), inner.getValue());
+        }
+    }
+
+    private static Set<String> simpleNamesOf(Set<String> classNames) {
+        Set<String> simpleNames = new HashSet<>();
+        for (String className : classNames) {
+            simpleNames.add(className.substring(className.lastIndexOf('.') + 1));
+        }
+        return simpleNames;
+    }
+
+    private static boolean dependsOn(Entry entry, Source source, Set<String> changed, Set<String> changedSimpleNames) {
+        for (String className : changed) {
+            if (entry.references.contains(className)) {
+                return true;
+            }
+        }
+        String code = source.code();
+        for (String simpleName : changedSimpleNames) {
+            if (code.contains(simpleName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Collect names of classes referenced in the constant pool, including
+     * class entries and types in field/method descriptors and signatures.
+     * Inner class names are mapped to the top level class name.
+     */
+    static void collectReferences(byte[] bytes, Set<String> references) {
+        if (null == bytes) {
+            return;
+        }
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            in.skipBytes(8); // magic and version
+            int count = in.readUnsignedShort();
+            for (int i = 1; i < count; ++i) {
+                int tag = in.readUnsignedByte();
+                switch (tag) {
+                    case 1: // Utf8
+                        addTypes(in.readUTF(), references);
+                        break;
+                    case 3: // Integer
+                    case 4: // Float
+                    case 9: // Fieldref
+                    case 10: // Methodref
+                    case 11: // InterfaceMethodref
+                    case 12: // NameAndType
+                    case 18: // InvokeDynamic
+                        in.skipBytes(4);
+                        break;
+                    case 5: // Long
+                    case 6: // Double
+                        in.skipBytes(8);
+                        ++i;
+                        break;
+                    case 7: // Class
+                    case 8: // String
+                    case 16: // MethodType
+                        in.skipBytes(2);
+                        break;
+                    case 15: // MethodHandle
+                        in.skipBytes(3);
+                        break;
+                    default:
+                        return;
+                }
+            }
+        } catch (IOException e) {
+            // ignore malformed class file, the source will be recompiled anyway
+        }
+    }
+
+    private static void addTypes(String s, Set<String> references) {
+        if (s.startsWith("java/")) {
+            return;
+        }
+        if (s.indexOf('/') > 0 && s.indexOf(';') < 0 && s.indexOf('(') < 0 && s.indexOf(' ') < 0) {
+            // internal class name used by Class entries
+            references.add(topLevelName(s));
+            return;
+        }
+        int pos = s.indexOf('L');
+        while (pos > -1) {
+            int end = s.indexOf(';', pos);
+            int generic = s.indexOf('<', pos);
+            if (generic > -1 && generic < end) {
+                end = generic;
+            }
+            if (end < 0) {
+                return;
+            }
+            String name = s.substring(pos + 1, end);
+            if (name.indexOf('/') > 0 && !name.startsWith("java/")) {
+                references.add(topLevelName(name));
+            }
+            pos = s.indexOf('L', end);
+        }
+    }
+
+    private static String topLevelName(String internalName) {
+        String name = internalName.replace('/', '.');
+        int pos = name.indexOf('$');
+        return pos > 0 ? name.substring(0, pos) : name;
+    }
+
+}
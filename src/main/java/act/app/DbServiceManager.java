@@ -25,6 +25,7 @@ import act.Destroyable;
 import act.app.event.AppEventId;
 import act.conf.AppConfig;
 import act.db.*;
+import act.db.util.HiLoSequenceNumberGenerator;
 import act.db.util.SequenceNumberGenerator;
 import act.db.util._SequenceNumberGenerator;
 import act.event.ActEventListenerBase;
@@ -44,6 +45,7 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.lang.annotation.Annotation;
 import java.util.*;
+import java.util.concurrent.Executor;
 
 @ApplicationScoped
 public class DbServiceManager extends AppServiceBase<DbServiceManager> implements DaoLocator {
@@ -139,8 +141,23 @@ public class DbServiceManager extends AppServiceBase<DbServiceManager> implement
         app.jobManager().on(AppEventId.DEPENDENCY_INJECTOR_PROVISIONED, new Runnable() {
             @Override
             public void run() {
-                _SequenceNumberGenerator seqGen = app.config().sequenceNumberGenerator();
+                AppConfig config = app.config();
+                _SequenceNumberGenerator seqGen = config.sequenceNumberGenerator();
                 //seqGen.configure(app.config(), DbServiceManager.this);
+                int blockSize = config.sequenceNumberBlockSize();
+                if (blockSize > 1) {
+                    if (seqGen instanceof _SequenceNumberGenerator.BlockAllocator) {
+                        Executor executor = config.sequenceNumberPrefetchEnabled() ? new Executor() {
+                            @Override
+                            public void execute(Runnable command) {
+                                app.jobManager().now(command);
+                            }
+                        } : null;
+                        seqGen = new HiLoSequenceNumberGenerator(seqGen, blockSize, executor);
+                    } else {
+                        logger.warn("sequence number generator does not support block allocation: %s", seqGen.getClass().getName());
+                    }
+                }
                 SequenceNumberGenerator.registerImpl(seqGen);
             }
         });
@@ -61,6 +61,7 @@ public class DevModeClassLoader extends AppClassLoader {
 
     @Override
     protected void releaseResources() {
+        stopChangeDetection();
         sources.clear();
         compiler.destroy();
         super.releaseResources();
@@ -171,7 +172,15 @@ public class DevModeClassLoader extends AppClassLoader {
 
     private void compileSources() {
         logger.debug("start to compile sources ...");
-        compiler.compile(sources.values());
+        CompilationCache cache = app().compilationCache();
+        List<Source> toBeCompiled = cache.restore(sources);
+        if (toBeCompiled.isEmpty()) {
+            return;
+        }
+        compiler.compile(toBeCompiled);
+        for (Source source : toBeCompiled) {
+            cache.put(source);
+        }
     }
 
     private void scanSources() {
@@ -244,6 +253,7 @@ public class DevModeClassLoader extends AppClassLoader {
         if (null == bytes && compile) {
             compiler.compile(name);
             bytes = source.bytes();
+            app().compilationCache().put(source);
         }
         if (name.contains("$")) {
             String innerClassName = S.afterFirst(name, "$");
@@ -261,6 +271,7 @@ public class DevModeClassLoader extends AppClassLoader {
         if (null == bytes) {
             compiler.compile(name);
             bytes = source.bytes();
+            app().compilationCache().put(source);
         }
         if (!name.contains("$")) {
             embeddedClassNames.addAll(C.list(source.innerClassNames()).map(S.F.prepend(name + "$")));
@@ -279,6 +290,23 @@ public class DevModeClassLoader extends AppClassLoader {
         super.detectChanges();
     }
 
+    @Override
+    public boolean hasPendingChanges() {
+        for (FsChangeDetector detector : detectors) {
+            if (detector.hasPendingChanges()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void stopChangeDetection() {
+        for (FsChangeDetector detector : detectors) {
+            detector.close();
+        }
+    }
+
     private void detectChanges(FsChangeDetector detector) {
         if (null != detector) {
             detector.detectChanges();
@@ -326,6 +354,8 @@ public class DevModeClassLoader extends AppClassLoader {
         public void on(FsEvent... events) {
             int len = events.length;
             if (len < 0) return;
+            // cached bytecode might be compiled against the old jars
+            app().compilationCache().clear();
             throw Act.requestRefreshClassLoader();
         }
     };
@@ -30,6 +30,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Encapsulate java srccode unit data including srccode code, byte code etc.
@@ -83,9 +84,9 @@ public class Source {
     private String code;
 
     // The byte code
-    private byte[] bytes;
+    private volatile byte[] bytes;
 
-    private Map<String, byte[]> innerBytes = C.newMap();
+    private Map<String, byte[]> innerBytes = new ConcurrentHashMap<>();
 
     private State state = State.CREATED;
 
@@ -20,32 +20,128 @@ package act.app.util;
  * #L%
  */
 
+import act.Act;
+import act.app.AppThreadFactory;
 import act.conf.AppConfig;
+import act.metric.Metric;
+import act.metric.MetricPlugin;
+import act.metric.Timer;
+import act.util.DestroyableBase;
 import org.mindrot.jbcrypt.BCrypt;
+import org.osgl.$;
 import org.osgl.exception.UnexpectedException;
-import org.osgl.logging.LogManager;
-import org.osgl.logging.Logger;
 import org.osgl.util.Charsets;
-import org.osgl.util.Crypto;
+import org.osgl.util.Codec;
+import org.osgl.util.E;
 import org.osgl.util.Token;
 
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
 import java.security.InvalidKeyException;
+import java.security.MessageDigest;
 import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.*;
 
-public class AppCrypto {
+/**
+ * Provides sign, encrypt/decrypt and password hash services with the app secret.
+ *
+ * The sign and encrypt/decrypt output is compatible with
+ * {@link org.osgl.util.Crypto#sign(String, byte[])},
+ * {@link org.osgl.util.Crypto#encryptAES(String, byte[])} and
+ * {@link org.osgl.util.Crypto#decryptAES(String, byte[])}. However the
+ * keys are prepared once and the `Mac`/`Cipher` instances are pooled
+ * instead of being created on every call.
+ *
+ * Password hashing is CPU intensive by design. The async password APIs
+ * run BCrypt on a dedicated bounded thread pool so that a login storm
+ * cannot exhaust the request worker threads.
+ */
+public class AppCrypto extends DestroyableBase {
 
-    private static Logger logger = LogManager.get(AppCrypto.class);
+    private static final String SIGN_ALGO = "HmacSHA1";
+    private static final String CIPHER_ALGO = "AES/CBC/PKCS5Padding";
+    private static final int IV_LEN = 16;
+    private static final char[] HEX_CHARS = "0123456789abcdef".toCharArray();
 
     private byte[] secret;
 
     private SecureRandom secureRandom = new SecureRandom();
-    
+
+    // null if secret is empty, in which case message will not be signed
+    private SecretKeySpec signKey;
+
+    private SecretKeySpec cipherKey;
+
+    // Mac and Cipher are not thread safe, thus borrowed from pools
+    private final Queue<Mac> macPool = new ConcurrentLinkedQueue<>();
+    private final Queue<Cipher> cipherPool = new ConcurrentLinkedQueue<>();
+
+    private AppConfig config;
+    private int passwordHashCost;
+    private volatile ThreadPoolExecutor passwordHashExecutor;
+    private volatile Metric metric;
+
     public AppCrypto(AppConfig config) {
+        this.config = config;
+        int cost = config.passwordHashCost();
+        // BCrypt default log rounds
+        this.passwordHashCost = cost < 4 ? 10 : cost;
         secret = config.secret().getBytes(Charsets.UTF_8);
+        if (secret.length > 0) {
+            signKey = new SecretKeySpec(secret, SIGN_ALGO);
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-384");
+            cipherKey = new SecretKeySpec(Arrays.copyOf(digest.digest(secret), 32), "AES");
+        } catch (GeneralSecurityException e) {
+            throw E.unexpected(e);
+        }
     }
 
     public String sign(String message) {
-        return Crypto.sign(message, secret);
+        if (null == signKey) {
+            return message;
+        }
+        return toHex(sign(message.getBytes(Charsets.UTF_8)));
+    }
+
+    /**
+     * Returns the HMAC of the given message. If the app secret is empty
+     * then the message is returned directly
+     *
+     * @param message the message
+     * @return the HMAC bytes
+     */
+    public byte[] sign(byte[] message) {
+        if (null == signKey) {
+            return message;
+        }
+        Mac mac = macPool.poll();
+        try {
+            if (null == mac) {
+                mac = Mac.getInstance(SIGN_ALGO);
+                mac.init(signKey);
+            }
+        } catch (GeneralSecurityException e) {
+            throw E.unexpected(e);
+        }
+        // doFinal reset the mac so that it can be reused
+        byte[] result = mac.doFinal(message);
+        macPool.offer(mac);
+        return result;
+    }
+
+    @Override
+    protected void releaseResources() {
+        if (null != passwordHashExecutor) {
+            passwordHashExecutor.shutdownNow();
+            passwordHashExecutor = null;
+        }
     }
 
     /**
@@ -58,7 +154,12 @@ public class AppCrypto {
      * @return the password hash
      */
     public String passwordHash(char[] password) {
-        return BCrypt.hashpw(password, BCrypt.gensalt());
+        Timer timer = metric().startTimer("password.hash");
+        try {
+            return BCrypt.hashpw(password, BCrypt.gensalt(passwordHashCost, secureRandom));
+        } finally {
+            timer.stop();
+        }
     }
 
     /**
@@ -67,28 +168,148 @@ public class AppCrypto {
      * @return the password hash
      */
     public String passwordHash(String password) {
-        return BCrypt.hashpw(password, BCrypt.gensalt());
+        return passwordHash(password.toCharArray());
     }
 
     public boolean verifyPassword(String password, String hash) {
+        return verifyPassword(password.toCharArray(), hash);
+    }
+
+    public boolean verifyPassword(char[] password, String hash) {
+        Timer timer = metric().startTimer("password.verify");
         try {
             return BCrypt.checkpw(password, hash);
         } catch (Exception e) {
             return false;
+        } finally {
+            timer.stop();
         }
     }
 
-    public boolean verifyPassword(char[] password, String hash) {
+    /**
+     * Generate crypted hash of given password on the password hash thread pool.
+     *
+     * The password char array will be filled with `\0` once used, thus caller
+     * shall not change the array before the future is done.
+     *
+     * @param password the password
+     * @return the future of the password hash
+     * @throws RejectedExecutionException if the password hash task queue is full
+     */
+    public Future<String> passwordHashAsync(final char[] password) {
+        return submitPasswordTask(new Callable<String>() {
+            @Override
+            public String call() {
+                return passwordHash(password);
+            }
+        });
+    }
+
+    /**
+     * Verify password on the password hash thread pool.
+     *
+     * @param password the password
+     * @param hash the password hash
+     * @return the future of the verification result
+     * @throws RejectedExecutionException if the password hash task queue is full
+     * @see #verifyPasswordAsync(char[], String, $.Visitor)
+     */
+    public Future<Boolean> verifyPasswordAsync(char[] password, String hash) {
+        return verifyPasswordAsync(password, hash, null);
+    }
+
+    /**
+     * Verify password on the password hash thread pool. If the password is
+     * verified and the hash {@link #needsRehash(String) needs rehash}, then
+     * the password will be hashed again with the current cost and the new
+     * hash will be passed to the `rehashHandler`, so that app can update
+     * the stored hash.
+     *
+     * @param password the password
+     * @param hash the password hash
+     * @param rehashHandler the handler to accept the new hash, could be `null`
+     * @return the future of the verification result
+     * @throws RejectedExecutionException if the password hash task queue is full
+     */
+    public Future<Boolean> verifyPasswordAsync(final char[] password, final String hash, final $.Visitor<String> rehashHandler) {
+        return submitPasswordTask(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                boolean rehash = null != rehashHandler && needsRehash(hash);
+                char[] copy = rehash ? password.clone() : null;
+                try {
+                    boolean verified = verifyPassword(password, hash);
+                    if (verified && rehash) {
+                        rehashHandler.visit(passwordHash(copy));
+                        metric().countOnce("password.rehash");
+                    }
+                    return verified;
+                } finally {
+                    if (null != copy) {
+                        Arrays.fill(copy, '\0');
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Check if a password hash is generated with a cost lower than
+     * the current {@link AppConfig#passwordHashCost() password hash cost}
+     *
+     * @param hash the password hash
+     * @return `true` if the hash shall be upgraded
+     */
+    public boolean needsRehash(String hash) {
+        // hash format: $2a$10$...
+        if (null == hash || hash.length() < 7 || hash.charAt(0) != '$') {
+            return false;
+        }
+        int off = hash.charAt(2) == '$' ? 3 : 4;
         try {
-            return BCrypt.checkpw(password, hash);
-        } catch (Exception e) {
+            return Integer.parseInt(hash.substring(off, off + 2)) < passwordHashCost;
+        } catch (NumberFormatException e) {
             return false;
         }
     }
 
+    private <T> Future<T> submitPasswordTask(Callable<T> task) {
+        try {
+            return passwordHashExecutor().submit(task);
+        } catch (RejectedExecutionException e) {
+            metric().countOnce("password.rejected");
+            throw e;
+        }
+    }
+
+    private ThreadPoolExecutor passwordHashExecutor() {
+        if (null == passwordHashExecutor) {
+            synchronized (this) {
+                if (null == passwordHashExecutor) {
+                    int poolSize = Math.max(1, config.passwordHashPoolSize());
+                    int queueSize = Math.max(1, config.passwordHashQueueSize());
+                    ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize,
+                            60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(queueSize),
+                            new AppThreadFactory("password-hash", true), new ThreadPoolExecutor.AbortPolicy());
+                    executor.allowCoreThreadTimeOut(true);
+                    passwordHashExecutor = executor;
+                }
+            }
+        }
+        return passwordHashExecutor;
+    }
+
+    private Metric metric() {
+        if (null == metric) {
+            MetricPlugin plugin = Act.metricPlugin();
+            metric = null == plugin ? Metric.NULL_METRIC : plugin.metric("act.crypto");
+        }
+        return metric;
+    }
+
     public String encrypt(String message) {
         try {
-            return Crypto.encryptAES(message, secret);
+            return Codec.byteToHexString(encrypt(message.getBytes(Charsets.UTF_8)));
         } catch (UnexpectedException e) {
             Throwable cause = e.getCause();
             if (cause instanceof InvalidKeyException) {
@@ -100,7 +321,7 @@ public class AppCrypto {
 
     public String decrypt(String message) {
         try {
-            return Crypto.decryptAES(message, secret);
+            return new String(decrypt(Codec.hexStringToByte(message)), Charsets.UTF_8);
         } catch (UnexpectedException e) {
             Throwable cause = e.getCause();
             if (cause instanceof InvalidKeyException) {
@@ -110,6 +331,73 @@ public class AppCrypto {
         }
     }
 
+    /**
+     * Encrypt the message with AES. The random IV is appended to the
+     * encrypted bytes
+     *
+     * @param message the message
+     * @return the encrypted bytes followed by the IV
+     */
+    public byte[] encrypt(byte[] message) {
+        byte[] iv = new byte[IV_LEN];
+        secureRandom.nextBytes(iv);
+        Cipher cipher = cipher(Cipher.ENCRYPT_MODE, iv);
+        try {
+            byte[] result = new byte[cipher.getOutputSize(message.length) + IV_LEN];
+            int len = cipher.doFinal(message, 0, message.length, result, 0);
+            System.arraycopy(iv, 0, result, len, IV_LEN);
+            return len + IV_LEN == result.length ? result : Arrays.copyOf(result, len + IV_LEN);
+        } catch (GeneralSecurityException e) {
+            throw E.unexpected(e);
+        } finally {
+            cipherPool.offer(cipher);
+        }
+    }
+
+    /**
+     * Decrypt the bytes produced by {@link #encrypt(byte[])}
+     *
+     * @param data the encrypted bytes followed by the IV
+     * @return the decrypted message
+     */
+    public byte[] decrypt(byte[] data) {
+        E.illegalArgumentIf(data.length <= IV_LEN, "invalid encrypted data");
+        int len = data.length - IV_LEN;
+        Cipher cipher = cipher(Cipher.DECRYPT_MODE, Arrays.copyOfRange(data, len, data.length));
+        try {
+            return cipher.doFinal(data, 0, len);
+        } catch (GeneralSecurityException e) {
+            throw E.unexpected(e);
+        } finally {
+            cipherPool.offer(cipher);
+        }
+    }
+
+    // Crypto.sign use lower case hex
+    private static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0, j = 0; i < bytes.length; ++i) {
+            int b = bytes[i] & 0xFF;
+            chars[j++] = HEX_CHARS[b >> 4];
+            chars[j++] = HEX_CHARS[b & 0xF];
+        }
+        return new String(chars);
+    }
+
+    private Cipher cipher(int mode, byte[] iv) {
+        Cipher cipher = cipherPool.poll();
+        try {
+            if (null == cipher) {
+                cipher = Cipher.getInstance(CIPHER_ALGO);
+            }
+            // cipher must be initialized for every IV
+            cipher.init(mode, cipherKey, new IvParameterSpec(iv));
+            return cipher;
+        } catch (GeneralSecurityException e) {
+            throw E.unexpected(e);
+        }
+    }
+
     public int generateRandomInt(int max) {
         return secureRandom.nextInt(max);
     }
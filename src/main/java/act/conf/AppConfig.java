@@ -37,8 +37,11 @@ import act.handler.event.ResultEvent;
 import act.i18n.I18n;
 import act.security.CSRFProtector;
 import act.ws.DefaultSecureTicketCodec;
+import act.ws.MulticastWebSocketClusterBridge;
 import act.ws.SecureTicketCodec;
 import act.ws.UsernameSecureTicketCodec;
+import act.ws.WebSocketClusterBridge;
+import act.ws.WebSocketOutboundQueue;
 import act.util.*;
 import act.view.TemplatePathResolver;
 import act.view.View;
@@ -991,6 +994,55 @@ public class AppConfig<T extends AppConfigurator> extends Config<AppConfigKey> i
         }
     }
 
+    private int seqGenBlockSize = -1;
+
+    protected T sequenceNumberBlockSize(int size) {
+        E.illegalArgumentIf(size < 1, "sequence number block size cannot be zero or negative number: %s", size);
+        this.seqGenBlockSize = size;
+        return me();
+    }
+
+    public int sequenceNumberBlockSize() {
+        if (-1 == seqGenBlockSize) {
+            Integer I = getInteger(DB_SEQ_GEN_BLOCK_SIZE);
+            if (null == I || I < 1) {
+                I = 1;
+            }
+            seqGenBlockSize = I;
+        }
+        return seqGenBlockSize;
+    }
+
+    private void _mergeSequenceNumberBlockSize(AppConfig conf) {
+        if (!hasConfiguration(DB_SEQ_GEN_BLOCK_SIZE)) {
+            seqGenBlockSize = conf.seqGenBlockSize;
+        }
+    }
+
+    private Boolean seqGenPrefetch;
+
+    protected T sequenceNumberPrefetch(boolean enabled) {
+        this.seqGenPrefetch = enabled;
+        return me();
+    }
+
+    public boolean sequenceNumberPrefetchEnabled() {
+        if (null == seqGenPrefetch) {
+            Boolean B = get(DB_SEQ_GEN_PREFETCH);
+            if (null == B) {
+                B = true;
+            }
+            seqGenPrefetch = B;
+        }
+        return seqGenPrefetch;
+    }
+
+    private void _mergeSequenceNumberPrefetch(AppConfig conf) {
+        if (!hasConfiguration(DB_SEQ_GEN_PREFETCH)) {
+            seqGenPrefetch = conf.seqGenPrefetch;
+        }
+    }
+
     private ErrorTemplatePathResolver errorTemplatePathResolver = null;
 
     protected T errorTemplatePathResolver(ErrorTemplatePathResolver resolver) {
@@ -1370,6 +1422,80 @@ public class AppConfig<T extends AppConfigurator> extends Config<AppConfigKey> i
             jobPoolSize = conf.jobPoolSize;
         }
     }
+
+    private Boolean jobOutboxEnabled;
+
+    protected T jobOutboxEnabled(boolean enabled) {
+        this.jobOutboxEnabled = enabled;
+        return me();
+    }
+
+    public boolean jobOutboxEnabled() {
+        if (null == jobOutboxEnabled) {
+            Boolean B = get(JOB_OUTBOX_ENABLED);
+            if (null == B) {
+                B = false;
+            }
+            jobOutboxEnabled = B;
+        }
+        return jobOutboxEnabled;
+    }
+
+    private void _mergeJobOutboxEnabled(AppConfig conf) {
+        if (!hasConfiguration(JOB_OUTBOX_ENABLED)) {
+            jobOutboxEnabled = conf.jobOutboxEnabled;
+        }
+    }
+
+    private int jobOutboxSegmentSize = -1;
+
+    protected T jobOutboxSegmentSize(int size) {
+        E.illegalArgumentIf(size < 4096, "job outbox segment size too small: %s", size);
+        this.jobOutboxSegmentSize = size;
+        return me();
+    }
+
+    public int jobOutboxSegmentSize() {
+        if (-1 == jobOutboxSegmentSize) {
+            Integer I = getInteger(JOB_OUTBOX_SEGMENT_SIZE);
+            if (null == I) {
+                I = 16 * 1024 * 1024;
+            }
+            E.invalidConfigurationIf(I < 4096, "job.outbox.segment.size too small: %s", I);
+            jobOutboxSegmentSize = I;
+        }
+        return jobOutboxSegmentSize;
+    }
+
+    private void _mergeJobOutboxSegmentSize(AppConfig conf) {
+        if (!hasConfiguration(JOB_OUTBOX_SEGMENT_SIZE)) {
+            jobOutboxSegmentSize = conf.jobOutboxSegmentSize;
+        }
+    }
+
+    private Boolean virtualThreadEnabled;
+
+    protected T virtualThreadEnabled(boolean enabled) {
+        this.virtualThreadEnabled = enabled;
+        return me();
+    }
+
+    public boolean virtualThreadEnabled() {
+        if (null == virtualThreadEnabled) {
+            Boolean B = get(VIRTUAL_THREAD_ENABLED);
+            if (null == B) {
+                B = false;
+            }
+            virtualThreadEnabled = B;
+        }
+        return virtualThreadEnabled;
+    }
+
+    private void _mergeVirtualThreadEnabled(AppConfig conf) {
+        if (!hasConfiguration(VIRTUAL_THREAD_ENABLED)) {
+            virtualThreadEnabled = conf.virtualThreadEnabled;
+        }
+    }
     
     private int httpExternalPort = -1;
     
@@ -2157,6 +2283,53 @@ public class AppConfig<T extends AppConfigurator> extends Config<AppConfigKey> i
         }
     }
 
+    private Integer sessionScopeTouchThreshold = null;
+
+    protected T sessionScopeTouchThreshold(int seconds) {
+        sessionScopeTouchThreshold = seconds;
+        return me();
+    }
+
+    public int sessionScopeTouchThreshold() {
+        if (null == sessionScopeTouchThreshold) {
+            sessionScopeTouchThreshold = getInteger(AppConfigKey.SESSION_SCOPE_TOUCH_THRESHOLD);
+            if (null == sessionScopeTouchThreshold) {
+                sessionScopeTouchThreshold = sessionTtl();
+            }
+        }
+        return sessionScopeTouchThreshold;
+    }
+
+    private void _mergeSessionScopeTouchThreshold(AppConfig conf) {
+        if (!hasConfiguration(AppConfigKey.SESSION_SCOPE_TOUCH_THRESHOLD)) {
+            sessionScopeTouchThreshold = conf.sessionScopeTouchThreshold;
+        }
+    }
+
+    private Integer sessionCacheSize = null;
+
+    protected T sessionCacheSize(int size) {
+        E.illegalArgumentIf(size < 0, "session cache size shall not be negative: %s", size);
+        sessionCacheSize = size;
+        return me();
+    }
+
+    public int sessionCacheSize() {
+        if (null == sessionCacheSize) {
+            sessionCacheSize = getInteger(AppConfigKey.SESSION_CACHE_SIZE);
+            if (null == sessionCacheSize) {
+                sessionCacheSize = 4096;
+            }
+        }
+        return sessionCacheSize;
+    }
+
+    private void _mergeSessionCacheSize(AppConfig conf) {
+        if (!hasConfiguration(AppConfigKey.SESSION_CACHE_SIZE)) {
+            sessionCacheSize = conf.sessionCacheSize;
+        }
+    }
+
     private Boolean sessionPersistent = null;
 
     protected T sessionPersistent(boolean persistenSession) {
@@ -2298,6 +2471,82 @@ public class AppConfig<T extends AppConfigurator> extends Config<AppConfigKey> i
         }
     }
 
+    private int passwordHashCost = -1;
+
+    protected T passwordHashCost(int cost) {
+        E.illegalArgumentIf(cost < 4 || cost > 30, "password hash cost shall be between 4 and 30: %s", cost);
+        this.passwordHashCost = cost;
+        return me();
+    }
+
+    public int passwordHashCost() {
+        if (-1 == passwordHashCost) {
+            Integer I = getInteger(AppConfigKey.PASSWORD_HASH_COST);
+            if (null == I) {
+                I = 10;
+            }
+            E.invalidConfigurationIf(I < 4 || I > 30, "password hash cost shall be between 4 and 30: %s", I);
+            passwordHashCost = I;
+        }
+        return passwordHashCost;
+    }
+
+    private void _mergePasswordHashCost(AppConfig conf) {
+        if (!hasConfiguration(AppConfigKey.PASSWORD_HASH_COST)) {
+            passwordHashCost = conf.passwordHashCost;
+        }
+    }
+
+    private int passwordHashPoolSize = -1;
+
+    protected T passwordHashPoolSize(int size) {
+        E.illegalArgumentIf(size < 1, "password hash pool size cannot be zero or negative number: %s", size);
+        this.passwordHashPoolSize = size;
+        return me();
+    }
+
+    public int passwordHashPoolSize() {
+        if (-1 == passwordHashPoolSize) {
+            Integer I = getInteger(AppConfigKey.PASSWORD_HASH_POOL_SIZE);
+            if (null == I) {
+                I = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+            }
+            passwordHashPoolSize = I;
+        }
+        return passwordHashPoolSize;
+    }
+
+    private void _mergePasswordHashPoolSize(AppConfig conf) {
+        if (!hasConfiguration(AppConfigKey.PASSWORD_HASH_POOL_SIZE)) {
+            passwordHashPoolSize = conf.passwordHashPoolSize;
+        }
+    }
+
+    private int passwordHashQueueSize = -1;
+
+    protected T passwordHashQueueSize(int size) {
+        E.illegalArgumentIf(size < 1, "password hash queue size cannot be zero or negative number: %s", size);
+        this.passwordHashQueueSize = size;
+        return me();
+    }
+
+    public int passwordHashQueueSize() {
+        if (-1 == passwordHashQueueSize) {
+            Integer I = getInteger(AppConfigKey.PASSWORD_HASH_QUEUE_SIZE);
+            if (null == I) {
+                I = 100;
+            }
+            passwordHashQueueSize = I;
+        }
+        return passwordHashQueueSize;
+    }
+
+    private void _mergePasswordHashQueueSize(AppConfig conf) {
+        if (!hasConfiguration(AppConfigKey.PASSWORD_HASH_QUEUE_SIZE)) {
+            passwordHashQueueSize = conf.passwordHashQueueSize;
+        }
+    }
+
     private volatile SecureTicketCodec secureTicketCodec;
     private String secureTicketCodecClass;
     protected T secureTicketCodec(String secureTicketCodecClass) {
@@ -2583,6 +2832,282 @@ public class AppConfig<T extends AppConfigurator> extends Config<AppConfigKey> i
         }
     }
 
+    private WebSocketClusterBridge wsClusterBridge;
+    private boolean wsClusterBridgeLoaded;
+
+    protected T wsClusterBridge(WebSocketClusterBridge bridge) {
+        this.wsClusterBridge = $.notNull(bridge);
+        this.wsClusterBridgeLoaded = true;
+        return me();
+    }
+
+    /**
+     * Returns the websocket cluster bridge
+     * @return the cluster bridge or `null` if not configured
+     */
+    public WebSocketClusterBridge wsClusterBridge() {
+        if (!wsClusterBridgeLoaded) {
+            try {
+                wsClusterBridge = get(WS_CLUSTER_BRIDGE);
+            } catch (ConfigurationException e) {
+                Object obj = helper.getValFromAliases(raw, WS_CLUSTER_BRIDGE.key(), "impl", null);
+                if (null == obj || !"multicast".equalsIgnoreCase(obj.toString().trim())) {
+                    throw e;
+                }
+                wsClusterBridge = new MulticastWebSocketClusterBridge();
+            }
+            wsClusterBridgeLoaded = true;
+        }
+        return wsClusterBridge;
+    }
+
+    private void _mergeWsClusterBridge(AppConfig config) {
+        if (!hasConfiguration(WS_CLUSTER_BRIDGE)) {
+            wsClusterBridge = config.wsClusterBridge;
+            wsClusterBridgeLoaded = config.wsClusterBridgeLoaded;
+        }
+    }
+
+    private String wsClusterMulticastAddress;
+
+    protected T wsClusterMulticastAddress(String address) {
+        this.wsClusterMulticastAddress = address.trim();
+        return me();
+    }
+
+    public String wsClusterMulticastAddress() {
+        if (null == wsClusterMulticastAddress) {
+            String s = get(WS_CLUSTER_MULTICAST_ADDRESS);
+            if (null == s) {
+                s = "239.255.27.1:45700";
+            }
+            wsClusterMulticastAddress = s.trim();
+        }
+        return wsClusterMulticastAddress;
+    }
+
+    private void _mergeWsClusterMulticastAddress(AppConfig config) {
+        if (!hasConfiguration(WS_CLUSTER_MULTICAST_ADDRESS)) {
+            wsClusterMulticastAddress = config.wsClusterMulticastAddress;
+        }
+    }
+
+    private int wsClusterBatchLinger = -1;
+
+    protected T wsClusterBatchLinger(int ms) {
+        E.illegalArgumentIf(ms < 0, "websocket cluster batch linger cannot be negative number: %s", ms);
+        this.wsClusterBatchLinger = ms;
+        return me();
+    }
+
+    public int wsClusterBatchLinger() {
+        if (-1 == wsClusterBatchLinger) {
+            Integer I = getInteger(WS_CLUSTER_BATCH_LINGER);
+            if (null == I) {
+                I = 5;
+            }
+            if (I < 0) {
+                throw new ConfigurationException("ws.cluster.batch.linger setting cannot be negative number. Found: %s", I);
+            }
+            wsClusterBatchLinger = I;
+        }
+        return wsClusterBatchLinger;
+    }
+
+    private void _mergeWsClusterBatchLinger(AppConfig config) {
+        if (!hasConfiguration(WS_CLUSTER_BATCH_LINGER)) {
+            wsClusterBatchLinger = config.wsClusterBatchLinger;
+        }
+    }
+
+    private Boolean wsCompression;
+
+    protected T wsCompression(boolean enabled) {
+        this.wsCompression = enabled;
+        return me();
+    }
+
+    public boolean wsCompressionEnabled() {
+        if (null == wsCompression) {
+            Boolean B = get(WS_COMPRESSION);
+            if (null == B) {
+                B = false;
+            }
+            wsCompression = B;
+        }
+        return wsCompression;
+    }
+
+    private void _mergeWsCompression(AppConfig config) {
+        if (!hasConfiguration(WS_COMPRESSION)) {
+            wsCompression = config.wsCompression;
+        }
+    }
+
+    private int wsCompressionLevel = -1;
+
+    protected T wsCompressionLevel(int level) {
+        E.illegalArgumentIf(level < 0 || level > 9, "websocket compression level shall be between 0 and 9: %s", level);
+        this.wsCompressionLevel = level;
+        return me();
+    }
+
+    public int wsCompressionLevel() {
+        if (-1 == wsCompressionLevel) {
+            Integer I = getInteger(WS_COMPRESSION_LEVEL);
+            if (null == I) {
+                I = 6;
+            }
+            if (I < 0 || I > 9) {
+                throw new ConfigurationException("ws.compression.level setting shall be between 0 and 9. Found: %s", I);
+            }
+            wsCompressionLevel = I;
+        }
+        return wsCompressionLevel;
+    }
+
+    private void _mergeWsCompressionLevel(AppConfig config) {
+        if (!hasConfiguration(WS_COMPRESSION_LEVEL)) {
+            wsCompressionLevel = config.wsCompressionLevel;
+        }
+    }
+
+    private Boolean wsDispatchAsync;
+
+    protected T wsDispatchAsync(boolean enabled) {
+        this.wsDispatchAsync = enabled;
+        return me();
+    }
+
+    public boolean wsDispatchAsync() {
+        if (null == wsDispatchAsync) {
+            Boolean B = get(WS_DISPATCH_ASYNC);
+            if (null == B) {
+                B = true;
+            }
+            wsDispatchAsync = B;
+        }
+        return wsDispatchAsync;
+    }
+
+    private void _mergeWsDispatchAsync(AppConfig config) {
+        if (!hasConfiguration(WS_DISPATCH_ASYNC)) {
+            wsDispatchAsync = config.wsDispatchAsync;
+        }
+    }
+
+    private int wsDispatchInFlightMax = -1;
+
+    protected T wsDispatchInFlightMax(int max) {
+        E.illegalArgumentIf(max < 0, "websocket in flight message limit cannot be negative number: %s", max);
+        this.wsDispatchInFlightMax = max;
+        return me();
+    }
+
+    public int wsDispatchInFlightMax() {
+        if (-1 == wsDispatchInFlightMax) {
+            Integer I = getInteger(WS_DISPATCH_IN_FLIGHT_MAX);
+            if (null == I) {
+                I = 64;
+            }
+            if (I < 0) {
+                throw new ConfigurationException("ws.dispatch.in_flight.max setting cannot be negative number. Found: %s", I);
+            }
+            wsDispatchInFlightMax = I;
+        }
+        return wsDispatchInFlightMax;
+    }
+
+    private void _mergeWsDispatchInFlightMax(AppConfig config) {
+        if (!hasConfiguration(WS_DISPATCH_IN_FLIGHT_MAX)) {
+            wsDispatchInFlightMax = config.wsDispatchInFlightMax;
+        }
+    }
+
+    private int wsOutboundMaxMessages = -1;
+
+    protected T wsOutboundMaxMessages(int max) {
+        E.illegalArgumentIf(max < 0, "websocket outbound message limit cannot be negative number: %s", max);
+        this.wsOutboundMaxMessages = max;
+        return me();
+    }
+
+    public int wsOutboundMaxMessages() {
+        if (-1 == wsOutboundMaxMessages) {
+            Integer I = getInteger(WS_OUTBOUND_MAX_MESSAGES);
+            if (null == I) {
+                I = 1024;
+            }
+            if (I < 0) {
+                throw new ConfigurationException("ws.outbound.max_messages setting cannot be negative number. Found: %s", I);
+            }
+            wsOutboundMaxMessages = I;
+        }
+        return wsOutboundMaxMessages;
+    }
+
+    private void _mergeWsOutboundMaxMessages(AppConfig config) {
+        if (!hasConfiguration(WS_OUTBOUND_MAX_MESSAGES)) {
+            wsOutboundMaxMessages = config.wsOutboundMaxMessages;
+        }
+    }
+
+    private int wsOutboundMaxBytes = -1;
+
+    protected T wsOutboundMaxBytes(int max) {
+        E.illegalArgumentIf(max < 0, "websocket outbound bytes limit cannot be negative number: %s", max);
+        this.wsOutboundMaxBytes = max;
+        return me();
+    }
+
+    public int wsOutboundMaxBytes() {
+        if (-1 == wsOutboundMaxBytes) {
+            Integer I = getInteger(WS_OUTBOUND_MAX_BYTES);
+            if (null == I) {
+                I = 4 * 1024 * 1024;
+            }
+            if (I < 0) {
+                throw new ConfigurationException("ws.outbound.max_bytes setting cannot be negative number. Found: %s", I);
+            }
+            wsOutboundMaxBytes = I;
+        }
+        return wsOutboundMaxBytes;
+    }
+
+    private void _mergeWsOutboundMaxBytes(AppConfig config) {
+        if (!hasConfiguration(WS_OUTBOUND_MAX_BYTES)) {
+            wsOutboundMaxBytes = config.wsOutboundMaxBytes;
+        }
+    }
+
+    private WebSocketOutboundQueue.OverflowPolicy wsOutboundOverflowPolicy;
+
+    protected T wsOutboundOverflowPolicy(WebSocketOutboundQueue.OverflowPolicy policy) {
+        this.wsOutboundOverflowPolicy = $.notNull(policy);
+        return me();
+    }
+
+    public WebSocketOutboundQueue.OverflowPolicy wsOutboundOverflowPolicy() {
+        if (null == wsOutboundOverflowPolicy) {
+            String s = get(WS_OUTBOUND_OVERFLOW_POLICY);
+            if (null == s) {
+                wsOutboundOverflowPolicy = WebSocketOutboundQueue.OverflowPolicy.DROP_OLDEST;
+            } else {
+                wsOutboundOverflowPolicy = WebSocketOutboundQueue.OverflowPolicy.valueOfIgnoreCase(s);
+                if (null == wsOutboundOverflowPolicy) {
+                    throw new ConfigurationException("Unknown ws.outbound.overflow_policy setting: %s", s);
+                }
+            }
+        }
+        return wsOutboundOverflowPolicy;
+    }
+
+    private void _mergeWsOutboundOverflowPolicy(AppConfig config) {
+        if (!hasConfiguration(WS_OUTBOUND_OVERFLOW_POLICY)) {
+            wsOutboundOverflowPolicy = config.wsOutboundOverflowPolicy;
+        }
+    }
+
     private Set<AppConfigurator> mergeTracker = C.newSet();
 
     public void loadJarProperties(Map<String, Properties> jarProperties) {
@@ -2666,6 +3191,9 @@ public class AppConfig<T extends AppConfigurator> extends Config<AppConfigKey> i
         _mergeUrlContext(conf);
         _mergeHttpMaxParams(conf);
         _mergeJobPoolSize(conf);
+        _mergeJobOutboxEnabled(conf);
+        _mergeJobOutboxSegmentSize(conf);
+        _mergeVirtualThreadEnabled(conf);
         _mergeMissingAuthenticationHandler(conf);
         _mergeAjaxMissingAuthenticationHandler(conf);
         _mergeHttpExternal(conf);
@@ -2677,6 +3205,8 @@ public class AppConfig<T extends AppConfigurator> extends Config<AppConfigKey> i
         _mergePorts(conf);
         _mergeContentSuffixAware(conf);
         _mergeSequenceNumberGenerator(conf);
+        _mergeSequenceNumberBlockSize(conf);
+        _mergeSequenceNumberPrefetch(conf);
         _mergeErrorTemplatePathResolver(conf);
         _mergeDateFmt(conf);
         _mergeDateTimeFmt(conf);
@@ -2707,6 +3237,8 @@ public class AppConfig<T extends AppConfigurator> extends Config<AppConfigKey> i
         _mergeSessionCookieName(conf);
         _mergeFlashCookieName(conf);
         _mergeSessionTtl(conf);
+        _mergeSessionScopeTouchThreshold(conf);
+        _mergeSessionCacheSize(conf);
         _mergeSessionPersistent(conf);
         _mergeSessionEncrpt(conf);
         _mergeSessionSecure(conf);
@@ -2714,12 +3246,25 @@ public class AppConfig<T extends AppConfigurator> extends Config<AppConfigKey> i
         _mergeSessionMapper(conf);
         _mergeSessionMapperHeaderPrefix(conf);
         _mergeSecret(conf);
+        _mergePasswordHashCost(conf);
+        _mergePasswordHashPoolSize(conf);
+        _mergePasswordHashQueueSize(conf);
         _mergeSecureTicketCodec(conf);
         _mergeCacheServiceProvider(conf);
         _mergeUnknownHttpMethodHandler(conf);
         _mergeUploadInMemoryCacheThreshold(conf);
         _mergeSslSupport(conf);
         _mergeWsTicketKey(conf);
+        _mergeWsClusterBridge(conf);
+        _mergeWsClusterMulticastAddress(conf);
+        _mergeWsClusterBatchLinger(conf);
+        _mergeWsCompression(conf);
+        _mergeWsCompressionLevel(conf);
+        _mergeWsDispatchAsync(conf);
+        _mergeWsDispatchInFlightMax(conf);
+        _mergeWsOutboundMaxMessages(conf);
+        _mergeWsOutboundMaxBytes(conf);
+        _mergeWsOutboundOverflowPolicy(conf);
 
         Set<String> keys = conf.propKeys();
         if (!keys.isEmpty()) {
@@ -342,6 +342,31 @@ public enum AppConfigKey implements ConfigKey {
      */
     DB_SEQ_GENERATOR("db.seq_gen.impl"),
 
+    /**
+     * `act.db.seq_gen.block.size` specifies the number of sequence numbers
+     * to be reserved in one round-trip to the {@link act.db.util._SequenceNumberGenerator}.
+     *
+     * When the value is greater than `1` and the sequence number generator
+     * implements {@link act.db.util._SequenceNumberGenerator.BlockAllocator},
+     * the numbers are served from an in-memory window, see
+     * {@link act.db.util.HiLoSequenceNumberGenerator}
+     *
+     * Default value: `1`, i.e. block allocation is disabled
+     */
+    DB_SEQ_GEN_BLOCK_SIZE("db.seq_gen.block.size"),
+
+    /**
+     * `act.db.seq_gen.prefetch.enabled` specifies whether it shall reserve
+     * the next block of sequence numbers asynchronously before the current
+     * window is exhausted.
+     *
+     * This setting has no effect unless {@link #DB_SEQ_GEN_BLOCK_SIZE} is
+     * greater than `1`
+     *
+     * Default value: `true`
+     */
+    DB_SEQ_GEN_PREFETCH("db.seq_gen.prefetch.enabled"),
+
     /**
      * `dsp.token` specifies the name of "double submission protect token"
      *
@@ -570,6 +595,21 @@ public enum AppConfigKey implements ConfigKey {
      */
     JOB_POOL_SIZE("job.pool.size"),
 
+    /**
+     * {@code job.outbox.enabled} turn on/off the durable outbox. When enabled,
+     * emails and durable jobs are recorded in an on disk journal before
+     * execution and replayed on app start if not acknowledged
+     * <p>Default value: {@code false}</p>
+     */
+    JOB_OUTBOX_ENABLED("job.outbox.enabled"),
+
+    /**
+     * {@code job.outbox.segment.size} specifies the size in bytes of a
+     * durable outbox journal segment file
+     * <p>Default value: {@code 16777216} (16MB)</p>
+     */
+    JOB_OUTBOX_SEGMENT_SIZE("job.outbox.segment.size"),
+
     /**
      * {@code act.locale} specifies the application default locale
      * <p>Default value: {@link java.util.Locale#getDefault}</p>
@@ -624,6 +664,29 @@ public enum AppConfigKey implements ConfigKey {
      */
     NAMED_PORTS("namedPorts"),
 
+    /**
+     * {@code password_hash.cost} specifies the BCrypt log rounds used to
+     * hash passwords. Password hash with lower cost could be upgraded
+     * on successful verification, see {@link act.app.util.AppCrypto#needsRehash(String)}
+     * <p>Default value: {@code 10}</p>
+     */
+    PASSWORD_HASH_COST("password_hash.cost"),
+
+    /**
+     * {@code password_hash.pool.size} specifies the maximum number of threads
+     * used to run async password hashing and verification
+     * <p>Default value: half of the available processors</p>
+     */
+    PASSWORD_HASH_POOL_SIZE("password_hash.pool.size"),
+
+    /**
+     * {@code password_hash.queue.size} specifies the maximum number of async
+     * password hashing and verification tasks waiting for a thread. Task
+     * submitted when the queue is full will be rejected
+     * <p>Default value: {@code 100}</p>
+     */
+    PASSWORD_HASH_QUEUE_SIZE("password_hash.queue.size"),
+
     /**
      * {@code ping.path} specify the ping path.
      * If this setting is specified, then when session resolving, system
@@ -742,6 +805,29 @@ public enum AppConfigKey implements ConfigKey {
      */
     SESSION_TTL("session.ttl"),
 
+    /**
+     * {@code session.scope.touch_threshold} specifies the remaining
+     * time to live in seconds above which a `@SessionScoped` object read
+     * in a request will not be re-cached to extend its TTL.
+     *
+     * Session scoped objects are cached for double of the {@link #SESSION_TTL}
+     * and touched at most once when the session get dissolved.
+     *
+     * <p>Default value: the value of {@link #SESSION_TTL}</p>
+     */
+    SESSION_SCOPE_TOUCH_THRESHOLD("session.scope.touch_threshold"),
+
+    /**
+     * {@code session.cache.size} specifies the maximum number of verified
+     * session cookies kept in memory, so that repeated requests carrying
+     * the same session cookie skip the decryption and signature check.
+     *
+     * Set to {@code 0} to disable the cache.
+     *
+     * <p>Default value: {@code 4096}</p>
+     */
+    SESSION_CACHE_SIZE("session.cache.size"),
+
     /**
      * {@code session.persistent.enabled}
      * Specify whether the system
@@ -882,6 +968,72 @@ public enum AppConfigKey implements ConfigKey {
      */
     VIEW_DEFAULT("view.default"),
 
+    /**
+     * {@code act.virtual_thread.enabled} turn on/off virtual thread mode.
+     * When enabled and running on JDK 21+, non-express HTTP requests and
+     * jobs submitted through {@link act.job.AppJobManager#now(java.util.concurrent.Callable)}
+     * and {@code delay} methods are executed on virtual threads
+     * <p>Default value: {@code false}</p>
+     */
+    VIRTUAL_THREAD_ENABLED("virtual_thread.enabled"),
+
+    /**
+     * `ws.cluster.batch.linger`
+     *
+     * Specifies the time in milliseconds the {@link act.ws.MulticastWebSocketClusterBridge}
+     * waits for more messages to be packed into the same datagram
+     *
+     * Default value: `5`
+     */
+    WS_CLUSTER_BATCH_LINGER("ws.cluster.batch.linger"),
+
+    /**
+     * `ws.cluster.bridge.impl`
+     *
+     * Specifies the {@link act.ws.WebSocketClusterBridge} implementation that
+     * publishes websocket broadcast messages to peer nodes. Use `multicast`
+     * for {@link act.ws.MulticastWebSocketClusterBridge}.
+     *
+     * The multicast bridge signs datagrams with the app `secret`, which
+     * must be the same on all nodes. Messages are not encrypted, so
+     * only enable the multicast bridge on a trusted network segment.
+     *
+     * Default value: none, i.e. websocket messages are broadcast to local
+     * connections only
+     */
+    WS_CLUSTER_BRIDGE("ws.cluster.bridge.impl"),
+
+    /**
+     * `ws.cluster.multicast.address`
+     *
+     * Specifies the multicast group and port used by
+     * {@link act.ws.MulticastWebSocketClusterBridge}, in the form of `group:port`
+     *
+     * Default value: `239.255.27.1:45700`
+     */
+    WS_CLUSTER_MULTICAST_ADDRESS("ws.cluster.multicast.address"),
+
+    /**
+     * `ws.compression.enabled`
+     *
+     * Specifies whether it shall accept the `permessage-deflate` extension
+     * negotiated by websocket clients to compress websocket messages
+     *
+     * Default value: `false`
+     */
+    WS_COMPRESSION("ws.compression.enabled"),
+
+    /**
+     * `ws.compression.level`
+     *
+     * Specifies the deflate compression level (`0` - `9`) of websocket messages.
+     *
+     * This setting has no effect unless {@link #WS_COMPRESSION} is enabled
+     *
+     * Default value: `6`
+     */
+    WS_COMPRESSION_LEVEL("ws.compression.level"),
+
     /**
      * `ws.key.ticket`
      *
@@ -891,6 +1043,73 @@ public enum AppConfigKey implements ConfigKey {
      */
     WS_KEY_TICKET("ws.key.ticket"),
 
+    /**
+     * `ws.dispatch.async.enabled`
+     *
+     * Specifies whether websocket messages shall be handled on the worker
+     * threads instead of the network IO thread that received the message.
+     * Messages of the same connection are always handled in the order
+     * they are received.
+     *
+     * Note websocket action handler annotated with {@link act.handler.NonBlock}
+     * is always invoked on the IO thread
+     *
+     * Default value: `true`
+     */
+    WS_DISPATCH_ASYNC("ws.dispatch.async.enabled"),
+
+    /**
+     * `ws.dispatch.in_flight.max`
+     *
+     * Specifies the maximum number of messages of a single websocket connection
+     * that can be queued for handling. Once the limit is reached, it stops
+     * reading from the connection until the queued messages are handled.
+     *
+     * Set to `0` to disable the limit.
+     *
+     * This setting has no effect unless {@link #WS_DISPATCH_ASYNC} is enabled
+     *
+     * Default value: `64`
+     */
+    WS_DISPATCH_IN_FLIGHT_MAX("ws.dispatch.in_flight.max"),
+
+    /**
+     * `ws.outbound.max_messages`
+     *
+     * Specifies the maximum number of messages that can be queued for sending
+     * on a single websocket connection. Set to `0` to disable the limit.
+     *
+     * Default value: `1024`
+     */
+    WS_OUTBOUND_MAX_MESSAGES("ws.outbound.max_messages"),
+
+    /**
+     * `ws.outbound.max_bytes`
+     *
+     * Specifies the maximum number of payload bytes that can be queued for sending
+     * on a single websocket connection. Set to `0` to disable the limit.
+     *
+     * Default value: `4*1024*1024`, i.e. 4MB
+     */
+    WS_OUTBOUND_MAX_BYTES("ws.outbound.max_bytes"),
+
+    /**
+     * `ws.outbound.overflow_policy`
+     *
+     * Specifies what to do when a message is sent to a websocket connection
+     * whose outbound queue is full. Available options:
+     *
+     * * `drop_oldest` - drop the oldest queued messages
+     * * `drop_newest` - drop the new message
+     * * `coalesce` - replace the queued message with the same coalesce key
+     * * `disconnect` - close the connection
+     *
+     * Default value: `drop_oldest`
+     *
+     * @see act.ws.WebSocketOutboundQueue.OverflowPolicy
+     */
+    WS_OUTBOUND_OVERFLOW_POLICY("ws.outbound.overflow_policy"),
+
     X_FORWARD_PROTOCOL("x_forward_protocol"),
 
     ;
@@ -29,8 +29,9 @@ import org.osgl.util.C;
 
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
 
 class OutputFieldsCache {
@@ -69,14 +70,17 @@ class OutputFieldsCache {
         }
     }
 
-    private Map<K, List<String>> cache = C.newMap();
+    private ConcurrentMap<K, List<String>> cache = new ConcurrentHashMap<>();
 
     public List<String> getOutputFields(PropertySpec.MetaInfo spec, Class<?> componentClass, ActContext context) {
         K k = new K(spec.excludedFields(context), spec.outputFields(context), componentClass);
         List<String> outputs = cache.get(k);
         if (null == outputs) {
-            outputs = calculateOutputs(k);
-            cache.put(k, outputs);
+            List<String> newOutputs = calculateOutputs(k);
+            outputs = cache.putIfAbsent(k, newOutputs);
+            if (null == outputs) {
+                outputs = newOutputs;
+            }
         }
         return outputs;
     }
@@ -0,0 +1,248 @@
+package act.db.util;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.app.DbServiceManager;
+import act.conf.AppConfig;
+import act.util.LogSupport;
+import org.osgl.$;
+import org.osgl.util.C;
+import org.osgl.util.E;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link _SequenceNumberGenerator} that reserves a block of numbers from the
+ * underline {@link _SequenceNumberGenerator.BlockAllocator} in one call and
+ * serves the numbers from an in-memory window (the hi/lo algorithm).
+ *
+ * When prefetch is enabled the next block is reserved asynchronously once
+ * the remaining numbers in the current window drop to a quarter of the
+ * block size.
+ *
+ * Note numbers reserved but not served before the app shutdown are lost,
+ * thus the sequence might contain gaps.
+ */
+public class HiLoSequenceNumberGenerator extends LogSupport implements _SequenceNumberGenerator {
+
+    private final _SequenceNumberGenerator delegate;
+    private final BlockAllocator allocator;
+    private final int blockSize;
+    private final int prefetchThreshold;
+    private final Executor executor;
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Construct a hi/lo sequence number generator.
+     *
+     * @param delegate the underline generator, must implement {@link BlockAllocator}
+     * @param blockSize the number of sequence numbers reserved in one round-trip
+     * @param executor the executor to run the prefetch task, or `null` if prefetch is disabled
+     */
+    public HiLoSequenceNumberGenerator(_SequenceNumberGenerator delegate, int blockSize, Executor executor) {
+        E.illegalArgumentIf(!(delegate instanceof BlockAllocator), "delegate generator does not support block allocation: %s", delegate);
+        E.illegalArgumentIf(blockSize < 1, "block size must be positive number: %s", blockSize);
+        this.delegate = delegate;
+        this.allocator = (BlockAllocator) delegate;
+        this.blockSize = blockSize;
+        this.executor = executor;
+        this.prefetchThreshold = null == executor ? 0 : Math.max(1, blockSize / 4);
+    }
+
+    @Override
+    public long next(String name) {
+        return window(name).next();
+    }
+
+    @Override
+    public long get(String name) {
+        Window window = windows.get(name);
+        return null == window ? delegate.get(name) : window.current();
+    }
+
+    @Override
+    public void configure(AppConfig config, DbServiceManager dbManager) {
+        delegate.configure(config, dbManager);
+    }
+
+    public int blockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Returns the window state of all sequences served by this generator
+     * @return a list of window states
+     */
+    public List<Window> windows() {
+        return C.list(windows.values());
+    }
+
+    /**
+     * Returns the underline sequence number generator
+     * @return the delegate generator
+     */
+    public _SequenceNumberGenerator delegate() {
+        return delegate;
+    }
+
+    private Window window(String name) {
+        Window window = windows.get(name);
+        if (null == window) {
+            Window newWindow = new Window(name);
+            window = windows.putIfAbsent(name, newWindow);
+            if (null == window) {
+                window = newWindow;
+            }
+        }
+        return window;
+    }
+
+    private static class Block {
+        final long end;
+        final AtomicLong cursor;
+
+        Block(long start, long end) {
+            this.end = end;
+            this.cursor = new AtomicLong(start);
+        }
+    }
+
+    /**
+     * Keep track of the reserved number range of a sequence
+     */
+    public class Window {
+        private final String name;
+        private volatile Block current;
+        private volatile Block prefetched;
+        private final AtomicBoolean prefetching = new AtomicBoolean();
+        private final AtomicLong allocations = new AtomicLong();
+
+        Window(String name) {
+            this.name = $.notNull(name);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the next number to be served in the current window
+         */
+        public long getNextValue() {
+            return current();
+        }
+
+        /**
+         * Returns the (exclusive) upper bound of the current window
+         */
+        public long getWindowEnd() {
+            Block block = current;
+            return null == block ? -1 : block.end;
+        }
+
+        /**
+         * Returns the number of sequence numbers left in the current window
+         */
+        public long getRemaining() {
+            Block block = current;
+            return null == block ? 0 : Math.max(0, block.end - block.cursor.get());
+        }
+
+        /**
+         * Returns whether the next block has been prefetched
+         */
+        public boolean isPrefetched() {
+            return null != prefetched;
+        }
+
+        /**
+         * Returns the number of blocks reserved from the underline generator
+         */
+        public long getAllocations() {
+            return allocations.get();
+        }
+
+        long current() {
+            Block block = current;
+            return null == block ? delegate.get(name) : Math.min(block.cursor.get(), block.end);
+        }
+
+        long next() {
+            while (true) {
+                Block block = current;
+                if (null != block) {
+                    long n = block.cursor.getAndIncrement();
+                    if (n < block.end) {
+                        if (block.end - n == prefetchThreshold) {
+                            prefetch();
+                        }
+                        return n;
+                    }
+                }
+                synchronized (this) {
+                    if (block == current) {
+                        Block nextBlock = prefetched;
+                        prefetched = null;
+                        current = null == nextBlock ? allocate() : nextBlock;
+                    }
+                }
+            }
+        }
+
+        private Block allocate() {
+            long start = allocator.nextBlock(name, blockSize);
+            allocations.incrementAndGet();
+            return new Block(start, start + blockSize);
+        }
+
+        private void prefetch() {
+            if (null != prefetched || !prefetching.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            Block block = allocate();
+                            synchronized (Window.this) {
+                                prefetched = block;
+                            }
+                        } catch (RuntimeException e) {
+                            warn(e, "error prefetching sequence block: %s", name);
+                        } finally {
+                            prefetching.set(false);
+                        }
+                    }
+                });
+            } catch (RuntimeException e) {
+                prefetching.set(false);
+                warn(e, "error scheduling sequence block prefetch: %s", name);
+            }
+        }
+    }
+
+}
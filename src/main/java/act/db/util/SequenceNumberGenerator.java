@@ -25,10 +25,14 @@ import act.app.App;
 import act.app.DbServiceManager;
 import act.cli.Command;
 import act.cli.Required;
+import act.cli.TableView;
 import act.conf.AppConfig;
+import act.util.PropertySpec;
 import org.osgl.$;
+import org.osgl.util.C;
 
 import javax.inject.Inject;
+import java.util.List;
 
 /**
  * Sequence number manipulation utility class
@@ -94,6 +98,16 @@ public class SequenceNumberGenerator {
             return get(sequence);
         }
 
+        @Command(name = "act.seq.window", help = "display the block allocation window state of sequences")
+        @PropertySpec("name,nextValue,windowEnd,remaining,prefetched,allocations")
+        @TableView
+        public List<HiLoSequenceNumberGenerator.Window> listWindows() {
+            if (!(impl instanceof HiLoSequenceNumberGenerator)) {
+                return C.list();
+            }
+            return ((HiLoSequenceNumberGenerator) impl).windows();
+        }
+
     }
 
 }
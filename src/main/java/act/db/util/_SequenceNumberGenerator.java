@@ -50,7 +50,26 @@ public interface _SequenceNumberGenerator {
      */
     void configure(AppConfig config, DbServiceManager dbManager);
 
-    class InMemorySequenceNumberGenerator implements _SequenceNumberGenerator {
+    /**
+     * A `_SequenceNumberGenerator` implementation can implement this interface
+     * to support reserving a block of sequence numbers in one round-trip.
+     *
+     * @see HiLoSequenceNumberGenerator
+     */
+    interface BlockAllocator {
+        /**
+         * Reserve a block of `size` sequence numbers.
+         *
+         * After calling this method the sequence shall be advanced by `size`.
+         *
+         * @param name the name of the sequence
+         * @param size the number of sequence numbers to be reserved
+         * @return the first sequence number of the block reserved
+         */
+        long nextBlock(String name, int size);
+    }
+
+    class InMemorySequenceNumberGenerator implements _SequenceNumberGenerator, BlockAllocator {
 
         private ConcurrentMap<String, AtomicLong> seqs = new ConcurrentHashMap<String, AtomicLong>();
         @Override
@@ -63,6 +82,11 @@ public interface _SequenceNumberGenerator {
             return getSeq(name).get();
         }
 
+        @Override
+        public long nextBlock(String name, int size) {
+            return getSeq(name).getAndAdd(size);
+        }
+
         private AtomicLong getSeq(String name) {
             AtomicLong al = seqs.get(name);
             if (null == al) {
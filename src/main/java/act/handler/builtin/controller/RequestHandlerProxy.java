@@ -58,6 +58,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.ListIterator;
 import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern;
 
 import static org.osgl.http.H.Method.GET;
@@ -90,6 +91,8 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
     private String actionPath;
 
     private volatile ControllerAction actionHandler = null;
+    // use lock instead of synchronized block to avoid pinning virtual thread
+    private final ReentrantLock agentsLock = new ReentrantLock();
     private C.List<BeforeInterceptor> beforeInterceptors = C.newList();
     private C.List<AfterInterceptor> afterInterceptors = C.newList();
     private C.List<ExceptionInterceptor> exceptionInterceptors = C.newList();
@@ -304,10 +307,13 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
 
     private void ensureAgentsReady() {
         if (null == actionHandler) {
-            synchronized (this) {
+            agentsLock.lock();
+            try {
                 if (null == actionHandler) {
                     generateHandlers();
                 }
+            } finally {
+                agentsLock.unlock();
             }
         }
     }
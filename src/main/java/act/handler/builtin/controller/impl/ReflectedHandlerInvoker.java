@@ -38,6 +38,7 @@ import act.handler.builtin.controller.*;
 import act.inject.DependencyInjector;
 import act.inject.param.JsonDTO;
 import act.inject.param.JsonDTOClassManager;
+import act.inject.param.JsonDTOParser;
 import act.inject.param.ParamValueLoaderManager;
 import act.inject.param.ParamValueLoaderService;
 import act.job.AppJobManager;
@@ -48,7 +49,6 @@ import act.sys.Env;
 import act.util.*;
 import act.view.*;
 import act.ws.WebSocketConnectionManager;
-import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONException;
 import com.esotericsoftware.reflectasm.MethodAccess;
 import org.osgl.$;
@@ -67,6 +67,7 @@ import org.osgl.util.S;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.nio.charset.Charset;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -95,10 +96,11 @@ public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends De
     };
     protected Method method; //
     private ParamValueLoaderService paramLoaderService;
+    private volatile ParamValueLoaderService.MethodParams methodParams;
     private JsonDTOClassManager jsonDTOClassManager;
     private int paramCount;
     private int fieldsAndParamsCount;
-    private String singleJsonFieldName;
+    private BeanSpec singleJsonField;
     private boolean sessionFree;
     private boolean express;
     private List<BeanSpec> paramSpecs;
@@ -170,7 +172,7 @@ public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends De
         paramSpecs = jsonDTOClassManager.beanSpecs(controllerClass, method);
         fieldsAndParamsCount = paramSpecs.size();
         if (fieldsAndParamsCount == 1) {
-            singleJsonFieldName = paramSpecs.get(0).name();
+            singleJsonField = paramSpecs.get(0);
         }
 
         CORS.Spec corsSpec = CORS.spec(method).chain(CORS.spec(controllerClass));
@@ -207,6 +209,7 @@ public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends De
         initCacheParams();
         checkTemplateContext();
         initMissingAuthenticationAndCsrfCheckHandler();
+        initMethodParams();
     }
 
     @Override
@@ -217,6 +220,7 @@ public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends De
         controllerClass = null;
         method = null;
         methodAccess = null;
+        methodParams = null;
         handler.destroy();
         handler = null;
         cacheSupport = null;
@@ -382,7 +386,8 @@ public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends De
             return;
         }
         try {
-            JsonDTO dto = JSON.parseObject(patchedJsonBody(context), dtoClass);
+            BeanSpec singleField = 1 < fieldsAndParamsCount(context) ? null : singleJsonField(context);
+            JsonDTO dto = JsonDTOParser.parse(context.bodyBytes(), bodyCharset(context), dtoClass, singleField);
             cacheJsonDTO(context, dto);
         } catch (JSONException e) {
             if (e.getCause() != null) {
@@ -401,63 +406,27 @@ public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends De
         return fieldsAndParamsCount - context.pathVarCount();
     }
 
-    private String singleJsonFieldName(ActionContext context) {
-        if (null != singleJsonFieldName) {
-            return singleJsonFieldName;
+    private BeanSpec singleJsonField(ActionContext context) {
+        if (null != singleJsonField) {
+            return singleJsonField;
         }
         for (BeanSpec spec: paramSpecs) {
             String name = spec.name();
             if (context.isPathVar(name)) {
                 continue;
             }
-            return name;
+            return spec;
         }
         return null;
     }
 
-    /**
-     * Suppose method signature is: `public void foo(Foo foo)`, and a JSON content is
-     * not `{"foo": {foo-content}}`, then wrap it as `{"foo": body}`
-     */
-    private String patchedJsonBody(ActionContext context) {
-        String body = context.body();
-        if (S.blank(body) || 1 < fieldsAndParamsCount(context)) {
-            return body;
-        }
-        String theName = singleJsonFieldName(context);
-        int theNameLen = theName.length();
-        if (null == theName) {
-            return body;
-        }
-        body = body.trim();
-        boolean needPatch = body.charAt(0) == '[';
-        if (!needPatch) {
-            if (body.charAt(0) != '{') {
-                throw new IllegalArgumentException("Cannot parse JSON string: " + body);
-            }
-            boolean startCheckName = false;
-            int nameStart = -1;
-            for (int i = 1; i < body.length(); ++i) {
-                char c = body.charAt(i);
-                if (c == ' ') {
-                    continue;
-                }
-                if (startCheckName) {
-                    if (c == '"') {
-                        break;
-                    }
-                    int id = i - nameStart - 1;
-                    if (id >= theNameLen || theName.charAt(i - nameStart - 1) != c) {
-                        needPatch = true;
-                        break;
-                    }
-                } else if (c == '"') {
-                    startCheckName = true;
-                    nameStart = i;
-                }
-            }
+    private static Charset bodyCharset(ActionContext context) {
+        String encoding = context.req().characterEncoding();
+        try {
+            return null == encoding ? null : Charset.forName(encoding);
+        } catch (IllegalArgumentException e) {
+            return null;
         }
-        return needPatch ? S.fmt("{\"%s\": %s}", theName, body) : body;
     }
 
     private Class[] paramTypes(ClassLoader cl) {
@@ -708,7 +677,30 @@ public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends De
         if (0 == paramCount) {
             return DUMP_PARAMS;
         }
-        return paramLoaderService.loadMethodParams(controller, method, context);
+        ParamValueLoaderService.MethodParams methodParams = this.methodParams;
+        if (null == methodParams) {
+            methodParams = resolveMethodParams();
+        }
+        return paramLoaderService.loadMethodParams(methodParams, controller, context);
+    }
+
+    // resolve param loaders when the invoker is created, i.e. before it serves the first request
+    private void initMethodParams() {
+        if (0 == paramCount || disabled) {
+            return;
+        }
+        try {
+            resolveMethodParams();
+        } catch (RuntimeException e) {
+            // leave it to the first request to report the error
+            logger.warn(e, "error resolving param loaders for %s", method);
+        }
+    }
+
+    private ParamValueLoaderService.MethodParams resolveMethodParams() {
+        ParamValueLoaderService.MethodParams methodParams = paramLoaderService.methodParams(isStatic ? null : controllerClass, method);
+        this.methodParams = methodParams;
+        return methodParams;
     }
 
 
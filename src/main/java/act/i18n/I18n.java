@@ -21,6 +21,8 @@ package act.i18n;
  */
 
 import act.Act;
+import act.act_messages;
+import act.app.App;
 import act.util.ActContext;
 import org.osgl.$;
 import org.osgl.Osgl;
@@ -84,23 +86,13 @@ public class I18n {
         if (null == msgId) {
             return "";
         }
-        ResourceBundle bundle;
-        try {
-            bundle = ResourceBundle.getBundle(bundleName, $.notNull(locale), Act.app().classLoader());
-        } catch (MissingResourceException e) {
+        BundleMessages bundle = messageCache().bundle(bundleName, $.notNull(locale));
+        if (null == bundle) {
             return msgId;
         }
-        String msg = msgId;
-        if (ignoreError) {
-            if (bundle.containsKey(msgId)) {
-                msg = bundle.getString(msgId);
-            }
-        } else {
-            try {
-                msg = bundle.getString(msgId);
-            } catch (MissingResourceException e) {
-                logger.warn("Cannot find i18n message key: %s", msgId);
-            }
+        Message message = bundle.message(msgId);
+        if (!message.found && !ignoreError) {
+            logger.warn("Cannot find i18n message key: %s", msgId);
         }
         int len = args.length;
         if (len > 0) {
@@ -108,16 +100,170 @@ public class I18n {
             for (int i = 0; i < len; ++i) {
                 Object arg = args[i];
                 if (arg instanceof String) {
-                    resolvedArgs[i] = _i18n(true, locale, bundleName, (String) arg);
+                    resolvedArgs[i] = bundle.message((String) arg).msg;
                 } else {
                     resolvedArgs[i] = arg;
                 }
             }
-            MessageFormat formatter = new MessageFormat(msg, locale);
-            msg = formatter.format(resolvedArgs);
+            return message.format(resolvedArgs);
+        }
+        return message.msg;
+    }
+
+    /**
+     * Load all messages of the bundle of the locale specified into the message cache
+     * @param locale the locale
+     * @param bundleName the bundle name
+     */
+    public static void preload(Locale locale, String bundleName) {
+        preload(Act.app().classLoader(), locale, bundleName);
+    }
+
+    /**
+     * Load messages of the default bundle and act built in bundle in the default locale
+     * of the app specified into the message cache
+     * @param app the app
+     */
+    public static void preload(App app) {
+        Locale locale = app.config().locale();
+        ClassLoader classLoader = app.classLoader();
+        preload(classLoader, locale, DEF_RESOURCE_BUNDLE_NAME);
+        preload(classLoader, locale, act_messages.class.getName());
+    }
+
+    private static void preload(ClassLoader classLoader, Locale locale, String bundleName) {
+        BundleMessages bundle = messageCache(classLoader).bundle(bundleName, $.notNull(locale));
+        if (null != bundle) {
+            bundle.preload();
+        }
+    }
+
+    /**
+     * Clear the cached messages
+     */
+    public static void clearCache() {
+        messageCache = null;
+    }
+
+    private static volatile MessageCache messageCache;
+
+    private static MessageCache messageCache() {
+        return messageCache(Act.app().classLoader());
+    }
+
+    private static MessageCache messageCache(ClassLoader classLoader) {
+        MessageCache cache = messageCache;
+        // class loader changed means app refreshed in dev mode
+        if (null == cache || cache.classLoader != classLoader) {
+            cache = new MessageCache(classLoader);
+            messageCache = cache;
+        }
+        return cache;
+    }
+
+    /**
+     * Cache resource bundles and resolved messages for a class loader
+     */
+    private static class MessageCache {
+        private final ClassLoader classLoader;
+        private final ConcurrentMap<String, ConcurrentMap<Locale, BundleMessages>> bundles = new ConcurrentHashMap<>();
+
+        MessageCache(ClassLoader classLoader) {
+            this.classLoader = classLoader;
+        }
+
+        BundleMessages bundle(String bundleName, Locale locale) {
+            ConcurrentMap<Locale, BundleMessages> byLocale = bundles.get(bundleName);
+            if (null == byLocale) {
+                ConcurrentMap<Locale, BundleMessages> newMap = new ConcurrentHashMap<>();
+                byLocale = bundles.putIfAbsent(bundleName, newMap);
+                if (null == byLocale) {
+                    byLocale = newMap;
+                }
+            }
+            BundleMessages bundle = byLocale.get(locale);
+            if (null == bundle) {
+                ResourceBundle rb;
+                try {
+                    rb = ResourceBundle.getBundle(bundleName, locale, classLoader);
+                } catch (MissingResourceException e) {
+                    rb = null;
+                }
+                BundleMessages newBundle = new BundleMessages(rb, locale);
+                bundle = byLocale.putIfAbsent(locale, newBundle);
+                if (null == bundle) {
+                    bundle = newBundle;
+                }
+            }
+            return bundle.missing() ? null : bundle;
+        }
+    }
+
+    /**
+     * Cache resolved messages of a resource bundle in a certain locale
+     */
+    private static class BundleMessages {
+        private final ResourceBundle bundle;
+        private final Locale locale;
+        private final ConcurrentMap<String, Message> messages = new ConcurrentHashMap<>();
+
+        BundleMessages(ResourceBundle bundle, Locale locale) {
+            this.bundle = bundle;
+            this.locale = locale;
+        }
+
+        boolean missing() {
+            return null == bundle;
         }
 
-        return msg;
+        Message message(String msgId) {
+            Message message = messages.get(msgId);
+            if (null == message) {
+                if (!bundle.containsKey(msgId)) {
+                    // do not cache missing keys as they could be arbitrary strings
+                    return new Message(msgId, locale, false);
+                }
+                Message newMessage = new Message(bundle.getString(msgId), locale, true);
+                message = messages.putIfAbsent(msgId, newMessage);
+                if (null == message) {
+                    message = newMessage;
+                }
+            }
+            return message;
+        }
+
+        void preload() {
+            for (String key : bundle.keySet()) {
+                message(key);
+            }
+        }
+    }
+
+    /**
+     * A resolved message. The {@link MessageFormat} is parsed at
+     * the first time the message get formatted with arguments and
+     * cloned for each formatting as `MessageFormat` is not thread safe
+     */
+    private static class Message {
+        private final String msg;
+        private final Locale locale;
+        private final boolean found;
+        private volatile MessageFormat format;
+
+        Message(String msg, Locale locale, boolean found) {
+            this.msg = msg;
+            this.locale = locale;
+            this.found = found;
+        }
+
+        String format(Object[] args) {
+            MessageFormat prototype = format;
+            if (null == prototype) {
+                prototype = new MessageFormat(msg, locale);
+                format = prototype;
+            }
+            return ((MessageFormat) prototype.clone()).format(args);
+        }
     }
 
     public static String i18n(Enum<?> msgId) {
@@ -69,6 +69,12 @@ public class GenieInjector extends DependencyInjectorBase<GenieInjector> {
         modules = new LinkedHashSet<>();
         modules.add(SCOPE_MODULE);
         modules.addAll(factories());
+        app.jobManager().on(AppEventId.DEPENDENCY_INJECTOR_PROVISIONED, new Runnable() {
+            @Override
+            public void run() {
+                RequestScope.resetSlotCache();
+            }
+        });
     }
 
     @Override
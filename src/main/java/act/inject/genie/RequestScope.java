@@ -23,29 +23,49 @@ package act.inject.genie;
 import act.app.ActionContext;
 import act.cli.CliContext;
 import act.inject.param.ScopeCacheSupport;
+import act.util.ActContext;
 import org.osgl.inject.BeanSpec;
 import org.osgl.inject.ScopeCache;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The request scope cache.
+ *
+ * Each request scope key is assigned with a stable integer slot, and
+ * request scoped objects are stored in the {@link ActContext.Base#requestScoped(int) slots}
+ * of the current context. Like the attribute based storage it replaces,
+ * objects are written to both the current action context and CLI context,
+ * and read from the action context first.
+ */
 public class RequestScope extends ScopeCacheSupport.Base implements ScopeCache.RequestScope, ScopeCacheSupport {
 
     public static final act.inject.genie.RequestScope INSTANCE = new act.inject.genie.RequestScope();
 
+    // slots are shared by all request scope instances so that
+    // bean spec and the string key of the bean spec map to the same slot
+    private static final ConcurrentMap<String, Integer> slotsByKey = new ConcurrentHashMap<>();
+    private static final AtomicInteger slotCounter = new AtomicInteger();
+    // copy on write cache of bean spec to slot mapping
+    private static volatile Map<BeanSpec, Integer> slotsBySpec = new IdentityHashMap<>();
+
     @Override
     public <T> T get(BeanSpec target) {
-        return get(target.toString());
+        return get(slot(target));
     }
 
     @Override
     public <T> T get(String key) {
-        ActionContext actionContext = ActionContext.current();
-        if (null != actionContext) {
-            return actionContext.attribute(key);
-        }
-        CliContext cliContext = CliContext.current();
-        if (null != cliContext) {
-            return cliContext.attribute(key);
-        }
-        return null;
+        return get(slot(key));
+    }
+
+    public <T> T get(int slot) {
+        ActContext.Base<?> context = context();
+        return null == context ? null : context.<T>requestScoped(slot);
     }
 
     @Override
@@ -53,20 +73,84 @@ public class RequestScope extends ScopeCacheSupport.Base implements ScopeCache.R
         if (null == t) {
             return;
         }
-        put(target.toString(), t);
+        put(slot(target), t);
     }
 
     public <T> void put(String key, T t) {
         if (null == t) {
             return;
         }
+        put(slot(key), t);
+    }
+
+    public <T> void put(int slot, T t) {
+        if (null == t) {
+            return;
+        }
+        // write to both contexts in case a CLI command is running in an action context
         ActionContext actionContext = ActionContext.current();
         if (null != actionContext) {
-            actionContext.attribute(key, t);
+            actionContext.requestScoped(slot, t);
         }
         CliContext cliContext = CliContext.current();
         if (null != cliContext) {
-            cliContext.attribute(key, t);
+            cliContext.requestScoped(slot, t);
+        }
+    }
+
+    /**
+     * Returns the slot of a bean spec
+     * @param spec the bean spec
+     * @return the slot assigned to the bean spec
+     */
+    public static int slot(BeanSpec spec) {
+        Integer slot = slotsBySpec.get(spec);
+        return null == slot ? registerSlot(spec) : slot;
+    }
+
+    /**
+     * Returns the slot of a request scope key
+     * @param key the key
+     * @return the slot assigned to the key
+     */
+    public static int slot(String key) {
+        Integer slot = slotsByKey.get(key);
+        if (null == slot) {
+            Integer newSlot = slotCounter.getAndIncrement();
+            slot = slotsByKey.putIfAbsent(key, newSlot);
+            if (null == slot) {
+                slot = newSlot;
+            }
+        }
+        return slot;
+    }
+
+    /**
+     * Clear the bean spec to slot cache so that bean specs of the previous
+     * app instance can be garbage collected. Slots assigned to keys are kept
+     * stable.
+     */
+    public static synchronized void resetSlotCache() {
+        slotsBySpec = new IdentityHashMap<>();
+    }
+
+    private static synchronized int registerSlot(BeanSpec spec) {
+        Integer slot = slotsBySpec.get(spec);
+        if (null != slot) {
+            return slot;
+        }
+        slot = slot(spec.toString());
+        Map<BeanSpec, Integer> newSlots = new IdentityHashMap<>(slotsBySpec);
+        newSlots.put(spec, slot);
+        slotsBySpec = newSlots;
+        return slot;
+    }
+
+    private static ActContext.Base<?> context() {
+        ActionContext actionContext = ActionContext.current();
+        if (null != actionContext) {
+            return actionContext;
         }
+        return CliContext.current();
     }
 }
@@ -24,19 +24,42 @@ import act.app.ActionContext;
 import act.app.App;
 import act.cli.CliContext;
 import act.cli.CliSession;
+import act.conf.AppConfig;
 import act.inject.SessionVariable;
 import act.inject.param.ScopeCacheSupport;
+import org.osgl.$;
 import org.osgl.http.H;
 import org.osgl.inject.BeanSpec;
 import org.osgl.inject.ScopeCache;
 
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The session scope cache.
+ *
+ * Objects are cached in the {@link H.Session session cache} with
+ * double of the session TTL. In an HTTP request each object is read
+ * from the session cache at most once and kept in a {@link RequestView}.
+ * Objects whose remaining TTL drops below the
+ * {@link AppConfig#sessionScopeTouchThreshold() touch threshold} are
+ * re-cached once when the session get dissolved.
+ *
+ * The doubled TTL applies to HTTP sessions only. CLI session keeps
+ * session scoped objects in memory for the life of the session.
+ */
 public class SessionScope extends ScopeCacheSupport.Base implements ScopeCache.SessionScope, ScopeCacheSupport {
 
     public static final act.inject.genie.SessionScope INSTANCE = new act.inject.genie.SessionScope();
+    // TTL used to cache objects in HTTP session
     private final int TTL;
+    private final long thresholdMs;
 
     public SessionScope() {
-        TTL = (int) App.instance().config().sessionTtl();
+        AppConfig config = App.instance().config();
+        TTL = config.sessionTtl() * 2;
+        thresholdMs = config.sessionScopeTouchThreshold() * 1000L;
     }
 
     @Override
@@ -48,11 +71,9 @@ public class SessionScope extends ScopeCacheSupport.Base implements ScopeCache.S
     public <T> T get(String key) {
         ActionContext actionContext = ActionContext.current();
         if (null != actionContext) {
-            H.Session session = actionContext.session();
-            T t = session.cached(key);
-            if (null != t) {
-                session.cache(key, t, TTL);
-            }
+            RequestView view = actionContext.sessionScopeView();
+            @SuppressWarnings("unchecked")
+            T t = null == view ? null : (T) view.get(key, thresholdMs);
             return t;
         }
         CliContext cliContext = CliContext.current();
@@ -72,7 +93,10 @@ public class SessionScope extends ScopeCacheSupport.Base implements ScopeCache.S
     public <T> void put(String key, T t) {
         ActionContext actionContext = ActionContext.current();
         if (null != actionContext) {
-            actionContext.session().cache(key, t, TTL);
+            RequestView view = actionContext.sessionScopeView();
+            if (null != view) {
+                view.put(key, t, TTL);
+            }
         }
         CliContext cliContext = CliContext.current();
         if (null != cliContext) {
@@ -89,4 +113,97 @@ public class SessionScope extends ScopeCacheSupport.Base implements ScopeCache.S
         }
         return super.key(spec);
     }
+
+    /**
+     * Touch session scoped objects read in the current request whose
+     * remaining TTL is below the touch threshold.
+     *
+     * @param context the action context
+     */
+    public void touch(ActionContext context) {
+        RequestView view = context.sessionScopeView();
+        if (null != view) {
+            view.touch(TTL);
+        }
+    }
+
+    /**
+     * The wrapper of session scoped object that tracks the expiry time
+     */
+    private static class Entry implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final Object value;
+        private final long expireAt;
+
+        Entry(Object value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+
+    /**
+     * A per request view of session scoped objects. This makes sure
+     * session cache is read once and written at most once for any
+     * session scoped object in a request.
+     */
+    public static class RequestView {
+        private final H.Session session;
+        private final Map<String, Object> values = new HashMap<>();
+        private Map<String, Object> touches;
+
+        public RequestView(H.Session session) {
+            this.session = $.notNull(session);
+        }
+
+        Object get(String key, long thresholdMs) {
+            if (values.containsKey(key)) {
+                return values.get(key);
+            }
+            Object cached = session.cached(key);
+            Object value = cached;
+            if (cached instanceof Entry) {
+                Entry entry = (Entry) cached;
+                value = entry.value;
+                if (entry.expireAt - $.ms() < thresholdMs) {
+                    touchLater(key, value);
+                }
+            } else if (null != cached) {
+                // object cached without expiry time tracked
+                touchLater(key, value);
+            }
+            values.put(key, value);
+            return value;
+        }
+
+        void put(String key, Object value, int ttl) {
+            if (null != value && value == values.get(key)) {
+                // the same object has been read in this request
+                return;
+            }
+            session.cache(key, new Entry(value, $.ms() + ttl * 1000L), ttl);
+            values.put(key, value);
+            if (null != touches) {
+                touches.remove(key);
+            }
+        }
+
+        void touch(int ttl) {
+            if (null == touches || touches.isEmpty()) {
+                return;
+            }
+            long expireAt = $.ms() + ttl * 1000L;
+            for (Map.Entry<String, Object> entry : touches.entrySet()) {
+                session.cache(entry.getKey(), new Entry(entry.getValue(), expireAt), ttl);
+            }
+            touches.clear();
+        }
+
+        private void touchLater(String key, Object value) {
+            if (null == touches) {
+                touches = new HashMap<>();
+            }
+            touches.put(key, value);
+        }
+    }
 }
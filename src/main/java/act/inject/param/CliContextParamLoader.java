@@ -67,8 +67,7 @@ public class CliContextParamLoader extends ParamValueLoaderService {
         }
         $.Var<Boolean> boolBag = $.var();
         ParamValueLoader[] loaders = findMethodParamLoaders(method, commander, boolBag);
-        methodRegistry.putIfAbsent(method, loaders);
-        methodValidationConstraintLookup.put(method, boolBag.get());
+        registerMethodParams(method, loaders, boolBag.get());
         return CliContext.ParsingContextBuilder.finish();
     }
 
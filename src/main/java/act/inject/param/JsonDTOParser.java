@@ -0,0 +1,163 @@
+package act.inject.param;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.alibaba.fastjson.JSON;
+import org.osgl.$;
+import org.osgl.inject.BeanSpec;
+
+import java.nio.charset.Charset;
+
+/**
+ * Parse JSON body into {@link JsonDTO} instance.
+ *
+ * When the handler method has only one field or param to be bound, e.g.
+ * `public void foo(Foo foo)`, and the JSON body is not in the form of
+ * `{"foo": {...}}`, the whole body is parsed as the value of `foo`.
+ * The check only peeks the first JSON key, so the body is never copied
+ * or rewritten.
+ */
+public class JsonDTOParser {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * Parse JSON body bytes into DTO instance
+     *
+     * @param body the body bytes
+     * @param charset the charset of the body
+     * @param dtoClass the DTO class
+     * @param singleField the only field or param to be bound, or `null` if there are multiple
+     * @return the DTO instance or `null` if body is blank
+     */
+    public static JsonDTO parse(byte[] body, Charset charset, Class<? extends JsonDTO> dtoClass, BeanSpec singleField) {
+        if (null == charset) {
+            charset = UTF_8;
+        }
+        if (!isAsciiCompatible(charset)) {
+            return parse(new String(body, charset), dtoClass, singleField);
+        }
+        int len = body.length;
+        int start = skipWhitespace(body, skipBom(body));
+        if (start >= len) {
+            return null;
+        }
+        if (null != singleField && !startsWithKey(body, start, singleField.name())) {
+            Object value = JSON.parseObject(body, start, len - start, charset, singleField.type());
+            return wrap(dtoClass, singleField, value);
+        }
+        return JSON.parseObject(body, start, len - start, charset, dtoClass);
+    }
+
+    /**
+     * Parse JSON string into DTO instance
+     *
+     * @param body the JSON string
+     * @param dtoClass the DTO class
+     * @param singleField the only field or param to be bound, or `null` if there are multiple
+     * @return the DTO instance or `null` if body is blank
+     */
+    public static JsonDTO parse(String body, Class<? extends JsonDTO> dtoClass, BeanSpec singleField) {
+        if (null == body) {
+            return null;
+        }
+        if (body.length() > 0 && body.charAt(0) == '\uFEFF') {
+            body = body.substring(1);
+        }
+        int len = body.length();
+        int start = 0;
+        while (start < len && body.charAt(start) <= ' ') {
+            start++;
+        }
+        if (start >= len) {
+            return null;
+        }
+        if (null != singleField && !startsWithKey(body, start, singleField.name())) {
+            Object value = JSON.parseObject(body, singleField.type());
+            return wrap(dtoClass, singleField, value);
+        }
+        return JSON.parseObject(body, dtoClass);
+    }
+
+    private static JsonDTO wrap(Class<? extends JsonDTO> dtoClass, BeanSpec singleField, Object value) {
+        JsonDTO dto = $.newInstance(dtoClass);
+        dto.set(singleField.name(), value);
+        return dto;
+    }
+
+    // check if the JSON object starts with `{"<name>"`
+    private static boolean startsWithKey(byte[] body, int start, String name) {
+        if (body[start] != '{') {
+            return false;
+        }
+        int pos = skipWhitespace(body, start + 1);
+        if (pos >= body.length || body[pos] != '"') {
+            // empty object, let the parser deal with it
+            return true;
+        }
+        int nameLen = name.length();
+        if (pos + nameLen + 1 >= body.length) {
+            return false;
+        }
+        pos++;
+        for (int i = 0; i < nameLen; ++i) {
+            if (body[pos + i] != name.charAt(i)) {
+                return false;
+            }
+        }
+        return body[pos + nameLen] == '"';
+    }
+
+    private static boolean startsWithKey(String body, int start, String name) {
+        if (body.charAt(start) != '{') {
+            return false;
+        }
+        int len = body.length();
+        int pos = start + 1;
+        while (pos < len && body.charAt(pos) <= ' ') {
+            pos++;
+        }
+        if (pos >= len || body.charAt(pos) != '"') {
+            // empty object, let the parser deal with it
+            return true;
+        }
+        return body.startsWith(name, pos + 1) && pos + 1 + name.length() < len && body.charAt(pos + 1 + name.length()) == '"';
+    }
+
+    // skip UTF-8 byte order mark
+    private static int skipBom(byte[] body) {
+        return body.length >= 3 && (body[0] & 0xFF) == 0xEF && (body[1] & 0xFF) == 0xBB && (body[2] & 0xFF) == 0xBF ? 3 : 0;
+    }
+
+    private static int skipWhitespace(byte[] body, int pos) {
+        int len = body.length;
+        while (pos < len && (body[pos] & 0xFF) <= ' ') {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static boolean isAsciiCompatible(Charset charset) {
+        String name = charset.name().toUpperCase();
+        return !name.startsWith("UTF-16") && !name.startsWith("UTF-32");
+    }
+
+}
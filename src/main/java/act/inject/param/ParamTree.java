@@ -26,23 +26,36 @@ import org.osgl.logging.Logger;
 import org.osgl.util.S;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Organize request parameters into a tree.
+ *
+ * Nodes are built on demand: when a node is looked up, only the request
+ * parameters sharing the same root name with the node key are parsed
+ * and materialized.
+ */
 class ParamTree {
 
     private static final Logger LOGGER = LogManager.get(ParamTree.class);
 
+    // parsed raw param keys are cached across requests. Only keys under roots
+    // demanded by bindings are cached, and the cache is reset once full so
+    // that arbitrary client keys cannot occupy it permanently
+    private static final int KEY_CACHE_LIMIT = 4096;
+    static final ConcurrentMap<String, ParamKey> keyCache = new ConcurrentHashMap<>();
+
+    private ActContext context;
+    // raw param keys indexed by root name, removed once materialized
+    private Map<String, List<String>> pendingKeys;
     private Map<ParamKey, ParamTreeNode> allNodes = new HashMap<>();
 
     void build(ActContext context) {
-        Set<String> paramKeys = context.paramKeys();
-        for (String key : paramKeys) {
-            String[] vals = context.paramVals(key);
-            buildNode(key, vals);
-        }
+        this.context = context;
     }
 
-    private void buildNode(String rawKey, String[] vals) {
-        ParamKey key = ParamKey.of(parseRawParamKey(rawKey));
+    private void buildNode(ParamKey key, String[] vals) {
         ParamTreeNode node;
         int len = vals.length;
         if (len == 0) {
@@ -66,9 +79,64 @@ class ParamTree {
     }
 
     ParamTreeNode node(ParamKey key) {
+        ensureRoot(key.seq()[0]);
         return allNodes.get(key);
     }
 
+    private void ensureRoot(String root) {
+        if (null == pendingKeys) {
+            pendingKeys = new HashMap<>();
+            for (String rawKey : context.paramKeys()) {
+                String rootName = rootName(rawKey);
+                List<String> list = pendingKeys.get(rootName);
+                if (null == list) {
+                    list = new ArrayList<>();
+                    pendingKeys.put(rootName, list);
+                }
+                list.add(rawKey);
+            }
+        }
+        List<String> rawKeys = pendingKeys.remove(root);
+        if (null == rawKeys) {
+            return;
+        }
+        for (String rawKey : rawKeys) {
+            buildNode(paramKey(rawKey), context.paramVals(rawKey));
+        }
+    }
+
+    static ParamKey paramKey(String rawKey) {
+        ParamKey key = keyCache.get(rawKey);
+        if (null == key) {
+            key = ParamKey.of(parseRawParamKey(rawKey));
+            if (keyCache.size() >= KEY_CACHE_LIMIT) {
+                keyCache.clear();
+            }
+            keyCache.put(rawKey, key);
+        }
+        return key;
+    }
+
+    /*
+     * Returns the root name of a raw param key without parsing the whole key,
+     * e.g. `foo` of `foo.bar[0][id]`
+     */
+    static String rootName(String rawKey) {
+        int len = rawKey.length();
+        for (int i = 0; i < len; ++i) {
+            char c = rawKey.charAt(i);
+            if ('.' == c || '[' == c || ']' == c) {
+                if (0 == i) {
+                    // leading separator, fall back to full parsing
+                    String[] seq = parseRawParamKey(rawKey);
+                    return seq.length > 0 ? seq[0] : "";
+                }
+                return rawKey.substring(0, i);
+            }
+        }
+        return rawKey;
+    }
+
     private void ensureParent(ParamKey childKey, ParamTreeNode child) {
         ParamKey parentKey = childKey.parent();
         if (null == parentKey) {
@@ -0,0 +1,238 @@
+package act.inject.param;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.validation.Email;
+import act.validation.EmailHandler;
+import act.validation.NotBlank;
+
+import javax.validation.Constraint;
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Check the built-in constraints of method parameters, i.e. `@NotNull`,
+ * `@Size`, {@link NotBlank} and {@link Email} with direct checks prepared
+ * once for each method.
+ *
+ * This is a fast path for valid parameters: when any check fails the
+ * parameters shall be validated with the Bean Validation engine to get
+ * the constraint violations. Methods with any other constraint are
+ * {@link #UNSUPPORTED not supported}.
+ */
+class ParamValidator {
+
+    interface Check {
+        boolean isValid(Object value);
+    }
+
+    private static final Check NOT_NULL = new Check() {
+        @Override
+        public boolean isValid(Object value) {
+            return null != value;
+        }
+    };
+
+    private static final Check NOT_BLANK = new Check() {
+        @Override
+        public boolean isValid(Object value) {
+            return null != value && value.toString().trim().length() > 0;
+        }
+    };
+
+    private static final Check EMAIL = new Check() {
+        @Override
+        public boolean isValid(Object value) {
+            return EmailHandler.isValidEmail(value);
+        }
+    };
+
+    private static final Check IGNORED = new Check() {
+        @Override
+        public boolean isValid(Object value) {
+            return true;
+        }
+    };
+
+    private static class SizeCheck implements Check {
+        private final int min;
+        private final int max;
+
+        SizeCheck(Size size) {
+            this.min = size.min();
+            this.max = size.max();
+        }
+
+        @Override
+        public boolean isValid(Object value) {
+            if (null == value) {
+                return true;
+            }
+            int size;
+            if (value instanceof CharSequence) {
+                size = ((CharSequence) value).length();
+            } else if (value instanceof Collection) {
+                size = ((Collection) value).size();
+            } else if (value instanceof Map) {
+                size = ((Map) value).size();
+            } else {
+                size = Array.getLength(value);
+            }
+            return size >= min && size <= max;
+        }
+    }
+
+    /**
+     * Always report invalid so that parameters get validated by the Bean
+     * Validation engine
+     */
+    static final ParamValidator UNSUPPORTED = new ParamValidator(null) {
+        @Override
+        boolean isValid(Object[] params) {
+            return false;
+        }
+    };
+
+    private final Check[][] checks;
+
+    private ParamValidator(Check[][] checks) {
+        this.checks = checks;
+    }
+
+    /**
+     * Check if all parameters satisfy the constraints
+     * @param params the parameter values
+     * @return `true` if all parameters are valid
+     */
+    boolean isValid(Object[] params) {
+        for (int i = 0, j = checks.length; i < j; ++i) {
+            Check[] paramChecks = checks[i];
+            Object value = params[i];
+            for (Check check : paramChecks) {
+                if (!check.isValid(value)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    static ParamValidator of(Method method) {
+        if (hasConstraint(method.getDeclaredAnnotations()) || overrides(method)) {
+            // cross parameter constraints or constraints inherited
+            return UNSUPPORTED;
+        }
+        Class<?>[] types = method.getParameterTypes();
+        Annotation[][] annotations = method.getParameterAnnotations();
+        Check[][] checks = new Check[types.length][];
+        for (int i = 0; i < types.length; ++i) {
+            List<Check> list = new ArrayList<>();
+            for (Annotation annotation : annotations[i]) {
+                Check check = check(annotation, types[i]);
+                if (null == check) {
+                    return UNSUPPORTED;
+                } else if (IGNORED == check || (NOT_NULL == check && types[i].isPrimitive())) {
+                    continue;
+                }
+                list.add(check);
+            }
+            checks[i] = list.toArray(new Check[list.size()]);
+        }
+        return new ParamValidator(checks);
+    }
+
+    /*
+     * Returns `IGNORED` for non constraint annotations, or `null` if the
+     * annotation is a constraint not supported
+     */
+    private static Check check(Annotation annotation, Class<?> type) {
+        Class<? extends Annotation> annoType = annotation.annotationType();
+        if (NotNull.class == annoType) {
+            return ((NotNull) annotation).groups().length > 0 ? null : NOT_NULL;
+        } else if (NotBlank.class == annoType) {
+            return ((NotBlank) annotation).groups().length > 0 || !CharSequence.class.isAssignableFrom(type) ? null : NOT_BLANK;
+        } else if (Email.class == annoType) {
+            return ((Email) annotation).groups().length > 0 || !CharSequence.class.isAssignableFrom(type) ? null : EMAIL;
+        } else if (Size.class == annoType) {
+            Size size = (Size) annotation;
+            boolean sizeable = CharSequence.class.isAssignableFrom(type) || Collection.class.isAssignableFrom(type)
+                    || Map.class.isAssignableFrom(type) || type.isArray();
+            return size.groups().length > 0 || !sizeable ? null : new SizeCheck(size);
+        } else if (Valid.class == annoType || isConstraint(annoType)) {
+            return null;
+        }
+        return IGNORED;
+    }
+
+    private static boolean hasConstraint(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if (isConstraint(annotation.annotationType())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isConstraint(Class<? extends Annotation> annoType) {
+        if (annoType.isAnnotationPresent(Constraint.class)) {
+            return true;
+        }
+        // multi valued constraint container, e.g. `@Size.List`
+        Class<?> enclosing = annoType.getEnclosingClass();
+        return null != enclosing && enclosing.isAnnotationPresent(Constraint.class);
+    }
+
+    private static boolean overrides(Method method) {
+        Class<?> host = method.getDeclaringClass();
+        List<Class<?>> superTypes = new ArrayList<>();
+        if (null != host.getSuperclass()) {
+            superTypes.add(host.getSuperclass());
+        }
+        for (Class<?> intf : host.getInterfaces()) {
+            superTypes.add(intf);
+        }
+        for (int i = 0; i < superTypes.size(); ++i) {
+            Class<?> c = superTypes.get(i);
+            try {
+                c.getDeclaredMethod(method.getName(), method.getParameterTypes());
+                return true;
+            } catch (NoSuchMethodException e) {
+                // continue searching
+            }
+            if (null != c.getSuperclass()) {
+                superTypes.add(c.getSuperclass());
+            }
+            for (Class<?> intf : c.getInterfaces()) {
+                superTypes.add(intf);
+            }
+        }
+        return false;
+    }
+
+}
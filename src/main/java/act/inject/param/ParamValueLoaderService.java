@@ -109,8 +109,7 @@ public abstract class ParamValueLoaderService extends DestroyableBase {
     protected StringValueResolverManager resolverManager;
     protected BinderManager binderManager;
     protected GenieInjector injector;
-    ConcurrentMap<Method, ParamValueLoader[]> methodRegistry = new ConcurrentHashMap<>();
-    Map<Method, Boolean> methodValidationConstraintLookup = new HashMap();
+    ConcurrentMap<Method, MethodParams> methodRegistry = new ConcurrentHashMap<>();
     ConcurrentMap<Class, Map<Field, ParamValueLoader>> fieldRegistry = new ConcurrentHashMap<>();
     ConcurrentMap<Class, ParamValueLoader> classRegistry = new ConcurrentHashMap<>();
     private ConcurrentMap<$.T2<Type, Annotation[]>, ParamValueLoader> paramRegistry = new ConcurrentHashMap<>();
@@ -138,6 +137,7 @@ public abstract class ParamValueLoaderService extends DestroyableBase {
         DestroyableBase.Util.tryDestroyAll(classRegistry.values(), ApplicationScoped.class);
         DestroyableBase.Util.tryDestroyAll(paramRegistry.values(), ApplicationScoped.class);
         noBindCache.clear();
+        methodRegistry.clear();
     }
 
     public Object loadHostBean(Class beanClass, ActContext<?> ctx) {
@@ -152,37 +152,85 @@ public abstract class ParamValueLoaderService extends DestroyableBase {
         return loader.load(null, ctx, false);
     }
 
+    /**
+     * The parameter binding metadata of a method.
+     *
+     * The metadata is immutable once built, thus caller could keep it and
+     * load parameters with {@link #loadMethodParams(MethodParams, Object, ActContext)}
+     * without looking up the registries on every call.
+     */
+    public static final class MethodParams {
+        private final Method method;
+        private final ParamValueLoader[] loaders;
+        private final boolean validate;
+        private final ParamValidator validator;
+
+        private MethodParams(Method method, ParamValueLoader[] loaders, boolean validate) {
+            this.method = method;
+            this.loaders = loaders;
+            this.validate = validate;
+            this.validator = validate ? ParamValidator.of(method) : null;
+        }
+
+        public Method method() {
+            return method;
+        }
+
+        public ParamValueLoader[] loaders() {
+            return loaders;
+        }
+    }
+
     public ParamValueLoader[] methodParamLoaders(Object host, Method method) {
-        ParamValueLoader[] loaders = methodRegistry.get(method);
-        if (null == loaders) {
+        return methodParams(null == host ? null : host.getClass(), method).loaders;
+    }
+
+    /**
+     * Returns the parameter binding metadata of a method.
+     *
+     * @param hostClass the class of the host object, or `null` if method is static
+     * @param method the method
+     * @return the metadata of the method
+     */
+    public MethodParams methodParams(Class<?> hostClass, Method method) {
+        MethodParams params = methodRegistry.get(method);
+        if (null == params) {
             $.Var<Boolean> boolBag = $.var(Boolean.FALSE);
-            Class hostClass = null == host ? null : host.getClass();
-            ParamValueLoader[] newLoaders = findMethodParamLoaders(method, hostClass, boolBag);
-            loaders = methodRegistry.putIfAbsent(method, newLoaders);
-            if (null == loaders) {
-                loaders = newLoaders;
-            }
-            boolean hasValidationConstraint = boolBag.get();
-            if (hasValidationConstraint && null == host) {
-                logger.error("Cannot validate static method: %s", method);
-                hasValidationConstraint = false;
-            }
-            methodValidationConstraintLookup.put(method, hasValidationConstraint);
+            ParamValueLoader[] loaders = findMethodParamLoaders(method, hostClass, boolBag);
+            params = registerMethodParams(method, loaders, boolBag.get());
         }
-        return loaders;
+        return params;
+    }
+
+    protected MethodParams registerMethodParams(Method method, ParamValueLoader[] loaders, Boolean hasValidationConstraint) {
+        MethodParams params = methodRegistry.get(method);
+        if (null != params) {
+            return params;
+        }
+        boolean validate = null != hasValidationConstraint && hasValidationConstraint;
+        if (validate && Modifier.isStatic(method.getModifiers())) {
+            logger.error("Cannot validate static method: %s", method);
+            validate = false;
+        }
+        MethodParams newParams = new MethodParams(method, loaders, validate);
+        params = methodRegistry.putIfAbsent(method, newParams);
+        return null == params ? newParams : params;
     }
 
     public Object[] loadMethodParams(Object host, Method method, ActContext ctx) {
+        return loadMethodParams(methodParams(null == host ? null : host.getClass(), method), host, ctx);
+    }
+
+    public Object[] loadMethodParams(MethodParams methodParams, Object host, ActContext ctx) {
         try {
-            ParamValueLoader[] loaders = methodParamLoaders(host, method);
-            Boolean hasValidationConstraint = methodValidationConstraintLookup.get(method);
+            ParamValueLoader[] loaders = methodParams.loaders;
             int sz = loaders.length;
             Object[] params = new Object[sz];
             for (int i = 0; i < sz; ++i) {
                 params[i] = loaders[i].load(null, ctx, false);
             }
-            if (null != hasValidationConstraint && hasValidationConstraint) {
-                Set<ConstraintViolation> violations = $.cast(executableValidator().validateParameters(host, method, params));
+            if (methodParams.validate && !methodParams.validator.isValid(params)) {
+                Set<ConstraintViolation> violations = $.cast(executableValidator().validateParameters(host, methodParams.method, params));
                 if (!violations.isEmpty()) {
                     Map<String, ConstraintViolation> map = new HashMap<>();
                     for (ConstraintViolation v : violations) {
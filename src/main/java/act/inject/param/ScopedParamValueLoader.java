@@ -28,12 +28,14 @@ import org.osgl.inject.BeanSpec;
 class ScopedParamValueLoader implements ParamValueLoader {
     private ParamValueLoader realLoader;
     private String key;
+    private int requestScopeSlot;
     private ScopeCacheSupport scopeCache;
 
     ScopedParamValueLoader(ParamValueLoader loader, BeanSpec beanSpec, ScopeCacheSupport scopeCache) {
         this.realLoader = loader;
         this.scopeCache = scopeCache;
         this.key = scopeCache.key(beanSpec);
+        this.requestScopeSlot = RequestScope.slot(key);
     }
 
     @Override
@@ -41,7 +43,7 @@ class ScopedParamValueLoader implements ParamValueLoader {
         Object cached = scopeCache.get(key);
         boolean isSession = SessionScope.INSTANCE == scopeCache;
         if (isSession) {
-            Object requestScoped = RequestScope.INSTANCE.get(key);
+            Object requestScoped = RequestScope.INSTANCE.get(requestScopeSlot);
             if (null != requestScoped) {
                 return requestScoped;
             }
@@ -49,7 +51,7 @@ class ScopedParamValueLoader implements ParamValueLoader {
         cached = realLoader.load(cached, context, noDefaultValue);
         scopeCache.put(key, cached);
         if (isSession) {
-            RequestScope.INSTANCE.put(key, cached);
+            RequestScope.INSTANCE.put(requestScopeSlot, cached);
         }
         return cached;
     }
@@ -26,11 +26,13 @@ import act.app.App;
 import act.app.AppServiceBase;
 import act.app.AppThreadFactory;
 import act.app.event.AppEventId;
+import act.conf.AppConfig;
 import act.event.AppEventListenerBase;
 import act.event.OnceEventListenerBase;
 import act.mail.MailerContext;
 import act.util.ProgressGauge;
 import act.util.SimpleProgressGauge;
+import act.util.VirtualThreads;
 import org.joda.time.DateTime;
 import org.joda.time.Seconds;
 import org.osgl.$;
@@ -43,6 +45,7 @@ import org.osgl.util.E;
 import org.osgl.util.S;
 import org.rythmengine.utils.Time;
 
+import java.io.File;
 import java.util.EventObject;
 import java.util.Map;
 import java.util.concurrent.*;
@@ -54,6 +57,8 @@ public class AppJobManager extends AppServiceBase<AppJobManager> {
     private ScheduledThreadPoolExecutor executor;
     private ConcurrentMap<String, Job> jobs = new ConcurrentHashMap<String, Job>();
     private ConcurrentMap<String, ScheduledFuture> scheduled = new ConcurrentHashMap<>();
+    private Outbox outbox;
+    private ExecutorService virtualExecutor;
 
     static String appEventJobId(AppEventId eventId) {
         return S.concat("__act_app__", eventId.toString().toLowerCase());
@@ -65,6 +70,7 @@ public class AppJobManager extends AppServiceBase<AppJobManager> {
         for (AppEventId appEventId : AppEventId.values()) {
             createAppEventListener(appEventId);
         }
+        initOutbox(app);
     }
 
     @Override
@@ -76,13 +82,45 @@ public class AppJobManager extends AppServiceBase<AppJobManager> {
         jobs.clear();
         executor.getQueue().clear();
         executor.shutdownNow();
+        if (null != virtualExecutor) {
+            virtualExecutor.shutdownNow();
+            virtualExecutor = null;
+        }
+        if (null != outbox) {
+            outbox.close();
+            outbox = null;
+        }
+    }
+
+    /**
+     * Returns the executor that runs each task in a virtual thread, or `null`
+     * if virtual thread mode is not enabled or not supported by the JVM
+     * @return the virtual thread executor
+     */
+    public Executor virtualThreadExecutor() {
+        return virtualExecutor;
+    }
+
+    /**
+     * Returns the durable {@link Outbox} or `null` if outbox is not enabled
+     * @return the outbox
+     */
+    public Outbox outbox() {
+        return outbox;
     }
 
     public <T> Future<T> now(Callable<T> callable) {
+        if (null != virtualExecutor) {
+            return virtualExecutor.submit(callable);
+        }
         return executor().submit(callable);
     }
 
     public void now(Runnable runnable) {
+        if (null != virtualExecutor) {
+            virtualExecutor.submit(wrap(runnable));
+            return;
+        }
         executor().submit(wrap(runnable));
     }
 
@@ -118,21 +156,38 @@ public class AppJobManager extends AppServiceBase<AppJobManager> {
     }
 
     public <T> Future<T> delay(Callable<T> callable, long delay, TimeUnit timeUnit) {
+        if (null != virtualExecutor) {
+            // the scheduler thread only hands over the task to a virtual thread
+            final FutureTask<T> task = new FutureTask<>(callable);
+            executor().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    if (!task.isCancelled()) {
+                        virtualExecutor.execute(task);
+                    }
+                }
+            }, delay, timeUnit);
+            return task;
+        }
         return executor().schedule(callable, delay, timeUnit);
     }
 
     public void delay(Runnable runnable, long delay, TimeUnit timeUnit) {
+        if (null != virtualExecutor) {
+            delay(Executors.callable(wrap(runnable)), delay, timeUnit);
+            return;
+        }
         executor().schedule(wrap(runnable), delay, timeUnit);
     }
 
     public <T> Future<T> delay(Callable<T> callable, String delay) {
         int seconds = parseTime(delay);
-        return executor().schedule(callable, seconds, TimeUnit.SECONDS);
+        return delay(callable, seconds, TimeUnit.SECONDS);
     }
 
     public void delay(Runnable runnable, String delay) {
         int seconds = parseTime(delay);
-        executor().schedule(wrap(runnable), seconds, TimeUnit.SECONDS);
+        delay(runnable, seconds, TimeUnit.SECONDS);
     }
 
     public void every(String id, Runnable runnable, String interval) {
@@ -364,11 +419,36 @@ public class AppJobManager extends AppServiceBase<AppJobManager> {
         int poolSize = app.config().jobPoolSize();
         executor = new ScheduledThreadPoolExecutor(poolSize, new AppThreadFactory("jobs"), new ThreadPoolExecutor.AbortPolicy());
         executor.setRemoveOnCancelPolicy(true);
+        if (app.config().virtualThreadEnabled()) {
+            if (VirtualThreads.isSupported()) {
+                virtualExecutor = VirtualThreads.newExecutor("jobs");
+                LOGGER.info("virtual thread mode enabled");
+            } else {
+                LOGGER.warn("virtual thread not supported by the JVM, fall back to platform thread pool");
+            }
+        }
         if (LOGGER.isTraceEnabled()) {
             LOGGER.trace("init executor with thread pool: %s", poolSize);
         }
     }
 
+    private void initOutbox(App app) {
+        AppConfig config = app.config();
+        if (!config.jobOutboxEnabled()) {
+            return;
+        }
+        File dir = new File(app.tmpDir(), "outbox");
+        outbox = new Outbox(new OutboxJournal(dir, config.jobOutboxSegmentSize()), this);
+        afterAppStart(new Runnable() {
+            @Override
+            public void run() {
+                if (null != outbox) {
+                    outbox.replay();
+                }
+            }
+        });
+    }
+
     private void createAppEventListener(AppEventId appEventId) {
         String jobId = appEventJobId(appEventId);
         Job job = new Job(jobId, this);
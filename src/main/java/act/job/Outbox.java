@@ -0,0 +1,218 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.util.LogSupport;
+import org.osgl.$;
+import org.osgl.util.E;
+
+import java.io.File;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The durable outbox records tasks in an {@link OutboxJournal} before
+ * they are executed by the {@link AppJobManager} and acknowledges them
+ * once executed. Tasks not acknowledged when the app stopped or crashed
+ * are replayed by the {@link Handler} registered with the task type
+ * after app started, thus tasks are executed at least once.
+ *
+ * A task is acknowledged only when it succeeded. A task failed with
+ * exception or returned `Boolean.FALSE` is retried after
+ * {@link #RETRY_DELAYS delays}, and then moved to the
+ * {@link OutboxJournal#deadLetter(long, String, byte[]) dead letter}
+ * directory when all retries failed. Recovered tasks of type with no
+ * handler registered are moved to dead letter directly. A task
+ * interrupted, e.g. when app is shutting down, is left pending and get
+ * replayed after the app restarted.
+ *
+ * Note the future returned by `submit` methods reports the result of
+ * the first attempt.
+ */
+public class Outbox extends LogSupport {
+
+    /**
+     * Execute a task from the payload recorded
+     */
+    public interface Handler {
+        void handle(byte[] payload) throws Exception;
+    }
+
+    /**
+     * Delays in seconds before retrying a failed task
+     */
+    static final int[] RETRY_DELAYS = {5, 60, 600};
+
+    private final OutboxJournal journal;
+    private final AppJobManager jobManager;
+    private final ConcurrentMap<String, Handler> handlers = new ConcurrentHashMap<>();
+
+    Outbox(OutboxJournal journal, AppJobManager jobManager) {
+        this.journal = $.notNull(journal);
+        this.jobManager = $.notNull(jobManager);
+    }
+
+    /**
+     * Register the handler that execute tasks of a certain type
+     *
+     * @param type the task type
+     * @param handler the handler
+     */
+    public void registerHandler(String type, Handler handler) {
+        handlers.put(type, $.notNull(handler));
+    }
+
+    /**
+     * Record a task and execute it with the handler registered
+     *
+     * @param type the task type
+     * @param payload the task payload
+     * @return the future of the task
+     */
+    public Future<?> submit(String type, final byte[] payload) {
+        Handler handler = handlers.get(type);
+        E.illegalArgumentIf(null == handler, "outbox handler not registered: %s", type);
+        return submit(type, payload, handlerTask(handler, payload));
+    }
+
+    /**
+     * Record a task and execute it with the callable specified. The
+     * handler registered with the task type is used when the task
+     * is replayed.
+     *
+     * @param type the task type
+     * @param payload the task payload
+     * @param task the task
+     * @param <T> the type of the task result
+     * @return the future of the task
+     */
+    public <T> Future<T> submit(String type, byte[] payload, Callable<T> task) {
+        long id = journal.append(type, payload);
+        return jobManager.now(new Attempt<>(id, type, payload, task, 0));
+    }
+
+    /**
+     * Returns the number of tasks not acknowledged yet
+     * @return the pending task number
+     */
+    public int pending() {
+        return journal.pending();
+    }
+
+    void replay() {
+        int n = 0;
+        for (final OutboxJournal.Entry entry : journal.recovered()) {
+            Handler handler = handlers.get(entry.type());
+            if (null == handler) {
+                File file = journal.deadLetter(entry.id(), entry.type(), entry.payload());
+                error("outbox handler not registered, task[%s] of type %s moved to dead letter: %s", entry.id(), entry.type(), file);
+                continue;
+            }
+            jobManager.now(new Attempt<>(entry.id(), entry.type(), entry.payload(), handlerTask(handler, entry.payload()), 0));
+            n++;
+        }
+        if (n > 0) {
+            info("%s outbox task(s) replayed", n);
+        }
+    }
+
+    void close() {
+        journal.close();
+    }
+
+    private static Callable<Object> handlerTask(final Handler handler, final byte[] payload) {
+        return new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                handler.handle(payload);
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Execute the task, acknowledge it on success and schedule retry on failure
+     */
+    private class Attempt<T> implements Callable<T> {
+        private final long id;
+        private final String type;
+        private final byte[] payload;
+        private final Callable<T> task;
+        private final int attempt;
+
+        Attempt(long id, String type, byte[] payload, Callable<T> task, int attempt) {
+            this.id = id;
+            this.type = type;
+            this.payload = payload;
+            this.task = task;
+            this.attempt = attempt;
+        }
+
+        @Override
+        public T call() throws Exception {
+            T result;
+            try {
+                result = task.call();
+            } catch (Exception e) {
+                failed(e);
+                throw e;
+            }
+            if (Boolean.FALSE.equals(result)) {
+                failed(null);
+            } else {
+                journal.ack(id);
+            }
+            return result;
+        }
+
+        private void failed(Exception e) {
+            if (Thread.currentThread().isInterrupted()) {
+                // leave it pending for replay
+                return;
+            }
+            if (attempt < RETRY_DELAYS.length) {
+                int delay = RETRY_DELAYS[attempt];
+                if (null == e) {
+                    warn("outbox task[%s] of type %s failed, retry in %s seconds", id, type, delay);
+                } else {
+                    warn(e, "outbox task[%s] of type %s failed, retry in %s seconds", id, type, delay);
+                }
+                try {
+                    jobManager.delay(new Attempt<>(id, type, payload, task, attempt + 1), delay, TimeUnit.SECONDS);
+                } catch (RuntimeException e1) {
+                    // e.g. job manager shutting down, leave it pending for replay
+                    warn(e1, "error scheduling retry of outbox task[%s]", id);
+                }
+            } else {
+                File file = journal.deadLetter(id, type, payload);
+                if (null == e) {
+                    error("outbox task[%s] of type %s failed after %s retries, moved to dead letter: %s", id, type, attempt, file);
+                } else {
+                    error(e, "outbox task[%s] of type %s failed after %s retries, moved to dead letter: %s", id, type, attempt, file);
+                }
+            }
+        }
+    }
+
+}
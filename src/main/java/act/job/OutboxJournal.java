@@ -0,0 +1,417 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.util.LogSupport;
+import org.osgl.$;
+import org.osgl.util.C;
+import org.osgl.util.E;
+import org.osgl.util.IO;
+import org.osgl.util.S;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only journal backed by memory mapped segment files.
+ *
+ * Each {@link #append(String, byte[]) appended} entry is flushed to disk
+ * before the method returns. Concurrent appenders share one flush (group
+ * commit): the thread that gets the flush lock forces everything written
+ * so far, and the others waiting on the lock return immediately if their
+ * records are already covered.
+ *
+ * {@link #ack(long) Acknowledgements} are appended without flush, thus an
+ * entry might be recovered again after crash. Segment files are deleted
+ * once all entries in them and all older segments are acknowledged.
+ *
+ * Record layout: `length(int) | kind(byte) | id(long) [| typeLen(short) | type | payload] | crc32(int)`
+ */
+public class OutboxJournal extends LogSupport {
+
+    /**
+     * An entry not acknowledged yet
+     */
+    public static class Entry {
+        private final long id;
+        private final String type;
+        private final byte[] payload;
+
+        Entry(long id, String type, byte[] payload) {
+            this.id = id;
+            this.type = type;
+            this.payload = payload;
+        }
+
+        public long id() {
+            return id;
+        }
+
+        public String type() {
+            return type;
+        }
+
+        public byte[] payload() {
+            return payload;
+        }
+    }
+
+    private static class Segment {
+        final long seq;
+        final File file;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        int pending;
+
+        Segment(long seq, File file, int size) throws IOException {
+            this.seq = seq;
+            this.file = file;
+            this.channel = new RandomAccessFile(file, "rw").getChannel();
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final byte KIND_ENTRY = 1;
+    private static final byte KIND_ACK = 2;
+    // length + kind + id + crc
+    private static final int OVERHEAD = 4 + 1 + 8 + 4;
+    private static final String PREFIX = "outbox-";
+    private static final String SUFFIX = ".journal";
+    private static final String DEAD_LETTER_DIR = "dead";
+
+    private final File dir;
+    private final int segmentSize;
+    private final LinkedList<Segment> segments = new LinkedList<>();
+    private final Map<Long, Segment> pending = new HashMap<>();
+    private final List<Entry> recovered = new ArrayList<>();
+    private Segment current;
+    private long nextId;
+    private long written;
+    private volatile long synced;
+    private boolean closed;
+    private final Object flushLock = new Object();
+
+    /**
+     * Open the journal in the directory specified. Entries found in
+     * existing segment files and not acknowledged could be fetched via
+     * {@link #recovered()}.
+     *
+     * @param dir the journal directory
+     * @param segmentSize the size of a segment file in bytes
+     */
+    public OutboxJournal(File dir, int segmentSize) {
+        E.illegalArgumentIf(segmentSize < 4096, "segment size too small: %s", segmentSize);
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw E.ioException("cannot create outbox journal dir: %s", dir);
+        }
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        try {
+            recover();
+            roll();
+        } catch (IOException e) {
+            throw E.ioException(e);
+        }
+    }
+
+    /**
+     * Returns entries loaded from existing segments that are not acknowledged
+     * yet, ordered by ID
+     * @return the recovered entries
+     */
+    public synchronized List<Entry> recovered() {
+        return C.list(recovered);
+    }
+
+    /**
+     * Append an entry and flush it to disk.
+     *
+     * @param type the entry type
+     * @param payload the entry payload
+     * @return the entry ID
+     */
+    public long append(String type, byte[] payload) {
+        byte[] typeBytes = type.getBytes(UTF_8);
+        int size = OVERHEAD + 2 + typeBytes.length + payload.length;
+        E.illegalArgumentIf(size > segmentSize, "outbox entry too large: %s", size);
+        long id, target;
+        synchronized (this) {
+            E.illegalStateIf(closed, "outbox journal closed");
+            Segment segment = reserve(size);
+            id = nextId++;
+            ByteBuffer body = ByteBuffer.allocate(size - 8);
+            body.put(KIND_ENTRY);
+            body.putLong(id);
+            body.putShort((short) typeBytes.length);
+            body.put(typeBytes);
+            body.put(payload);
+            write(segment.buffer, body.array());
+            segment.pending++;
+            pending.put(id, segment);
+            written += size;
+            target = written;
+        }
+        flush(target);
+        return id;
+    }
+
+    /**
+     * Acknowledge an entry. The ack record is not flushed immediately.
+     *
+     * @param id the entry ID
+     */
+    public synchronized void ack(long id) {
+        if (closed) {
+            return;
+        }
+        Segment segment = pending.remove(id);
+        if (null == segment) {
+            return;
+        }
+        ByteBuffer body = ByteBuffer.allocate(OVERHEAD - 8);
+        body.put(KIND_ACK);
+        body.putLong(id);
+        write(reserve(OVERHEAD).buffer, body.array());
+        written += OVERHEAD;
+        segment.pending--;
+        purge();
+    }
+
+    /**
+     * Save an entry that cannot be executed into the dead letter directory
+     * `dead` under the journal directory and then acknowledge it, so that
+     * it no longer blocks the purge of the segment.
+     *
+     * @param id the entry ID
+     * @param type the entry type
+     * @param payload the entry payload
+     * @return the dead letter file
+     */
+    public File deadLetter(long id, String type, byte[] payload) {
+        File deadDir = new File(dir, DEAD_LETTER_DIR);
+        if (!deadDir.exists() && !deadDir.mkdirs()) {
+            throw E.ioException("cannot create outbox dead letter dir: %s", deadDir);
+        }
+        String name = S.concat(String.valueOf($.ms()), "-", String.valueOf(id), "-", type.replaceAll("[^A-Za-z0-9._-]", "_"), ".payload");
+        File file = new File(deadDir, name);
+        IO.write(payload, file);
+        ack(id);
+        return file;
+    }
+
+    /**
+     * Returns the number of entries not acknowledged yet
+     * @return the pending entry number
+     */
+    public synchronized int pending() {
+        return pending.size();
+    }
+
+    /**
+     * Returns the number of segment files
+     * @return the segment number
+     */
+    public synchronized int segments() {
+        return segments.size();
+    }
+
+    public void close() {
+        synchronized (flushLock) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                for (Segment segment : segments) {
+                    segment.buffer.force();
+                    segment.close();
+                }
+                segments.clear();
+                pending.clear();
+            }
+        }
+    }
+
+    private void flush(long target) {
+        if (synced >= target) {
+            return;
+        }
+        synchronized (flushLock) {
+            if (synced >= target) {
+                return;
+            }
+            MappedByteBuffer buf;
+            long upTo;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                buf = current.buffer;
+                upTo = written;
+            }
+            // segments rolled out has been forced already
+            buf.force();
+            synced = upTo;
+        }
+    }
+
+    private Segment reserve(int size) {
+        // keep at least 4 bytes for the end mark
+        if (current.buffer.remaining() < size + 4) {
+            current.buffer.force();
+            try {
+                roll();
+            } catch (IOException e) {
+                throw E.ioException(e);
+            }
+            purge();
+        }
+        return current;
+    }
+
+    private void roll() throws IOException {
+        long seq = null == current ? (segments.isEmpty() ? 0 : segments.getLast().seq + 1) : current.seq + 1;
+        current = new Segment(seq, new File(dir, segmentName(seq)), segmentSize);
+        segments.add(current);
+    }
+
+    /*
+     * Delete the oldest segments that have no pending entries. Segments
+     * must be deleted in order because ack records of an entry always
+     * reside in the same or a later segment
+     */
+    private void purge() {
+        while (segments.size() > 1) {
+            Segment segment = segments.getFirst();
+            if (segment.pending > 0 || segment == current) {
+                return;
+            }
+            segments.removeFirst();
+            segment.close();
+            if (!segment.file.delete()) {
+                warn("cannot delete outbox journal segment: %s", segment.file);
+            }
+        }
+    }
+
+    private void recover() throws IOException {
+        File[] files = dir.listFiles();
+        if (null == files) {
+            return;
+        }
+        TreeMap<Long, File> sorted = new TreeMap<>();
+        for (File file : files) {
+            String name = file.getName();
+            if (name.startsWith(PREFIX) && name.endsWith(SUFFIX)) {
+                try {
+                    sorted.put(Long.parseLong(S.afterFirst(S.beforeLast(name, SUFFIX), PREFIX)), file);
+                } catch (NumberFormatException e) {
+                    warn("unknown file found in outbox journal dir: %s", file);
+                }
+            }
+        }
+        Map<Long, Entry> entries = new TreeMap<>();
+        for (Map.Entry<Long, File> pair : sorted.entrySet()) {
+            File file = pair.getValue();
+            Segment segment = new Segment(pair.getKey(), file, (int) Math.max(file.length(), 4096));
+            segments.add(segment);
+            scan(segment, entries);
+        }
+        for (Entry entry : entries.values()) {
+            nextId = Math.max(nextId, entry.id + 1);
+            recovered.add(entry);
+        }
+        for (Segment segment : segments) {
+            segment.pending = 0;
+        }
+        for (Entry entry : recovered) {
+            Segment segment = pending.get(entry.id);
+            segment.pending++;
+        }
+        purge();
+    }
+
+    private void scan(Segment segment, Map<Long, Entry> entries) {
+        MappedByteBuffer buf = segment.buffer;
+        while (buf.remaining() >= OVERHEAD) {
+            int start = buf.position();
+            int len = buf.getInt();
+            if (len < OVERHEAD - 8 || len > buf.remaining() - 4) {
+                // end mark or torn write
+                break;
+            }
+            byte[] bytes = new byte[len];
+            buf.get(bytes);
+            if (buf.getInt() != crc(bytes)) {
+                warn("corrupted record found in outbox journal segment %s at %s", segment.file, start);
+                break;
+            }
+            ByteBuffer body = ByteBuffer.wrap(bytes);
+            byte kind = body.get();
+            long id = body.getLong();
+            nextId = Math.max(nextId, id + 1);
+            if (KIND_ENTRY == kind) {
+                byte[] typeBytes = new byte[body.getShort()];
+                body.get(typeBytes);
+                byte[] payload = new byte[body.remaining()];
+                body.get(payload);
+                entries.put(id, new Entry(id, new String(typeBytes, UTF_8), payload));
+                pending.put(id, segment);
+            } else {
+                entries.remove(id);
+                pending.remove(id);
+            }
+        }
+    }
+
+    private static String segmentName(long seq) {
+        return S.fmt("%s%019d%s", PREFIX, seq, SUFFIX);
+    }
+
+    private static void write(MappedByteBuffer buf, byte[] body) {
+        buf.putInt(body.length);
+        buf.put(body);
+        buf.putInt(crc(body));
+    }
+
+    private static int crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+        return (int) crc.getValue();
+    }
+
+}
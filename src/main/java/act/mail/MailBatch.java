@@ -0,0 +1,243 @@
+package act.mail;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.Act;
+import act.metric.Metric;
+import act.metric.MetricPlugin;
+import act.metric.Timer;
+import act.util.LogSupport;
+import act.view.Template;
+import org.osgl.$;
+import org.osgl.util.E;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Send one mail template to many recipients.
+ *
+ * Each recipient get a copy of the prototype {@link MailerContext}, which
+ * is then {@link Personalizer personalized} with recipient addresses, render
+ * arguments and optionally the locale. The template is resolved once per
+ * locale and reused for all recipients with the same locale, unless the
+ * prototype has the template cached already, in which case that template is
+ * used for all recipients. Personalizers shall not change the template path.
+ *
+ * Messages are rendered in parallel by the calling thread and up to
+ * {@code workers - 1} threads borrowed from the executor shared by all
+ * batches of the app, see {@link MailerConfigManager#batchExecutor()}.
+ * Each worker sends the message it rendered through the
+ * {@link MailDeliveryEngine} before pulling the next recipient, thus
+ * recipients are streamed from the iterable and messages are never
+ * accumulated in memory.
+ *
+ * Note messages sent in batch are not recorded in the durable outbox.
+ *
+ * @param <T> the recipient type
+ */
+public class MailBatch<T> extends LogSupport {
+
+    /**
+     * Set up the mailer context for a recipient
+     *
+     * @param <T> the recipient type
+     */
+    public interface Personalizer<T> {
+        /**
+         * Set recipient addresses and render arguments of the context
+         *
+         * @param recipient the recipient
+         * @param context the mailer context copied from the prototype
+         */
+        void personalize(T recipient, MailerContext context);
+    }
+
+    /**
+     * The outcome of a batch
+     */
+    public static class Result {
+        private final long sent;
+        private final long failed;
+        private final long elapsedMs;
+
+        Result(long sent, long failed, long elapsedMs) {
+            this.sent = sent;
+            this.failed = failed;
+            this.elapsedMs = elapsedMs;
+        }
+
+        public long sent() {
+            return sent;
+        }
+
+        public long failed() {
+            return failed;
+        }
+
+        public long elapsedMs() {
+            return elapsedMs;
+        }
+
+        /**
+         * Returns number of messages sent per second
+         * @return the throughput
+         */
+        public double throughput() {
+            return 0 == elapsedMs ? sent : sent * 1000.0 / elapsedMs;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s sent, %s failed in %sms (%.1f msg/s)", sent, failed, elapsedMs, throughput());
+        }
+    }
+
+    private static final Object NONE = new Object();
+
+    private final MailerContext prototype;
+    private final Iterator<T> recipients;
+    private final Personalizer<T> personalizer;
+    private final int workers;
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final ConcurrentMap<String, Template> templates = new ConcurrentHashMap<>();
+
+    /**
+     * Construct a mail batch.
+     *
+     * @param prototype the mailer context that provides template and common settings
+     * @param recipients the recipients
+     * @param personalizer set up context for each recipient
+     * @param workers the number of render workers
+     */
+    public MailBatch(MailerContext prototype, Iterable<T> recipients, Personalizer<T> personalizer, int workers) {
+        E.illegalArgumentIf(workers < 1, "workers must be positive number: %s", workers);
+        this.prototype = $.notNull(prototype);
+        this.recipients = recipients.iterator();
+        this.personalizer = $.notNull(personalizer);
+        this.workers = workers;
+    }
+
+    /**
+     * Render and send messages to all recipients. This method blocks
+     * until all messages are processed, during which the calling thread
+     * works on the batch as well.
+     *
+     * @return the batch result
+     */
+    public Result run() {
+        final MailerConfig config = prototype.mailerConfig();
+        E.unexpectedIf(null == config, "Cannot find mailer config for %s", prototype);
+        final Metric metric = metric(config);
+        long start = System.currentTimeMillis();
+        ExecutorService executor = prototype.app().mailerConfigManager().batchExecutor();
+        List<Future<?>> helpers = new ArrayList<>(workers - 1);
+        Runnable worker = new Runnable() {
+            @Override
+            public void run() {
+                work(config, metric);
+            }
+        };
+        try {
+            for (int i = 1; i < workers; ++i) {
+                helpers.add(executor.submit(worker));
+            }
+            worker.run();
+        } finally {
+            // helpers still queued behind other batches have nothing left to do
+            for (Future<?> helper : helpers) {
+                helper.cancel(false);
+            }
+        }
+        try {
+            for (Future<?> helper : helpers) {
+                if (!helper.isCancelled()) {
+                    helper.get();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            warn("mail batch interrupted");
+        } catch (ExecutionException e) {
+            warn(e.getCause(), "error running mail batch worker");
+        }
+        Result result = new Result(sent.get(), failed.get(), System.currentTimeMillis() - start);
+        info("mail batch[%s] done: %s", config.id(), result);
+        return result;
+    }
+
+    private void resolveTemplate(MailerContext context) {
+        if (null != context.cachedTemplate() || context.hasContent()) {
+            return;
+        }
+        Locale locale = context.locale(true);
+        String key = String.valueOf(locale);
+        Template template = templates.get(key);
+        if (null == template) {
+            template = Act.viewManager().load(context);
+            if (null == template) {
+                return;
+            }
+            templates.putIfAbsent(key, template);
+        }
+        context.cacheTemplate(template);
+    }
+
+    private void work(MailerConfig config, Metric metric) {
+        Object next;
+        while (!Thread.currentThread().isInterrupted() && NONE != (next = next())) {
+            T recipient = $.cast(next);
+            MailerContext context = prototype.copy();
+            Timer timer = metric.startTimer("batch.send");
+            try {
+                personalizer.personalize(recipient, context);
+                resolveTemplate(context);
+                MailerContext.deliver(config, context.createMessage());
+                sent.incrementAndGet();
+                metric.countOnce("batch.sent");
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                metric.countOnce("batch.failed");
+                warn(e, "error sending batch email to %s", recipient);
+            } finally {
+                timer.stop();
+                context.destroy();
+            }
+        }
+    }
+
+    private Object next() {
+        synchronized (recipients) {
+            return recipients.hasNext() ? recipients.next() : NONE;
+        }
+    }
+
+    private static Metric metric(MailerConfig config) {
+        MetricPlugin plugin = Act.metricPlugin();
+        return null == plugin ? Metric.NULL_METRIC : plugin.metric("act.mail." + config.id());
+    }
+
+}
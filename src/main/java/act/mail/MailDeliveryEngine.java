@@ -0,0 +1,267 @@
+package act.mail;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.metric.Metric;
+import act.metric.Timer;
+import act.util.LogSupport;
+import com.sun.mail.smtp.SMTPSendFailedException;
+import org.osgl.$;
+import org.osgl.util.E;
+
+import javax.mail.*;
+import javax.mail.internet.MimeMessage;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deliver emails of a {@link MailerConfig} through a pool of connected
+ * SMTP {@link Transport transports}.
+ *
+ * Unlike {@link Transport#send(Message)}, which opens a new connection,
+ * runs TLS handshake and authentication for every message, the engine
+ * keeps connections open and send many messages on each of them.
+ *
+ * The number of concurrent connections is bounded by the pool size, and
+ * the send rate could be throttled to a number of messages per second.
+ * Delivery failed with connection error is retried with exponential
+ * backoff, as well as transient (4xx) server failures, while messages
+ * permanently rejected by the server (e.g. invalid address)
+ * are not retried.
+ */
+public class MailDeliveryEngine extends LogSupport {
+
+    private static class PooledTransport {
+        final Transport transport;
+        long lastUsed;
+
+        PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+
+    // connections idled longer than this are checked with NOOP before reuse
+    private static final long IDLE_CHECK_MS = 10 * 1000;
+
+    private final Session session;
+    private final Semaphore permits;
+    private final BlockingQueue<PooledTransport> idle;
+    private final long rateIntervalNs;
+    private final int maxRetries;
+    private final long retryBackoffMs;
+    private final Metric metric;
+    private long nextSendAt;
+    private volatile boolean closed;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong connects = new AtomicLong();
+
+    /**
+     * Construct a delivery engine.
+     *
+     * @param session the mail session
+     * @param poolSize the maximum number of SMTP connections
+     * @param rateLimit the maximum number of messages sent per second, `0` means no limit
+     * @param maxRetries the maximum number of retries on connection failure
+     * @param retryBackoffMs the delay before the first retry in milliseconds, doubled on each retry
+     * @param metric the metric, could be `null`
+     */
+    public MailDeliveryEngine(Session session, int poolSize, int rateLimit, int maxRetries, long retryBackoffMs, Metric metric) {
+        E.illegalArgumentIf(poolSize < 1, "pool size must be positive number: %s", poolSize);
+        E.illegalArgumentIf(rateLimit < 0, "rate limit must not be negative number: %s", rateLimit);
+        this.session = $.notNull(session);
+        this.permits = new Semaphore(poolSize, true);
+        this.idle = new LinkedBlockingQueue<>(poolSize);
+        this.rateIntervalNs = 0 == rateLimit ? 0 : TimeUnit.SECONDS.toNanos(1) / rateLimit;
+        this.maxRetries = Math.max(0, maxRetries);
+        this.retryBackoffMs = Math.max(0, retryBackoffMs);
+        this.metric = null == metric ? Metric.NULL_METRIC : metric;
+    }
+
+    /**
+     * Send a message through a pooled connection. This method blocks
+     * until the message is accepted by the server or delivery failed
+     * after all retries.
+     *
+     * @param message the message to be sent
+     * @throws MessagingException if the message cannot be delivered
+     */
+    public void send(MimeMessage message) throws MessagingException {
+        E.illegalStateIf(closed, "mail delivery engine closed");
+        Timer timer = metric.startTimer("send");
+        try {
+            int attempt = 0;
+            while (true) {
+                throttle();
+                try {
+                    deliver(message);
+                    sent.incrementAndGet();
+                    metric.countOnce("sent");
+                    return;
+                } catch (MessagingException e) {
+                    if (!retriable(e) || attempt >= maxRetries) {
+                        failed.incrementAndGet();
+                        metric.countOnce("failed");
+                        throw e;
+                    }
+                    long delay = retryBackoffMs << attempt++;
+                    retried.incrementAndGet();
+                    metric.countOnce("retry");
+                    warn(e, "error sending email, retry #%s in %sms", attempt, delay);
+                    sleep(TimeUnit.MILLISECONDS.toNanos(delay));
+                }
+            }
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Close all idle connections. Connections in use are closed once
+     * the sending finished.
+     */
+    public void close() {
+        closed = true;
+        PooledTransport pt;
+        while (null != (pt = idle.poll())) {
+            closeQuietly(pt.transport);
+        }
+    }
+
+    public long sent() {
+        return sent.get();
+    }
+
+    public long failed() {
+        return failed.get();
+    }
+
+    public long retried() {
+        return retried.get();
+    }
+
+    /**
+     * Returns the number of SMTP connections established by this engine
+     * @return the connection number
+     */
+    public long connects() {
+        return connects.get();
+    }
+
+    public int idleConnections() {
+        return idle.size();
+    }
+
+    private void deliver(MimeMessage message) throws MessagingException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("interrupted waiting for smtp connection", e);
+        }
+        PooledTransport pt = idle.poll();
+        boolean reusable = false;
+        try {
+            if (null == pt) {
+                pt = new PooledTransport(session.getTransport("smtp"));
+            } else if (System.currentTimeMillis() - pt.lastUsed > IDLE_CHECK_MS && !pt.transport.isConnected()) {
+                closeQuietly(pt.transport);
+            }
+            Transport transport = pt.transport;
+            if (!transport.isConnected()) {
+                transport.connect();
+                connects.incrementAndGet();
+                metric.countOnce("connect");
+            }
+            try {
+                transport.sendMessage(message, message.getAllRecipients());
+            } catch (SendFailedException e) {
+                // the server rejected the message, the connection itself might still be usable
+                reusable = transport.isConnected();
+                if (!reusable) {
+                    throw new MessagingException("smtp connection lost", e);
+                }
+                throw e;
+            }
+            reusable = true;
+        } finally {
+            if (null != pt) {
+                if (reusable && !closed) {
+                    pt.lastUsed = System.currentTimeMillis();
+                    if (!idle.offer(pt)) {
+                        closeQuietly(pt.transport);
+                    }
+                } else {
+                    closeQuietly(pt.transport);
+                }
+            }
+            permits.release();
+        }
+    }
+
+    private void throttle() throws MessagingException {
+        if (0 == rateIntervalNs) {
+            return;
+        }
+        long wait;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long at = Math.max(now, nextSendAt);
+            nextSendAt = at + rateIntervalNs;
+            wait = at - now;
+        }
+        if (wait > 0) {
+            sleep(wait);
+        }
+    }
+
+    private static void sleep(long nanos) throws MessagingException {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("interrupted sending email", e);
+        }
+    }
+
+    private static boolean retriable(MessagingException e) {
+        if (e instanceof SMTPSendFailedException) {
+            // 4xx reply code means transient failure
+            return ((SMTPSendFailedException) e).getReturnCode() / 100 == 4;
+        }
+        // other errors are mostly caused by broken connection or server timeout
+        return !(e instanceof SendFailedException) && !(e instanceof AuthenticationFailedException);
+    }
+
+    private static void closeQuietly(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            // ignore
+        }
+    }
+
+}
@@ -142,15 +142,40 @@ public @interface Mailer {
         }
 
         public static Future<Boolean> doSendWithoutLoadThreadLocal(final MailerContext context) {
-            return context.app().jobManager().now(new Callable<Boolean>() {
+            return context.submit();
+        }
+
+        public static Future<Boolean> doSend(final MailerContext context) {
+            loadContext(context);
+            return context.submit();
+        }
+
+        /**
+         * Send the template of a mailer context to many recipients in a background job.
+         *
+         * The template is resolved once per locale, and messages are rendered
+         * and sent by a bounded number of workers, see {@link MailBatch}.
+         *
+         * @param prototype the mailer context that provides template and common settings
+         * @param recipients the recipients
+         * @param personalizer set up recipient addresses and render arguments for each recipient
+         * @param <T> the recipient type
+         * @return the future of the batch result
+         */
+        public static <T> Future<MailBatch.Result> sendBatch(MailerContext prototype, Iterable<T> recipients, MailBatch.Personalizer<T> personalizer) {
+            loadContext(prototype);
+            MailerConfig config = prototype.mailerConfig();
+            E.illegalArgumentIf(null == config, "Cannot find mailer config for %s", prototype);
+            final MailBatch<T> batch = new MailBatch<>(prototype, recipients, personalizer, config.batchWorkers());
+            return prototype.app().jobManager().now(new Callable<MailBatch.Result>() {
                 @Override
-                public Boolean call() throws Exception {
-                    return context.send();
+                public MailBatch.Result call() throws Exception {
+                    return batch.run();
                 }
             });
         }
 
-        public static Future<Boolean> doSend(final MailerContext context) {
+        private static void loadContext(MailerContext context) {
             tryLoadLocale(context);
             SimpleContext ctx = _ctx.get();
             if (null != ctx) {
@@ -180,15 +205,8 @@ public @interface Mailer {
                 }
                 _ctx.remove();
             }
-            return context.app().jobManager().now(new Callable<Boolean>() {
-                @Override
-                public Boolean call() throws Exception {
-                    return context.send();
-                }
-            });
         }
 
-
         private static void tryLoadLocale(MailerContext context) {
             if (!context.config().i18nEnabled() || context.locale() != null) {
                 // do nother if
@@ -20,8 +20,11 @@ package act.mail;
  * #L%
  */
 
+import act.Act;
 import act.app.App;
 import act.app.AppHolderBase;
+import act.metric.Metric;
+import act.metric.MetricPlugin;
 import org.osgl.exception.ConfigurationException;
 import org.osgl.http.H;
 import org.osgl.logging.LogManager;
@@ -57,6 +60,11 @@ public class MailerConfig extends AppHolderBase {
     public static final String SMTP_SSL = "smtp.ssl";
     public static final String SMTP_USERNAME = "smtp.username";
     public static final String SMTP_PASSWORD = "smtp.password";
+    public static final String SMTP_POOL_SIZE = "smtp.pool.size";
+    public static final String SMTP_RATE_LIMIT = "smtp.rate_limit";
+    public static final String SMTP_RETRY_MAX = "smtp.retry.max";
+    public static final String SMTP_RETRY_BACKOFF = "smtp.retry.backoff";
+    public static final String BATCH_WORKERS = "batch.workers";
 
 
     private String id;
@@ -72,10 +80,16 @@ public class MailerConfig extends AppHolderBase {
     private boolean useSsl;
     private String username;
     private String password;
+    private int poolSize = 4;
+    private int rateLimit;
+    private int maxRetries = 3;
+    private long retryBackoff = 1000;
+    private int batchWorkers;
     private List<InternetAddress> toList;
     private List<InternetAddress> ccList;
     private List<InternetAddress> bccList;
     private volatile Session session;
+    private volatile MailDeliveryEngine deliveryEngine;
 
     public MailerConfig(String id, Map<String, String> properties, App app) {
         super(app);
@@ -107,10 +121,15 @@ public class MailerConfig extends AppHolderBase {
             if (null == username || null == password) {
                 logger.warn("Either smtp.username or smtp.password is not configured for mailer[%s]", id);
             }
+            this.poolSize = getIntConfig(SMTP_POOL_SIZE, properties, poolSize);
+            this.rateLimit = getIntConfig(SMTP_RATE_LIMIT, properties, rateLimit);
+            this.maxRetries = getIntConfig(SMTP_RETRY_MAX, properties, maxRetries);
+            this.retryBackoff = getIntConfig(SMTP_RETRY_BACKOFF, properties, (int) retryBackoff);
         }
         this.toList = getEmailListConfig(TO, properties);
         this.ccList = getEmailListConfig(CC, properties);
         this.bccList = getEmailListConfig(BCC, properties);
+        this.batchWorkers = getIntConfig(BATCH_WORKERS, properties, Runtime.getRuntime().availableProcessors());
     }
 
     private String getProperty(String key, Map<String, String> properties) {
@@ -167,6 +186,20 @@ public class MailerConfig extends AppHolderBase {
         return port;
     }
 
+    private int getIntConfig(String key, Map<String, String> properties, int def) {
+        String s = getProperty(key, properties);
+        if (null == s) {
+            return def;
+        }
+        try {
+            int n = Integer.parseInt(s.trim());
+            E.invalidConfigurationIf(n < 0, "Invalid %s configuration for mailer[%s]: %s", key, id, s);
+            return n;
+        } catch (NumberFormatException e) {
+            throw E.invalidConfiguration("Invalid %s configuration for mailer[%s]: %s", key, id, s);
+        }
+    }
+
     private boolean getBooleanConfig(String key, Map<String, String> properties) {
         String s = getProperty(key, properties);
         return null != s && Boolean.parseBoolean(s);
@@ -245,6 +278,10 @@ public class MailerConfig extends AppHolderBase {
 
     @Override
     protected void releaseResources() {
+        if (null != deliveryEngine) {
+            deliveryEngine.close();
+            deliveryEngine = null;
+        }
         if (null != session) {
             session = null;
         }
@@ -290,6 +327,14 @@ public class MailerConfig extends AppHolderBase {
         return bccList;
     }
 
+    /**
+     * Returns the number of workers rendering messages for a {@link MailBatch}
+     * @return the batch worker number
+     */
+    public int batchWorkers() {
+        return Math.max(1, batchWorkers);
+    }
+
     public boolean mock() {
         return mock;
     }
@@ -305,6 +350,24 @@ public class MailerConfig extends AppHolderBase {
         return session;
     }
 
+    /**
+     * Returns the {@link MailDeliveryEngine} that sends emails of this mailer
+     * through pooled SMTP connections
+     * @return the delivery engine
+     */
+    public MailDeliveryEngine deliveryEngine() {
+        if (null == deliveryEngine) {
+            synchronized (this) {
+                if (null == deliveryEngine) {
+                    MetricPlugin plugin = Act.metricPlugin();
+                    Metric metric = null == plugin ? null : plugin.metric("act.mail");
+                    deliveryEngine = new MailDeliveryEngine(session(), Math.max(1, poolSize), rateLimit, maxRetries, retryBackoff, metric);
+                }
+            }
+        }
+        return deliveryEngine;
+    }
+
     private Session createSession() {
         Properties p = new Properties();
         if (mock()) {
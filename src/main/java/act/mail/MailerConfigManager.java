@@ -23,12 +23,16 @@ package act.mail;
 import act.Destroyable;
 import act.app.App;
 import act.app.AppServiceBase;
+import act.app.AppThreadFactory;
 import act.conf.AppConfig;
+import act.job.Outbox;
 import org.osgl.util.C;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @ApplicationScoped
 public class MailerConfigManager extends AppServiceBase<MailerConfigManager> {
@@ -37,14 +41,22 @@ public class MailerConfigManager extends AppServiceBase<MailerConfigManager> {
 
     private C.Map<String, MailerConfig> configMap = C.newMap();
 
+    private volatile ExecutorService batchExecutor;
+
     @Inject
     public MailerConfigManager(App app) {
         super(app);
         loadConfig(app.config());
+        registerOutboxHandler(app.jobManager().outbox());
     }
 
     @Override
     protected void releaseResources() {
+        ExecutorService executor = batchExecutor;
+        if (null != executor) {
+            executor.shutdownNow();
+            batchExecutor = null;
+        }
         Destroyable.Util.destroyAll(configMap.values(), ApplicationScoped.class);
         configMap.clear();
     }
@@ -53,6 +65,46 @@ public class MailerConfigManager extends AppServiceBase<MailerConfigManager> {
         return configMap.get(id);
     }
 
+    /**
+     * Returns the executor shared by all {@link MailBatch mail batches} of the app.
+     *
+     * The pool is created on first use with the largest
+     * {@link MailerConfig#batchWorkers() batch worker number} of all
+     * mailer configs, thus concurrent batches queue up instead of
+     * adding threads.
+     *
+     * @return the mail batch executor
+     */
+    ExecutorService batchExecutor() {
+        ExecutorService executor = batchExecutor;
+        if (null == executor) {
+            synchronized (this) {
+                executor = batchExecutor;
+                if (null == executor) {
+                    int poolSize = 1;
+                    for (MailerConfig config : configMap.values()) {
+                        poolSize = Math.max(poolSize, config.batchWorkers());
+                    }
+                    executor = Executors.newFixedThreadPool(poolSize, new AppThreadFactory("mail-batch", true));
+                    batchExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    private void registerOutboxHandler(Outbox outbox) {
+        if (null == outbox) {
+            return;
+        }
+        outbox.registerHandler(MailerContext.OUTBOX_TYPE, new Outbox.Handler() {
+            @Override
+            public void handle(byte[] payload) throws Exception {
+                MailerContext.resend(MailerConfigManager.this, payload);
+            }
+        });
+    }
+
     private void loadConfig(AppConfig config) {
         Object o = config.get(KEY_MAILER);
         if (null == o) {
@@ -25,6 +25,8 @@ import act.app.ActionContext;
 import act.app.App;
 import act.event.ActEvent;
 import act.event.SystemEvent;
+import act.job.AppJobManager;
+import act.job.Outbox;
 import act.util.ActContext;
 import act.view.Template;
 import act.view.ViewManager;
@@ -41,8 +43,11 @@ import org.osgl.util.S;
 
 import javax.mail.*;
 import javax.mail.internet.*;
-import java.io.File;
+import java.io.*;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 public class MailerContext extends ActContext.Base<MailerContext> {
 
@@ -54,6 +59,8 @@ public class MailerContext extends ActContext.Base<MailerContext> {
 
     private static final Logger logger = LogManager.get(MailerContext.class);
 
+    static final String OUTBOX_TYPE = "act.mail";
+
     private H.Format fmt = H.Format.HTML;
     private InternetAddress from;
     private String subject;
@@ -83,6 +90,29 @@ public class MailerContext extends ActContext.Base<MailerContext> {
         super.templateContext(templateContext);
     }
 
+    /*
+     * Create a context that shares template, render arguments and mail
+     * settings with the prototype. Used by {@link MailBatch}
+     */
+    private MailerContext(MailerContext prototype) {
+        super(prototype.app());
+        this.confId = prototype.confId;
+        this.fmt = prototype.fmt;
+        this.from = prototype.from;
+        this.subject = prototype.subject;
+        this.content = prototype.content;
+        this.to = C.newList(prototype.to);
+        this.cc = C.newList(prototype.cc);
+        this.bcc = C.newList(prototype.bcc);
+        this.attachments = C.newList(prototype.attachments);
+        this.senderPath = prototype.senderPath;
+        locale(prototype.locale());
+        for (Map.Entry<String, Object> entry : prototype.renderArgs().entrySet()) {
+            renderArg(entry.getKey(), entry.getValue());
+        }
+        cacheTemplate(prototype.cachedTemplate());
+    }
+
     @Override
     protected void releaseResources() {
         super.releaseResources();
@@ -92,6 +122,10 @@ public class MailerContext extends ActContext.Base<MailerContext> {
         _local.remove();
     }
 
+    MailerContext copy() {
+        return new MailerContext(this);
+    }
+
     public MailerContext configId(String id) {
         confId = id;
         return this;
@@ -207,6 +241,10 @@ public class MailerContext extends ActContext.Base<MailerContext> {
         return this;
     }
 
+    boolean hasContent() {
+        return null != content;
+    }
+
     public MailerContext attach(ISObject... attachments) {
         this.attachments.addAll(C.listOf(attachments));
         return this;
@@ -292,15 +330,7 @@ public class MailerContext extends ActContext.Base<MailerContext> {
 
     public boolean send() {
         try {
-            MimeMessage message = createMessage();
-            if (!mailerConfig().mock()) {
-                if (logger.isDebugEnabled()) {
-                    logger.debug("Sending email\n%sEnd email\n", debug(message));
-                }
-                Transport.send(message);
-            } else {
-                logger.info("Sending email\n%sEnd email\n", debug(message));
-            }
+            deliver(mailerConfig(), createMessage());
             return true;
         } catch (Exception e) {
             logger.error(e, "Error sending email: %s", this);
@@ -308,7 +338,101 @@ public class MailerContext extends ActContext.Base<MailerContext> {
         }
     }
 
-    private String debug(MimeMessage msg) throws Exception {
+    private boolean send(MimeMessage message) {
+        try {
+            deliver(mailerConfig(), message);
+            return true;
+        } catch (Exception e) {
+            logger.error(e, "Error sending email: %s", this);
+            return false;
+        }
+    }
+
+    /**
+     * Send the email in a background job. If durable {@link Outbox} is
+     * enabled, the email is rendered and recorded in the outbox first.
+     *
+     * If the email cannot be rendered, the error is logged and the returned
+     * future reports `false`. If it cannot be recorded in the outbox, it is
+     * sent without durability.
+     *
+     * @return the future of the sending result
+     */
+    Future<Boolean> submit() {
+        AppJobManager jobManager = app().jobManager();
+        Outbox outbox = jobManager.outbox();
+        if (null == outbox) {
+            return jobManager.now(new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws Exception {
+                    return send();
+                }
+            });
+        }
+        final MimeMessage message;
+        try {
+            message = createMessage();
+        } catch (Exception e) {
+            logger.error(e, "Error rendering email: %s", this);
+            FutureTask<Boolean> failed = new FutureTask<>(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    return false;
+                }
+            });
+            failed.run();
+            return failed;
+        }
+        Callable<Boolean> task = new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                return send(message);
+            }
+        };
+        try {
+            return outbox.submit(OUTBOX_TYPE, outboxPayload(mailerConfig(), message), task);
+        } catch (Exception e) {
+            logger.warn(e, "Error recording email in outbox, send without durability: %s", this);
+        }
+        return jobManager.now(task);
+    }
+
+    /**
+     * Send an email recorded in the {@link Outbox}
+     *
+     * @param manager the mailer config manager
+     * @param payload the outbox payload
+     * @throws Exception if the email cannot be sent
+     */
+    static void resend(MailerConfigManager manager, byte[] payload) throws Exception {
+        DataInputStream is = new DataInputStream(new ByteArrayInputStream(payload));
+        String id = is.readUTF();
+        MailerConfig config = manager.config(id);
+        E.illegalStateIf(null == config, "Cannot find mailer config for %s", id);
+        deliver(config, new MimeMessage(config.session(), is));
+    }
+
+    private static byte[] outboxPayload(MailerConfig config, MimeMessage message) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream os = new DataOutputStream(baos);
+        os.writeUTF(config.id());
+        message.writeTo(os);
+        os.flush();
+        return baos.toByteArray();
+    }
+
+    static void deliver(MailerConfig config, MimeMessage message) throws Exception {
+        if (!config.mock()) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Sending email\n%sEnd email\n", debug(message));
+            }
+            config.deliveryEngine().send(message);
+        } else {
+            logger.info("Sending email\n%sEnd email\n", debug(message));
+        }
+    }
+
+    private static String debug(MimeMessage msg) throws Exception {
         List<String> lines = C.newList();
         lines.add(">>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n>> recipients");
         Address[] aa = msg.getAllRecipients();
@@ -346,7 +470,7 @@ public class MailerContext extends ActContext.Base<MailerContext> {
         return S.join("\n", lines);
     }
 
-    private MimeMessage createMessage() throws Exception {
+    MimeMessage createMessage() throws Exception {
         MailerConfig config = mailerConfig();
         if (null == config) {
             throw E.unexpected("Cannot find mailer config for %s", confId);
@@ -0,0 +1,39 @@
+package act.metric;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * A {@link Metric} or {@link MetricStore} that can increase a counter by
+ * more than one in a single call.
+ *
+ * This is an optional capability, callers shall check with `instanceof`
+ * and fall back to {@link Metric#countOnce(String)} otherwise.
+ */
+public interface BatchCounter {
+
+    /**
+     * Increase the counter specified by `times`
+     * @param name A string specifies the counter
+     * @param times the number to be added to the counter
+     */
+    void count(String name, long times);
+
+}
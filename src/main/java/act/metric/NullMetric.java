@@ -23,7 +23,7 @@ package act.metric;
 /**
  * Implement a do-nothing {@link Metric}
  */
-enum NullMetric implements Metric {
+enum NullMetric implements Metric, BatchCounter {
     INSTANCE
     ;
 
@@ -47,6 +47,10 @@ enum NullMetric implements Metric {
     public void countOnce(String name) {
     }
 
+    @Override
+    public void count(String name, long times) {
+    }
+
     @Override
     public Timer startTimer(String name) {
         return NULL_TIMER;
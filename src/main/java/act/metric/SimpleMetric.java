@@ -25,7 +25,7 @@ import org.osgl.$;
 /**
  * A simple implementation of {@link Metric}
  */
-public class SimpleMetric implements Metric {
+public class SimpleMetric implements Metric, BatchCounter {
     private MetricStore metricStore;
 
     public SimpleMetric(MetricStore metricStore) {
@@ -42,4 +42,15 @@ public class SimpleMetric implements Metric {
         metricStore.countOnce(name);
     }
 
+    @Override
+    public void count(String name, long times) {
+        if (metricStore instanceof BatchCounter) {
+            ((BatchCounter) metricStore).count(name, times);
+        } else {
+            for (long i = 0; i < times; ++i) {
+                metricStore.countOnce(name);
+            }
+        }
+    }
+
 }
@@ -42,7 +42,7 @@ import java.util.concurrent.atomic.AtomicLong;
 /**
  * A simple implementation of {@link MetricStore}
  */
-public class SimpleMetricStore implements MetricStore, Serializable {
+public class SimpleMetricStore implements MetricStore, BatchCounter, Serializable {
 
 
     private transient static final Logger defLogger = LogManager.get("metric.default");
@@ -69,10 +69,18 @@ public class SimpleMetricStore implements MetricStore, Serializable {
     @Override
     public void countOnce(String name) {
         E.illegalArgumentIf(S.blank(name), "");
-        countOnce_(name);
+        count_(name, 1);
     }
 
-    private void countOnce_(String name) {
+    @Override
+    public void count(String name, long times) {
+        E.illegalArgumentIf(S.blank(name), "");
+        if (times > 0) {
+            count_(name, times);
+        }
+    }
+
+    private void count_(String name, long times) {
         AtomicLong al = counters.get(name);
         if (null == al) {
             AtomicLong newAl = new AtomicLong();
@@ -81,10 +89,10 @@ public class SimpleMetricStore implements MetricStore, Serializable {
                 al = newAl;
             }
         }
-        al.incrementAndGet();
+        al.addAndGet(times);
         name = getParent(name);
         if (S.notBlank(name)) {
-            countOnce_(name);
+            count_(name, times);
         }
     }
 
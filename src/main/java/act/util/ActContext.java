@@ -167,6 +167,8 @@ public interface ActContext<CTX_TYPE extends ActContext> extends ParamValueProvi
         private List<Listener> listenerList;
         private List<Destroyable> destroyableList;
         private Map<String, Object> attributes;
+        // request scoped objects indexed by slot
+        private Object[] requestScoped;
         private Locale locale;
         private int fieldOutputVarCount;
         private S.Buffer strBuf;
@@ -200,6 +202,16 @@ public interface ActContext<CTX_TYPE extends ActContext> extends ParamValueProvi
             }
             Destroyable.Util.destroyAll(destroyableList, RequestScoped.class);
             Destroyable.Util.tryDestroyAll(attributes.values(), RequestScoped.class);
+            if (null != requestScoped) {
+                List<Object> list = new ArrayList<>();
+                for (Object o : requestScoped) {
+                    if (null != o) {
+                        list.add(o);
+                    }
+                }
+                Destroyable.Util.tryDestroyAll(list, RequestScoped.class);
+                this.requestScoped = null;
+            }
             this.attributes.clear();
             this.renderArgs.clear();
             this.template = null;
@@ -427,6 +439,38 @@ public interface ActContext<CTX_TYPE extends ActContext> extends ParamValueProvi
             return attributes;
         }
 
+        /**
+         * Returns the request scoped object stored in the slot specified
+         *
+         * @param slot the slot assigned by {@link act.inject.genie.RequestScope#slot(String)}
+         * @return the request scoped object or `null` if not found
+         */
+        @SuppressWarnings("unchecked")
+        public <T> T requestScoped(int slot) {
+            Object[] a = requestScoped;
+            return null == a || slot >= a.length ? null : (T) a[slot];
+        }
+
+        /**
+         * Store a request scoped object into the slot specified
+         *
+         * @param slot the slot assigned by {@link act.inject.genie.RequestScope#slot(String)}
+         * @param object the request scoped object
+         * @return this context
+         */
+        public CTX requestScoped(int slot, Object object) {
+            Object[] a = requestScoped;
+            if (null == a) {
+                a = new Object[Math.max(8, slot + 1)];
+                requestScoped = a;
+            } else if (slot >= a.length) {
+                a = Arrays.copyOf(a, Math.max(a.length * 2, slot + 1));
+                requestScoped = a;
+            }
+            a[slot] = object;
+            return me();
+        }
+
         @Override
         public CTX addListener(Listener listener) {
             listenerList.add(listener);
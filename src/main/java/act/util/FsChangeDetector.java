@@ -28,12 +28,25 @@ import org.osgl.logging.Logger;
 import org.osgl.util.C;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
+import static java.nio.file.StandardWatchEventKinds.*;
+
 /**
  * {@code FsChangeDetector} detects changes files in a folder and all sub folders.
  * The changes includes delete/add/update events
+ *
+ * When the file system supports native change notification, the detector
+ * registers all folders to a {@link WatchService} and keeps a set of dirty
+ * paths collected from the watch events, so checking changes does not need
+ * to walk through the folder tree. Otherwise, e.g. on a JDK that implements
+ * {@code WatchService} by polling, the detector walks through the tree and
+ * compares file timestamps on every {@link #detectChanges()} call.
  */
 public class FsChangeDetector {
 
@@ -47,12 +60,20 @@ public class FsChangeDetector {
     private final String context;
     private final $.Var<Long> lastChecksum = $.var(0L);
 
+    // read without lock by hasPendingChanges
+    private volatile WatchService watcher;
+    private final Map<WatchKey, Path> watchKeys = new HashMap<>();
+    private final Set<String> dirty = new HashSet<>();
+    private boolean overflow;
+    private volatile boolean changed;
+
     public FsChangeDetector(File file, $.Predicate<String> fileNameFilter) {
         this.dir = file;
         this.fileNameFilter = fileNameFilter;
         this.context = file.getAbsolutePath();
         this.contextLen = context.length();
         initialWalkThrough();
+        initWatcher();
     }
 
 
@@ -65,7 +86,85 @@ public class FsChangeDetector {
         listeners.append(listener);
     }
 
-    public void detectChanges() {
+    /**
+     * Check if there might be changes to be reported by {@link #detectChanges()}.
+     *
+     * This method is cheap when changes are watched by {@link WatchService} and
+     * could be called concurrently. It always returns `true` if the detector
+     * falls back to polling mode, or if the watch service has been closed
+     * by a concurrent {@link #close()}.
+     *
+     * @return `true` if there might be changes
+     */
+    public boolean hasPendingChanges() {
+        WatchService watcher = this.watcher;
+        if (null == watcher) {
+            return true;
+        }
+        // drain all queued keys, the first one might only contain files ignored by the filter
+        while (!changed) {
+            WatchKey key;
+            try {
+                key = watcher.poll();
+            } catch (ClosedWatchServiceException e) {
+                return true;
+            }
+            if (null == key) {
+                break;
+            }
+            synchronized (this) {
+                process(key);
+            }
+        }
+        return changed;
+    }
+
+    public synchronized void detectChanges() {
+        if (null == watcher) {
+            walkAndCheck();
+            return;
+        }
+        drainWatchEvents();
+        if (!changed) {
+            return;
+        }
+        if (overflow) {
+            overflow = false;
+            dirty.clear();
+            changed = false;
+            walkAndCheck();
+            return;
+        }
+        Set<String> paths = new HashSet<>(dirty);
+        dirty.clear();
+        changed = false;
+        try {
+            checkDirty(paths);
+        } catch (RuntimeException e) {
+            // listener might request refresh by throwing out exception,
+            // keep the paths dirty as the change has not been consumed yet
+            dirty.addAll(paths);
+            changed = true;
+            throw e;
+        }
+    }
+
+    /**
+     * Stop watching file system changes
+     */
+    public synchronized void close() {
+        if (null != watcher) {
+            try {
+                watcher.close();
+            } catch (IOException e) {
+                // ignore
+            }
+            watcher = null;
+            watchKeys.clear();
+        }
+    }
+
+    private void walkAndCheck() {
         $.Var<Long> checksum = $.var(0L);
         Map<String, Long> newTimestamps = walkThrough(dir, checksum);
         if (!checksum.get().equals(lastChecksum.get())) {
@@ -84,6 +183,129 @@ public class FsChangeDetector {
         walkThrough(dir, timestamps, lastChecksum);
     }
 
+    private void initWatcher() {
+        if (!dir.isDirectory()) {
+            return;
+        }
+        try {
+            watcher = FileSystems.getDefault().newWatchService();
+            if (watcher.getClass().getName().contains("Polling")) {
+                // the polling implementation reports changes with seconds of delay
+                close();
+                return;
+            }
+            register(dir);
+        } catch (IOException | RuntimeException e) {
+            logger.warn(e, "cannot watch file changes, fall back to polling: %s", dir);
+            close();
+        }
+    }
+
+    private void register(File folder) throws IOException {
+        Path path = folder.toPath();
+        watchKeys.put(path.register(watcher, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), path);
+        File[] files = folder.listFiles();
+        if (null == files) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory() && !file.getName().startsWith(".")) {
+                register(file);
+            }
+        }
+    }
+
+    private void drainWatchEvents() {
+        WatchKey key;
+        while (null != (key = watcher.poll())) {
+            process(key);
+        }
+    }
+
+    private void process(WatchKey key) {
+        Path folder = watchKeys.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            WatchEvent.Kind<?> kind = event.kind();
+            if (OVERFLOW == kind || null == folder) {
+                overflow = true;
+                changed = true;
+                continue;
+            }
+            File file = folder.resolve((Path) event.context()).toFile();
+            String path = file.getAbsolutePath().substring(contextLen);
+            if (ENTRY_CREATE == kind && file.isDirectory()) {
+                if (!file.getName().startsWith(".")) {
+                    try {
+                        register(file);
+                    } catch (IOException e) {
+                        overflow = true;
+                    }
+                    Files.filter(file, fileNameFilter, dirtyCollector());
+                }
+            } else if (ENTRY_DELETE == kind && !timestamps.containsKey(path)) {
+                // might be a folder
+                String prefix = path + File.separator;
+                for (String s : timestamps.keySet()) {
+                    if (s.startsWith(prefix)) {
+                        dirty.add(s);
+                    }
+                }
+            } else if (!file.isDirectory() && (null == fileNameFilter || fileNameFilter.test(file.getName()))) {
+                dirty.add(path);
+            }
+        }
+        if (!key.reset()) {
+            watchKeys.remove(key);
+        }
+        changed = overflow || !dirty.isEmpty();
+    }
+
+    private $.Visitor<File> dirtyCollector() {
+        return new $.Visitor<File>() {
+            @Override
+            public void visit(File file) throws $.Break {
+                dirty.add(file.getAbsolutePath().substring(contextLen));
+            }
+        };
+    }
+
+    private void checkDirty(Set<String> paths) {
+        Set<String> added = new HashSet<>(), removed = new HashSet<>(), modified = new HashSet<>();
+        Map<String, Long> newTimestamps = new HashMap<>();
+        for (String path : paths) {
+            File file = new File(context + path);
+            Long ts0 = timestamps.get(path);
+            if (file.isFile()) {
+                long ts1 = file.lastModified();
+                newTimestamps.put(path, ts1);
+                if (null == ts0) {
+                    added.add(path);
+                } else if (ts0 != ts1) {
+                    modified.add(path);
+                }
+            } else if (null != ts0) {
+                removed.add(path);
+            }
+        }
+        C.List<FsEvent> events = C.newSizedList(3);
+        if (!added.isEmpty()) {
+            events.add(createEvent(FsEvent.Kind.CREATE, C.set(added)));
+        }
+        if (!removed.isEmpty()) {
+            events.add(createEvent(FsEvent.Kind.DELETE, C.set(removed)));
+        }
+        if (!modified.isEmpty()) {
+            events.add(createEvent(FsEvent.Kind.MODIFY, C.set(modified)));
+        }
+        if (!events.isEmpty()) {
+            trigger(events.toArray(new FsEvent[events.size()]));
+        }
+        for (String path : removed) {
+            timestamps.remove(path);
+        }
+        timestamps.putAll(newTimestamps);
+    }
+
     private Map<String, Long> walkThrough(File file, $.Var<Long> checksum) {
         Map<String, Long> map = C.newMap();
         walkThrough(file, map, checksum);
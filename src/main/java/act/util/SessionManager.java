@@ -24,6 +24,7 @@ import act.Act;
 import act.app.ActionContext;
 import act.app.App;
 import act.conf.AppConfig;
+import act.inject.genie.SessionScope;
 import act.plugin.Plugin;
 import org.osgl.$;
 import org.osgl.http.H;
@@ -33,7 +34,10 @@ import org.osgl.util.*;
 import javax.enterprise.context.ApplicationScoped;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static act.Destroyable.Util.tryDestroyAll;
 import static org.osgl.http.H.Session.KEY_EXPIRATION;
@@ -158,6 +162,11 @@ public class SessionManager extends DestroyableBase {
         private SessionMapper sessionMapper;
         private String sessionCookieName;
         private String flashCookieName;
+        private int cacheSize;
+        // raw session cookie content -> verified key/value pairs
+        private ConcurrentMap<String, String[]> verifiedCookies;
+        // serialized session data -> session cookie content
+        private ConcurrentMap<String, String> encodedCookies;
 
         CookieResolver(App app) {
             E.NPE(app);
@@ -173,6 +182,11 @@ public class SessionManager extends DestroyableBase {
             sessionMapper = conf.sessionMapper();
             sessionCookieName = conf.sessionCookieName();
             flashCookieName = conf.flashCookieName();
+            cacheSize = conf.sessionCacheSize();
+            if (cacheSize > 0) {
+                verifiedCookies = new ConcurrentHashMap<>();
+                encodedCookies = new ConcurrentHashMap<>();
+            }
         }
 
         Session resolveSession(ActionContext context) {
@@ -208,6 +222,7 @@ public class SessionManager extends DestroyableBase {
             if (null == session) {
                 return null;
             }
+            SessionScope.INSTANCE.touch(context);
             boolean sessionChanged = session.changed();
             if (!sessionChanged && (session.empty() || !sessionWillExpire)) {
                 // Nothing changed and no cookie-expire or empty, consequently send nothing back.
@@ -242,6 +257,13 @@ public class SessionManager extends DestroyableBase {
         }
 
         public void resolveFromCookieContent(H.KV<?> kv, String content, boolean isSession) {
+            if (isSession && null != verifiedCookies) {
+                String[] pairs = verifiedCookies.get(content);
+                if (null != pairs) {
+                    load(kv, pairs);
+                    return;
+                }
+            }
             String data = Codec.decodeUrl(content, Charsets.UTF_8);
             if (isSession) {
                 if (encryptSession) {
@@ -262,8 +284,22 @@ public class SessionManager extends DestroyableBase {
                     return;
                 }
             }
+            String[] pairs = parse(data);
+            if (isSession && null != verifiedCookies) {
+                cache(verifiedCookies, content, pairs);
+            }
+            load(kv, pairs);
+        }
+
+        private void load(H.KV<?> kv, String[] pairs) {
+            for (int i = 0, j = pairs.length; i < j; i += 2) {
+                kv.put(pairs[i], pairs[i + 1]);
+            }
+        }
+
+        private String[] parse(String data) {
             List<char[]> pairs = split(data.toCharArray(), '\u0000');
-            if (pairs.isEmpty()) return;
+            List<String> list = new ArrayList<>(pairs.size() * 2);
             for (char[] pair: pairs) {
                 List<char[]> kAndV = split(pair, '\u0001');
                 int sz = kAndV.size();
@@ -275,9 +311,23 @@ public class SessionManager extends DestroyableBase {
                     }
                     warn("unexpected KV string: %S", sb.toString());
                 } else {
-                    kv.put(new String(kAndV.get(0)), new String(kAndV.get(1)));
+                    list.add(new String(kAndV.get(0)));
+                    list.add(new String(kAndV.get(1)));
                 }
             }
+            return list.toArray(new String[list.size()]);
+        }
+
+        private <V> void cache(ConcurrentMap<String, V> cache, String key, V value) {
+            if (cache.size() >= cacheSize) {
+                // evict an arbitrary entry to keep the cache bounded
+                Iterator<String> itr = cache.keySet().iterator();
+                if (itr.hasNext()) {
+                    itr.next();
+                    itr.remove();
+                }
+            }
+            cache.put(key, value);
         }
 
         private List<char[]> split(char[] content, char separator) {
@@ -323,15 +373,27 @@ public class SessionManager extends DestroyableBase {
                 i++;
             }
             String data = sb.toString();
-            if (isSession) {
-                String sign = app.sign(data);
-                data = S.concat(sign, "-", data);
-                if (encryptSession) {
-                    data = app.encrypt(data);
+            if (!isSession) {
+                return Codec.encodeUrl(data, Charsets.UTF_8);
+            }
+            if (null != encodedCookies) {
+                String content = encodedCookies.get(data);
+                if (null != content) {
+                    return content;
                 }
             }
-            data = Codec.encodeUrl(data, Charsets.UTF_8);
-            return data;
+            String sign = app.sign(data);
+            String content = S.concat(sign, "-", data);
+            if (encryptSession) {
+                content = app.encrypt(content);
+            }
+            content = Codec.encodeUrl(content, Charsets.UTF_8);
+            if (null != encodedCookies) {
+                cache(encodedCookies, data, content);
+                // the cookie will come back with subsequent requests
+                cache(verifiedCookies, content, parse(data));
+            }
+            return content;
         }
 
         private Session processExpiration(Session session, long now, boolean freshSession, H.Request request) {
@@ -0,0 +1,159 @@
+package act.util;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.Act;
+import act.metric.Metric;
+import act.metric.MetricPlugin;
+import org.osgl.util.E;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Access virtual threads (JDK 21+) via reflection, so that the framework
+ * can still be built and run on earlier JDKs.
+ *
+ * When the first virtual thread executor is created, a JFR recording stream
+ * is started for the `jdk.VirtualThreadPinned` event, which the JVM records
+ * when a virtual thread blocks for more than 20ms while pinned to its carrier
+ * thread, e.g. inside a `synchronized` block. Each event is logged as warning
+ * with the stack trace and counted in the `act.vthread` metric as `pinned`.
+ * If JFR is not available in the running JVM, e.g. the `jdk.jfr` module is
+ * not present in a custom runtime image, pinning is NOT detected and a warning
+ * is logged instead.
+ *
+ * Note `EventBus` still guards emit and bind with monitors, so virtual threads
+ * emitting events synchronously can be pinned, which shows up in the report.
+ */
+public final class VirtualThreads {
+
+    private static final Method OF_VIRTUAL;
+    private static final Method NAME;
+    private static final Method FACTORY;
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final AtomicBoolean PINNING_MONITORED = new AtomicBoolean();
+
+    static {
+        Method ofVirtual = null, name = null, factory = null, newExecutor = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            name = builder.getMethod("name", String.class, long.class);
+            factory = builder.getMethod("factory");
+            newExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        } catch (Exception e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newExecutor;
+    }
+
+    private VirtualThreads() {}
+
+    /**
+     * Check if virtual thread is supported by the running JVM
+     * @return `true` if virtual thread is supported
+     */
+    public static boolean isSupported() {
+        return null != OF_VIRTUAL;
+    }
+
+    /**
+     * Create an executor that runs each task in a new virtual thread
+     *
+     * @param name the thread name prefix
+     * @return the executor
+     */
+    public static ExecutorService newExecutor(String name) {
+        E.unsupportedIf(!isSupported(), "virtual thread not supported by JVM: %s", System.getProperty("java.version"));
+        monitorPinning();
+        try {
+            Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), name + "-vthread-", 1L);
+            ThreadFactory factory = (ThreadFactory) FACTORY.invoke(builder);
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, factory);
+        } catch (Exception e) {
+            throw E.unexpected(e, "error creating virtual thread executor");
+        }
+    }
+
+    private static void monitorPinning() {
+        if (!PINNING_MONITORED.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Class<?> streamClass = Class.forName("jdk.jfr.consumer.RecordingStream");
+            Class<?> consumerClass = Class.forName("java.util.function.Consumer");
+            Object stream = streamClass.getConstructor().newInstance();
+            streamClass.getMethod("enable", String.class).invoke(stream, PINNED_EVENT);
+            Object consumer = Proxy.newProxyInstance(consumerClass.getClassLoader(), new Class[]{consumerClass}, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    if (Object.class == method.getDeclaringClass()) {
+                        return method.invoke(this, args);
+                    }
+                    onPinned(args[0]);
+                    return null;
+                }
+            });
+            streamClass.getMethod("onEvent", String.class, consumerClass).invoke(stream, PINNED_EVENT, consumer);
+            // RecordingStream.startAsync() runs on a non-daemon thread which blocks JVM exit
+            final Method start = streamClass.getMethod("start");
+            final Object theStream = stream;
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.invoke(theStream);
+                    } catch (Exception e) {
+                        Act.LOGGER.warn(e, "virtual thread pinning monitor stopped");
+                    }
+                }
+            }, "act-vthread-pinning");
+            thread.setDaemon(true);
+            thread.start();
+        } catch (Exception e) {
+            Act.LOGGER.warn(e, "JFR not available, virtual thread pinning will not be detected");
+        }
+    }
+
+    private static void onPinned(Object event) {
+        // an exception escaping the handler would close the recording stream
+        try {
+            Act.LOGGER.warn("virtual thread pinned: %s", event);
+            MetricPlugin plugin = Act.metricPlugin();
+            Metric metric = null == plugin ? Metric.NULL_METRIC : plugin.metric("act.vthread");
+            metric.countOnce("pinned");
+        } catch (RuntimeException e) {
+            Act.LOGGER.warn(e, "error reporting virtual thread pinning");
+        }
+    }
+
+}
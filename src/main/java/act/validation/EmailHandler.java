@@ -24,20 +24,23 @@ import org.osgl.util.S;
 
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
+import java.util.regex.Pattern;
 
 public class EmailHandler implements ConstraintValidator<Email, CharSequence> {
 
+    private static final Pattern PATTERN = Pattern.compile("^[_a-z0-9-']+(\\.[_a-z0-9-']+)*(\\+[0-9]+)?@[a-z0-9-]+(\\.[a-z0-9-]+)*(\\.[a-z]{2,4})$");
+
     @Override
     public void initialize(Email email) {
     }
 
     @Override
     public boolean isValid(CharSequence charSequence, ConstraintValidatorContext constraintValidatorContext) {
-        return isValid(charSequence);
+        return isValidEmail(charSequence);
     }
 
-    private boolean isValid(Object val) {
+    public static boolean isValidEmail(Object val) {
         String s = S.string(val);
-        return (S.isBlank(s) || s.toLowerCase().matches("^[_a-z0-9-']+(\\.[_a-z0-9-']+)*(\\+[0-9]+)?@[a-z0-9-]+(\\.[a-z0-9-]+)*(\\.[a-z]{2,4})$"));
+        return (S.isBlank(s) || PATTERN.matcher(s.toLowerCase()).matches());
     }
 }
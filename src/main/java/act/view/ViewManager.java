@@ -20,18 +20,22 @@ package act.view;
  * #L%
  */
 
+import act.Act;
 import act.app.App;
 import act.conf.AppConfig;
 import act.util.ActContext;
 import act.util.DestroyableBase;
 import org.osgl.$;
 import org.osgl.exception.UnexpectedException;
+import org.osgl.http.H;
 import org.osgl.util.C;
 import org.osgl.util.E;
 import org.osgl.util.S;
 
 import javax.enterprise.context.ApplicationScoped;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static act.Destroyable.Util.tryDestroyAll;
 
@@ -44,8 +48,12 @@ public class ViewManager extends DestroyableBase {
     private Map<String, ActionViewVarDef> implicitActionViewVariables = new HashMap<>();
     private Map<String, MailerViewVarDef> implicitMailerViewVariables = new HashMap<>();
     private Map<String, VarDef> appDefined = new HashMap<>();
-    private Map<String, View> preferredViews = new HashMap<String, View>();
+    private ConcurrentMap<String, View> preferredViews = new ConcurrentHashMap<>();
+    // cache templates resolved from implicit template path, only used in non-dev mode
+    private ConcurrentMap<ResolvedTemplateKey, ResolvedTemplate> resolvedTemplates = new ConcurrentHashMap<>();
     private boolean multiViews = false;
+    // whether view selection depends only on the request format, see `onAppStart`
+    private volatile boolean viewSelectionByFormat = false;
 
     void register(View view) {
         E.NPE(view);
@@ -96,9 +104,18 @@ public class ViewManager extends DestroyableBase {
     public void onAppStart() {
         int viewCount = viewList.size();
         multiViews = viewCount > 1;
+        boolean byFormat = true;
+        for (View view : viewList) {
+            if (!appliedToByFormat(view)) {
+                byFormat = false;
+                break;
+            }
+        }
+        viewSelectionByFormat = byFormat;
     }
 
     public void reload(App app) {
+        resolvedTemplates.clear();
         for (View view : viewList) {
             view.reload(app);
         }
@@ -118,10 +135,24 @@ public class ViewManager extends DestroyableBase {
         AppConfig config = context.config();
         TemplatePathResolver resolver = config.templatePathResolver();
 
+        ResolvedTemplateKey key = null;
+        if (context.templatePathIsImplicit() && !Act.isDev() && resolvedTemplateCacheable(resolver)) {
+            key = new ResolvedTemplateKey(context);
+            ResolvedTemplate resolved = resolvedTemplates.get(key);
+            if (null != resolved) {
+                if (null != resolved.amendedPath) {
+                    context.templatePath(resolved.amendedPath);
+                }
+                context.cacheTemplate(resolved.template);
+                return resolved.template;
+            }
+        }
+
         String path = resolver.resolve(context);
+        String amendedPath = null;
         Template template = getTemplate(context, config, path);
         if (null == template) {
-            String amendedPath = resolver.resolveWithContextMethodPath(context);
+            amendedPath = resolver.resolveWithContextMethodPath(context);
             if (S.neq(amendedPath, path)) {
                 template = getTemplate(context, config, amendedPath);
                 if (null != template) {
@@ -129,9 +160,30 @@ public class ViewManager extends DestroyableBase {
                 }
             }
         }
+        if (null != key && null != template) {
+            resolvedTemplates.putIfAbsent(key, new ResolvedTemplate(template, amendedPath));
+        }
         return template;
     }
 
+    /*
+     * The resolved template cache key only covers the state the built-in
+     * template path resolver and view selection depends on. Thus the cache
+     * is disabled when a custom resolver is configured or any view decides
+     * whether it applies by other request state.
+     */
+    private boolean resolvedTemplateCacheable(TemplatePathResolver resolver) {
+        return TemplatePathResolver.class == resolver.getClass() && viewSelectionByFormat;
+    }
+
+    private static boolean appliedToByFormat(View view) {
+        try {
+            return View.class == view.getClass().getMethod("appliedTo", ActContext.class).getDeclaringClass();
+        } catch (NoSuchMethodException e) {
+            throw E.unexpected(e);
+        }
+    }
+
     private Template getTemplate(ActContext context, AppConfig config, String path) {
         String templatePath = S.ensureStartsWith(path, '/');
 
@@ -185,6 +237,7 @@ public class ViewManager extends DestroyableBase {
     public void reset() {
         viewList.clear();
         preferredViews.clear();
+        resolvedTemplates.clear();
     }
 
     @Override
@@ -200,6 +253,9 @@ public class ViewManager extends DestroyableBase {
 
         preferredViews.clear();
         preferredViews = null;
+
+        resolvedTemplates.clear();
+        resolvedTemplates = null;
     }
 
     private boolean registered(View view) {
@@ -215,4 +271,52 @@ public class ViewManager extends DestroyableBase {
             }
         });
     }
+
+    private static class ResolvedTemplate {
+        private final Template template;
+        private final String amendedPath;
+
+        ResolvedTemplate(Template template, String amendedPath) {
+            this.template = template;
+            this.amendedPath = amendedPath;
+        }
+    }
+
+    /**
+     * Identify a template resolved from implicit template path by
+     * (action path, template context, format, locale)
+     */
+    private static class ResolvedTemplateKey {
+        private final String methodPath;
+        private final String templateContext;
+        private final H.Format format;
+        private final Locale locale;
+        private final int hc;
+
+        ResolvedTemplateKey(ActContext context) {
+            this.methodPath = context.methodPath();
+            this.templateContext = context instanceof ActContext.Base ? ((ActContext.Base) context).templateContext() : null;
+            this.format = context.accept();
+            this.locale = context.locale();
+            this.hc = $.hc(methodPath, templateContext, format, locale);
+        }
+
+        @Override
+        public int hashCode() {
+            return hc;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof ResolvedTemplateKey) {
+                ResolvedTemplateKey that = (ResolvedTemplateKey) obj;
+                return $.eq(that.methodPath, methodPath) && $.eq(that.templateContext, templateContext)
+                        && $.eq(that.format, format) && $.eq(that.locale, locale);
+            }
+            return false;
+        }
+    }
 }
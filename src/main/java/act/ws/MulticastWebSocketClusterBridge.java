@@ -0,0 +1,247 @@
+package act.ws;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.app.util.AppCrypto;
+import act.conf.AppConfig;
+import act.util.LogSupport;
+import org.osgl.util.E;
+import org.osgl.util.S;
+
+import java.io.*;
+import java.net.*;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The default {@link WebSocketClusterBridge} implementation that publishes
+ * messages to peer nodes via UDP multicast.
+ *
+ * Messages published within the linger time (`ws.cluster.batch.linger`) are
+ * packed into one datagram up to {@link #MAX_BATCH_BYTES}, so that a burst of
+ * small messages does not turn into one network send per message.
+ *
+ * Each datagram is signed with an HMAC keyed by the application secret,
+ * datagrams without a valid signature are dropped. Thus all nodes of the
+ * application must share the same `secret` configuration.
+ *
+ * **Note** the messages are not encrypted, and anyone who can reach the
+ * multicast group can observe them. The bridge shall only be used on a
+ * trusted network segment.
+ *
+ * Note UDP delivery is not guaranteed, and a single message cannot exceed
+ * the datagram size limit.
+ */
+public class MulticastWebSocketClusterBridge extends LogSupport implements WebSocketClusterBridge {
+
+    /**
+     * The maximum number of bytes packed into one datagram
+     */
+    public static final int MAX_BATCH_BYTES = 60 * 1024;
+
+    private static final int MAGIC = 0x41435753; // "ACWS"
+    // length of HmacSHA1 signature
+    private static final int SIGNATURE_BYTES = 20;
+    // magic, message count and the trailing signature
+    private static final int HEADER_BYTES = 4 + 2 + SIGNATURE_BYTES;
+
+    private final BlockingQueue<Message> outbound = new ArrayBlockingQueue<>(16 * 1024);
+    private volatile boolean running;
+    private AppCrypto crypto;
+    private MulticastSocket socket;
+    private InetAddress group;
+    private int port;
+    private long lingerMs;
+    private Thread sender;
+    private Thread listener;
+
+    @Override
+    public void start(AppConfig config, final Receiver receiver) {
+        String address = config.wsClusterMulticastAddress();
+        int pos = address.lastIndexOf(':');
+        E.invalidConfigurationIf(pos < 0, "ws.cluster.multicast.address shall be in the form of `group:port`: %s", address);
+        E.invalidConfigurationIf(S.blank(config.secret()), "websocket cluster bridge requires app secret to sign datagrams");
+        lingerMs = config.wsClusterBatchLinger();
+        crypto = new AppCrypto(config);
+        try {
+            group = InetAddress.getByName(address.substring(0, pos));
+            port = Integer.parseInt(address.substring(pos + 1));
+            socket = new MulticastSocket(port);
+            socket.joinGroup(group);
+        } catch (IOException e) {
+            throw E.ioException(e);
+        }
+        running = true;
+        sender = new Thread("act-ws-cluster-sender") {
+            @Override
+            public void run() {
+                sendLoop();
+            }
+        };
+        listener = new Thread("act-ws-cluster-listener") {
+            @Override
+            public void run() {
+                receiveLoop(receiver);
+            }
+        };
+        sender.setDaemon(true);
+        listener.setDaemon(true);
+        sender.start();
+        listener.start();
+        info("websocket cluster bridge joined multicast group %s", address);
+    }
+
+    @Override
+    public void publish(Message message) {
+        if (message.encodedLength() + HEADER_BYTES > MAX_BATCH_BYTES) {
+            warn("websocket message too large to be published to cluster: %s bytes", message.payload().length);
+            return;
+        }
+        if (!outbound.offer(message)) {
+            warn("websocket cluster outbound queue is full, message dropped");
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (null != sender) {
+            sender.interrupt();
+        }
+        if (null != socket) {
+            try {
+                socket.leaveGroup(group);
+            } catch (IOException e) {
+                // ignore
+            }
+            socket.close();
+        }
+    }
+
+    private void sendLoop() {
+        List<Message> batch = new ArrayList<>();
+        Message pending = null;
+        while (running) {
+            try {
+                Message first = null == pending ? outbound.take() : pending;
+                pending = null;
+                batch.add(first);
+                int bytes = HEADER_BYTES + first.encodedLength();
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (true) {
+                    long wait = deadline - System.nanoTime();
+                    Message next = wait > 0 ? outbound.poll(wait, TimeUnit.NANOSECONDS) : outbound.poll();
+                    if (null == next) {
+                        break;
+                    }
+                    if (bytes + next.encodedLength() > MAX_BATCH_BYTES || batch.size() == Short.MAX_VALUE) {
+                        pending = next;
+                        break;
+                    }
+                    batch.add(next);
+                    bytes += next.encodedLength();
+                }
+                byte[] data = encode(batch, crypto);
+                socket.send(new DatagramPacket(data, data.length, group, port));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                if (running) {
+                    warn(e, "error publishing websocket messages to cluster");
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void receiveLoop(Receiver receiver) {
+        byte[] buf = new byte[64 * 1024];
+        while (running) {
+            DatagramPacket packet = new DatagramPacket(buf, buf.length);
+            try {
+                socket.receive(packet);
+            } catch (IOException e) {
+                if (running) {
+                    warn(e, "error receiving websocket messages from cluster");
+                }
+                continue;
+            }
+            List<Message> messages;
+            try {
+                messages = decode(packet.getData(), packet.getOffset(), packet.getLength(), crypto);
+            } catch (IOException e) {
+                warn(e, "invalid websocket cluster datagram received from %s", packet.getSocketAddress());
+                continue;
+            }
+            for (Message message : messages) {
+                try {
+                    receiver.receive(message);
+                } catch (RuntimeException e) {
+                    error(e, "error delivering websocket message from cluster");
+                }
+            }
+        }
+    }
+
+    static byte[] encode(List<Message> messages, AppCrypto crypto) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(MAX_BATCH_BYTES / 4);
+        DataOutputStream out = new DataOutputStream(baos);
+        out.writeInt(MAGIC);
+        out.writeShort(messages.size());
+        for (Message message : messages) {
+            message.writeTo(out);
+        }
+        out.flush();
+        byte[] signature = crypto.sign(baos.toByteArray());
+        E.unexpectedIf(SIGNATURE_BYTES != signature.length, "unexpected signature length: %s", signature.length);
+        baos.write(signature);
+        return baos.toByteArray();
+    }
+
+    static List<Message> decode(byte[] data, int offset, int length, AppCrypto crypto) throws IOException {
+        if (length < HEADER_BYTES) {
+            throw new IOException(S.fmt("unknown datagram of %s bytes", length));
+        }
+        int bodyLength = length - SIGNATURE_BYTES;
+        byte[] expected = crypto.sign(Arrays.copyOfRange(data, offset, offset + bodyLength));
+        byte[] signature = Arrays.copyOfRange(data, offset + bodyLength, offset + length);
+        if (!MessageDigest.isEqual(expected, signature)) {
+            throw new IOException(S.fmt("invalid signature on datagram of %s bytes", length));
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, offset, bodyLength));
+        if (MAGIC != in.readInt()) {
+            throw new IOException(S.fmt("unknown datagram of %s bytes", length));
+        }
+        int count = in.readShort();
+        List<Message> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            messages.add(Message.readFrom(in));
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,190 @@
+package act.ws;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.alibaba.fastjson.JSON;
+import org.osgl.$;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * A websocket message that has been serialized and encoded into bytes once,
+ * and can be sent to any number of connections without encoding the
+ * message again.
+ *
+ * A text message is encoded in UTF-8, a binary message keeps the bytes
+ * as it is.
+ *
+ * The encoded bytes are kept in a read-only buffer, each call to
+ * {@link #payload()} returns a new view of the buffer sharing the same
+ * content, thus it is safe to send the same message to multiple
+ * connections concurrently.
+ */
+public final class PreparedMessage {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final String text;
+    private final ByteBuffer payload;
+    private final String coalesceKey;
+
+    private PreparedMessage(String text) {
+        this.text = $.notNull(text);
+        this.payload = ByteBuffer.wrap(text.getBytes(UTF_8)).asReadOnlyBuffer();
+        this.coalesceKey = null;
+    }
+
+    private PreparedMessage(String text, byte[] encoded) {
+        this.text = text;
+        this.payload = ByteBuffer.wrap(encoded).asReadOnlyBuffer();
+        this.coalesceKey = null;
+    }
+
+    private PreparedMessage(ByteBuffer data) {
+        this.text = null;
+        this.payload = data.slice().asReadOnlyBuffer();
+        this.coalesceKey = null;
+    }
+
+    private PreparedMessage(PreparedMessage message, String coalesceKey) {
+        this.text = message.text;
+        this.payload = message.payload;
+        this.coalesceKey = coalesceKey;
+    }
+
+    /**
+     * Returns the original text of the message
+     * @return the message text or `null` if this is a binary message
+     */
+    public String text() {
+        return text;
+    }
+
+    /**
+     * Check if this is a binary message
+     * @return `true` if this message shall be sent in binary frame
+     */
+    public boolean isBinary() {
+        return null == text;
+    }
+
+    /**
+     * Returns a read-only view of the encoded message bytes
+     * @return the message payload
+     */
+    public ByteBuffer payload() {
+        return payload.duplicate();
+    }
+
+    /**
+     * Returns number of bytes of the encoded message
+     * @return the payload length
+     */
+    public int length() {
+        return payload.remaining();
+    }
+
+    /**
+     * Returns the coalesce key of this message.
+     *
+     * When a connection's outbound queue is full and the overflow policy is
+     * {@link WebSocketOutboundQueue.OverflowPolicy#COALESCE}, a queued message
+     * with the same coalesce key is replaced by the newer message
+     *
+     * @return the coalesce key or `null` if not specified
+     */
+    public String coalesceKey() {
+        return coalesceKey;
+    }
+
+    /**
+     * Returns a message sharing the same payload with this message and
+     * tagged with the coalesce key specified
+     *
+     * @param key the coalesce key, e.g. the id of the entity the message is about
+     * @return the message with coalesce key
+     * @see #coalesceKey()
+     */
+    public PreparedMessage withCoalesceKey(String key) {
+        return new PreparedMessage(this, key);
+    }
+
+    @Override
+    public String toString() {
+        return null == text ? "binary[" + length() + " bytes]" : text;
+    }
+
+    /**
+     * Prepare a text message
+     * @param message the message text
+     * @return the prepared message
+     */
+    public static PreparedMessage of(String message) {
+        return new PreparedMessage(message);
+    }
+
+    /**
+     * Prepare a binary message.
+     *
+     * Note the data array is not copied and must not be changed after calling this method
+     *
+     * @param data the binary data
+     * @return the prepared message
+     */
+    public static PreparedMessage ofBinary(byte[] data) {
+        return new PreparedMessage(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Prepare a binary message with the remaining bytes of the buffer specified.
+     *
+     * Note the buffer content is not copied and must not be changed after calling this method
+     *
+     * @param data the binary data
+     * @return the prepared message
+     */
+    public static PreparedMessage ofBinary(ByteBuffer data) {
+        return new PreparedMessage(data);
+    }
+
+    /**
+     * Prepare a message from payload that has already been encoded, e.g.
+     * message received from peer nodes
+     *
+     * @param payload the encoded payload
+     * @param binary whether the payload is binary or UTF-8 encoded text
+     * @return the prepared message
+     */
+    static PreparedMessage ofEncoded(byte[] payload, boolean binary) {
+        return binary ? ofBinary(payload) : new PreparedMessage(new String(payload, UTF_8), payload);
+    }
+
+    /**
+     * Prepare a message with JSON representation of a data object
+     * @param data the data object
+     * @return the prepared message
+     */
+    public static PreparedMessage ofJson(Object data) {
+        return new PreparedMessage(JSON.toJSONString(data));
+    }
+
+}
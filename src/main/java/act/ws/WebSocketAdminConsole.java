@@ -22,9 +22,15 @@ package act.ws;
 
 import act.cli.Command;
 import act.cli.Optional;
+import act.cli.TableView;
+import act.util.PropertySpec;
+import act.xio.WebSocketConnection;
+import org.osgl.util.C;
 import org.osgl.util.S;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
 
 public class WebSocketAdminConsole {
 
@@ -49,4 +55,68 @@ public class WebSocketAdminConsole {
         return S.blank(sessionId) ? registry.count() : registry.count(sessionId);
     }
 
+    @Command(name = "act.ws.broadcast.stats", help = "report websocket broadcast fan-out statistics")
+    @PropertySpec("broadcasts,deliveries,bytes,lastFanOut,maxFanOut,avgFanOut")
+    @TableView
+    public List<WebSocketConnectionManager.BroadcastStats> broadcastStats() {
+        return C.list(manager.broadcastStats());
+    }
+
+    @Command(name = "act.ws.conn.slowest", help = "list websocket connections with the most outbound data pending")
+    @PropertySpec("sessionId,username,depth,queuedBytes,maxDepth,pendingWriteMs,avgWriteMs,sent,dropped")
+    @TableView
+    public List<SlowConnection> slowestConnections(@Optional(value = "specify the number of connections to list", defVal = "10") int limit) {
+        List<SlowConnection> list = new ArrayList<>();
+        for (WebSocketConnection conn : manager.sessionRegistry().slowest(limit)) {
+            list.add(new SlowConnection(conn));
+        }
+        return list;
+    }
+
+    public static class SlowConnection {
+        private final WebSocketConnection connection;
+        private final WebSocketOutboundQueue queue;
+
+        SlowConnection(WebSocketConnection connection) {
+            this.connection = connection;
+            this.queue = WebSocketConnection.Util.outboundQueue(connection);
+        }
+
+        public String getSessionId() {
+            return connection.sessionId();
+        }
+
+        public String getUsername() {
+            return connection.username();
+        }
+
+        public int getDepth() {
+            return queue.getDepth();
+        }
+
+        public long getQueuedBytes() {
+            return queue.getQueuedBytes();
+        }
+
+        public int getMaxDepth() {
+            return queue.getMaxDepth();
+        }
+
+        public long getPendingWriteMs() {
+            return queue.getPendingWriteMs();
+        }
+
+        public long getAvgWriteMs() {
+            return queue.getAvgWriteMs();
+        }
+
+        public long getSent() {
+            return queue.getSent();
+        }
+
+        public long getDropped() {
+            return queue.getDropped();
+        }
+    }
+
 }
@@ -0,0 +1,169 @@
+package act.ws;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.conf.AppConfig;
+import org.osgl.$;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A cluster bridge publishes websocket broadcast messages to the peer nodes
+ * of the application, so that connections attached to other nodes can be
+ * reached by {@link WebSocketConnectionManager} broadcast methods, e.g.
+ * {@link WebSocketConnectionManager#sendToUser(String, String)}.
+ *
+ * The implementation is responsible for transporting {@link Message messages}
+ * between nodes. Deduplication and local delivery are handled by the
+ * {@link Receiver} provided by {@link WebSocketConnectionManager}.
+ *
+ * Configure the bridge implementation with `ws.cluster.bridge.impl`
+ *
+ * @see MulticastWebSocketClusterBridge
+ */
+public interface WebSocketClusterBridge {
+
+    /**
+     * Start the bridge.
+     *
+     * @param config the application config
+     * @param receiver the receiver to deliver messages published by peer nodes
+     */
+    void start(AppConfig config, Receiver receiver);
+
+    /**
+     * Publish a message to peer nodes. The implementation shall not block
+     * the caller on network IO.
+     *
+     * @param message the message to be published
+     */
+    void publish(Message message);
+
+    /**
+     * Stop the bridge and release network resources
+     */
+    void stop();
+
+    /**
+     * Deliver messages received from peer nodes
+     */
+    interface Receiver {
+        void receive(Message message);
+    }
+
+    /**
+     * A broadcast message transported between nodes
+     */
+    class Message {
+
+        /**
+         * Identify the {@link WebSocketConnectionRegistry} in which the connections are looked up
+         */
+        public enum Scope {
+            SESSION, USER, URL, TAG
+        }
+
+        private final long origin;
+        private final long seq;
+        private final Scope scope;
+        private final String key;
+        private final boolean binary;
+        private final byte[] payload;
+
+        public Message(long origin, long seq, Scope scope, String key, boolean binary, byte[] payload) {
+            this.origin = origin;
+            this.seq = seq;
+            this.scope = $.notNull(scope);
+            this.key = $.notNull(key);
+            this.binary = binary;
+            this.payload = $.notNull(payload);
+        }
+
+        /**
+         * Returns the id of the node that published this message
+         */
+        public long origin() {
+            return origin;
+        }
+
+        /**
+         * Returns the sequence number of this message in the origin node
+         */
+        public long seq() {
+            return seq;
+        }
+
+        public Scope scope() {
+            return scope;
+        }
+
+        public String key() {
+            return key;
+        }
+
+        public boolean isBinary() {
+            return binary;
+        }
+
+        public byte[] payload() {
+            return payload;
+        }
+
+        /**
+         * Returns an estimation of number of bytes written by {@link #writeTo(DataOutput)}
+         */
+        public int encodedLength() {
+            // origin + seq + scope + binary + key (utf length + chars) + payload (length + bytes)
+            return 8 + 8 + 1 + 1 + 2 + key.length() * 3 + 4 + payload.length;
+        }
+
+        public void writeTo(DataOutput out) throws IOException {
+            out.writeLong(origin);
+            out.writeLong(seq);
+            out.writeByte(scope.ordinal());
+            out.writeBoolean(binary);
+            out.writeUTF(key);
+            out.writeInt(payload.length);
+            out.write(payload);
+        }
+
+        public static Message readFrom(DataInput in) throws IOException {
+            long origin = in.readLong();
+            long seq = in.readLong();
+            int scope = in.readByte();
+            if (scope < 0 || scope >= Scope.values().length) {
+                throw new IOException("invalid message scope: " + scope);
+            }
+            boolean binary = in.readBoolean();
+            String key = in.readUTF();
+            int len = in.readInt();
+            if (len < 0) {
+                throw new IOException("invalid message payload length: " + len);
+            }
+            byte[] payload = new byte[len];
+            in.readFully(payload);
+            return new Message(origin, seq, Scope.values()[scope], key, binary, payload);
+        }
+    }
+
+}
@@ -20,19 +20,28 @@ package act.ws;
  * #L%
  */
 
+import act.Act;
 import act.app.ActionContext;
 import act.app.App;
 import act.app.AppServiceBase;
+import act.conf.AppConfig;
+import act.metric.Metric;
+import act.metric.Timer;
 import act.util.Stateless;
 import act.xio.WebSocketConnection;
-import com.alibaba.fastjson.JSON;
 import org.osgl.$;
 import org.osgl.Osgl;
 import org.osgl.http.H;
 import org.osgl.logging.LogManager;
 import org.osgl.logging.Logger;
+import org.osgl.util.C;
+import org.osgl.util.E;
+import org.osgl.util.S;
 
-import java.util.Collection;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Manage {@link WebSocketConnection} through {@link WebSocketConnectionRegistry}
@@ -48,10 +57,26 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
     private final WebSocketConnectionRegistry byTag = new WebSocketConnectionRegistry();
 
     private String wsTicketKey;
+    private final Metric metric = Act.metricPlugin().metric("act.ws");
+    private final BroadcastStats broadcastStats = new BroadcastStats();
+
+    private WebSocketClusterBridge clusterBridge;
+    private final long nodeId = UUID.randomUUID().getMostSignificantBits();
+    private final AtomicLong clusterSeq = new AtomicLong();
+    private final Map<String, Boolean> clusterSeen = Collections.synchronizedMap(new LinkedHashMap<String, Boolean>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > CLUSTER_DEDUP_WINDOW;
+        }
+    });
+
+    // number of recently received cluster message ids kept for deduplication
+    private static final int CLUSTER_DEDUP_WINDOW = 8192;
 
     public WebSocketConnectionManager(App app) {
         super(app);
         wsTicketKey = app.config().wsTicketKey();
+        initClusterBridge(app.config());
     }
 
     public WebSocketConnectionRegistry sessionRegistry() {
@@ -90,7 +115,7 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
      * @param url the url
      */
     public void sendToUrl(String message, String url) {
-        sendToConnections(message, urlRegistry(), url);
+        broadcast(PreparedMessage.of(message), urlRegistry(), url);
     }
 
     /**
@@ -101,7 +126,7 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
      * @param url the url
      */
     public void sendJsonToUrl(Object data, String url) {
-        sendToUrl(JSON.toJSONString(data), url);
+        broadcast(PreparedMessage.ofJson(data), urlRegistry(), url);
     }
 
     /**
@@ -110,7 +135,7 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
      * @param label the tag label
      */
     public void sendToTagged(String message, String label) {
-        sendToConnections(message, tagRegistry(), label);
+        broadcast(PreparedMessage.of(message), tagRegistry(), label);
     }
 
     /**
@@ -119,9 +144,7 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
      * @param labels the tag labels
      */
     public void sendToTagged(String message, String ... labels) {
-        for (String label : labels) {
-            sendToTagged(message, label);
-        }
+        broadcastToTagged(PreparedMessage.of(message), C.listOf(labels));
     }
 
     /**
@@ -130,9 +153,7 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
      * @param labels the tag labels
      */
     public void sendToTagged(String message, Collection<String> labels) {
-        for (String label : labels) {
-            sendToTagged(message, label);
-        }
+        broadcastToTagged(PreparedMessage.of(message), labels);
     }
 
     /**
@@ -142,7 +163,7 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
      * @param label the tag label
      */
     public void sendJsonToTagged(Object data, String label) {
-        sendToTagged(JSON.toJSONString(data), label);
+        broadcast(PreparedMessage.ofJson(data), tagRegistry(), label);
     }
 
     /**
@@ -151,9 +172,7 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
      * @param labels the tag labels
      */
     public void sendJsonToTagged(Object data, String ... labels) {
-        for (String label : labels) {
-            sendJsonToTagged(data, label);
-        }
+        broadcastToTagged(PreparedMessage.ofJson(data), C.listOf(labels));
     }
 
     /**
@@ -162,9 +181,7 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
      * @param labels the tag labels
      */
     public void sendJsonToTagged(Object data, Collection<String> labels) {
-        for (String label : labels) {
-            sendJsonToTagged(data, label);
-        }
+        broadcastToTagged(PreparedMessage.ofJson(data), labels);
     }
 
     /**
@@ -173,7 +190,7 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
      * @param username the username
      */
     public void sendToUser(String message, String username) {
-        sendToConnections(message, usernameRegistry(), username);
+        broadcast(PreparedMessage.of(message), usernameRegistry(), username);
     }
 
     /**
@@ -182,7 +199,7 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
      * @param username the username
      */
     public void sendJsonToUser(Object data, String username) {
-        sendToUser(JSON.toJSONString(data), username);
+        broadcast(PreparedMessage.ofJson(data), usernameRegistry(), username);
     }
 
     public void registerNewConnection(WebSocketConnection connection, ActionContext context) {
@@ -200,18 +217,221 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
 
     @Override
     protected void releaseResources() {
+        if (null != clusterBridge) {
+            clusterBridge.stop();
+            clusterBridge = null;
+        }
         bySessionId.destroy();
         byUsername.destroy();
         byUrl.destroy();
         byTag.destroy();
     }
 
-    private void sendToConnections(String message, WebSocketConnectionRegistry registry, String key) {
-        for (WebSocketConnection conn : registry.get(key)) {
-            if (logger.isTraceEnabled()) {
-                logger.trace("send to websocket connection by key: %s", key);
+    /**
+     * Send a prepared message to all connections attached to the key in the registry specified.
+     *
+     * The connections are visited in place and the message is encoded only once no matter how
+     * many connections it is sent to
+     *
+     * @param message the prepared message
+     * @param registry the connection registry
+     * @param key the key to find the connections
+     * @return number of connections the message has been sent to
+     */
+    public int broadcast(PreparedMessage message, WebSocketConnectionRegistry registry, String key) {
+        return broadcast(message, registry, key, null);
+    }
+
+    /**
+     * Send a prepared message to all connections attached to the key in the registry specified
+     * except the connection to be excluded
+     *
+     * If a {@link WebSocketClusterBridge} is configured and the registry is one of the
+     * registries of this manager, the message is also published to peer nodes.
+     *
+     * @param message the prepared message
+     * @param registry the connection registry
+     * @param key the key to find the connections
+     * @param excluded the connection that shall not receive the message, could be `null`
+     * @return number of local connections the message has been sent to
+     */
+    public int broadcast(PreparedMessage message, WebSocketConnectionRegistry registry, String key, WebSocketConnection excluded) {
+        int n = deliver(message, registry, key, excluded);
+        if (null != clusterBridge) {
+            publish(message, registry, key);
+        }
+        return n;
+    }
+
+    private int deliver(final PreparedMessage message, WebSocketConnectionRegistry registry, final String key, final WebSocketConnection excluded) {
+        if (logger.isTraceEnabled()) {
+            logger.trace("broadcast to websocket connections by key: %s", key);
+        }
+        final AtomicInteger fanOut = new AtomicInteger();
+        Timer timer = metric.startTimer("broadcast");
+        try {
+            registry.accept(key, new $.Visitor<WebSocketConnection>() {
+                @Override
+                public void visit(WebSocketConnection connection) throws Osgl.Break {
+                    if (connection != excluded) {
+                        WebSocketConnection.Util.send(connection, message);
+                        fanOut.incrementAndGet();
+                    }
+                }
+            });
+        } finally {
+            timer.stop();
+        }
+        int n = fanOut.get();
+        broadcastStats.record(n, message.length());
+        return n;
+    }
+
+    /**
+     * Returns the broadcast statistics of this manager
+     * @return the broadcast stats
+     */
+    public BroadcastStats broadcastStats() {
+        return broadcastStats;
+    }
+
+    private void initClusterBridge(AppConfig config) {
+        WebSocketClusterBridge bridge = config.wsClusterBridge();
+        if (null == bridge) {
+            return;
+        }
+        try {
+            bridge.start(config, new WebSocketClusterBridge.Receiver() {
+                @Override
+                public void receive(WebSocketClusterBridge.Message message) {
+                    receiveFromCluster(message);
+                }
+            });
+            clusterBridge = bridge;
+        } catch (RuntimeException e) {
+            logger.error(e, "error starting websocket cluster bridge, broadcast will reach local connections only");
+        }
+    }
+
+    private void publish(PreparedMessage message, WebSocketConnectionRegistry registry, String key) {
+        WebSocketClusterBridge.Message.Scope scope = scopeOf(registry);
+        if (null == scope) {
+            return;
+        }
+        ByteBuffer payload = message.payload();
+        byte[] bytes = new byte[payload.remaining()];
+        payload.get(bytes);
+        clusterBridge.publish(new WebSocketClusterBridge.Message(nodeId, clusterSeq.incrementAndGet(), scope, key, message.isBinary(), bytes));
+    }
+
+    private void receiveFromCluster(WebSocketClusterBridge.Message message) {
+        if (nodeId == message.origin()) {
+            return;
+        }
+        if (null != clusterSeen.put(S.concat(String.valueOf(message.origin()), ":", String.valueOf(message.seq())), Boolean.TRUE)) {
+            return;
+        }
+        WebSocketConnectionRegistry registry = registry(message.scope());
+        deliver(PreparedMessage.ofEncoded(message.payload(), message.isBinary()), registry, message.key(), null);
+    }
+
+    private WebSocketClusterBridge.Message.Scope scopeOf(WebSocketConnectionRegistry registry) {
+        if (registry == byTag) {
+            return WebSocketClusterBridge.Message.Scope.TAG;
+        } else if (registry == byUsername) {
+            return WebSocketClusterBridge.Message.Scope.USER;
+        } else if (registry == byUrl) {
+            return WebSocketClusterBridge.Message.Scope.URL;
+        } else if (registry == bySessionId) {
+            return WebSocketClusterBridge.Message.Scope.SESSION;
+        }
+        return null;
+    }
+
+    private WebSocketConnectionRegistry registry(WebSocketClusterBridge.Message.Scope scope) {
+        switch (scope) {
+            case TAG:
+                return byTag;
+            case USER:
+                return byUsername;
+            case URL:
+                return byUrl;
+            case SESSION:
+                return bySessionId;
+            default:
+                throw E.unexpected("unknown scope: %s", scope);
+        }
+    }
+
+    private void broadcastToTagged(PreparedMessage message, Collection<String> labels) {
+        WebSocketConnectionRegistry registry = tagRegistry();
+        for (String label : labels) {
+            broadcast(message, registry, label);
+        }
+    }
+
+    /**
+     * Keep track of the fan-out of messages broadcast through {@link WebSocketConnectionManager}
+     */
+    public static class BroadcastStats {
+        private final AtomicLong broadcasts = new AtomicLong();
+        private final AtomicLong deliveries = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicInteger maxFanOut = new AtomicInteger();
+        private volatile int lastFanOut;
+
+        void record(int fanOut, int payloadLength) {
+            broadcasts.incrementAndGet();
+            deliveries.addAndGet(fanOut);
+            bytes.addAndGet((long) fanOut * payloadLength);
+            lastFanOut = fanOut;
+            int max = maxFanOut.get();
+            while (fanOut > max && !maxFanOut.compareAndSet(max, fanOut)) {
+                max = maxFanOut.get();
             }
-            conn.send(message);
+        }
+
+        /**
+         * Returns number of broadcasts
+         */
+        public long getBroadcasts() {
+            return broadcasts.get();
+        }
+
+        /**
+         * Returns number of messages delivered to connections by all broadcasts
+         */
+        public long getDeliveries() {
+            return deliveries.get();
+        }
+
+        /**
+         * Returns number of payload bytes written to connections by all broadcasts
+         */
+        public long getBytes() {
+            return bytes.get();
+        }
+
+        /**
+         * Returns the number of connections reached by the last broadcast
+         */
+        public int getLastFanOut() {
+            return lastFanOut;
+        }
+
+        /**
+         * Returns the maximum number of connections reached by a single broadcast
+         */
+        public int getMaxFanOut() {
+            return maxFanOut.get();
+        }
+
+        /**
+         * Returns the average number of connections reached by a broadcast
+         */
+        public long getAvgFanOut() {
+            long n = broadcasts.get();
+            return 0 == n ? 0 : deliveries.get() / n;
         }
     }
 }
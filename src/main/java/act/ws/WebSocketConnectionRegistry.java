@@ -206,6 +206,47 @@ public class WebSocketConnectionRegistry extends DestroyableBase {
         return null == bag ? 0 : bag.size();
     }
 
+    /**
+     * Returns connections in this registry that have the most outbound data
+     * pending, ordered by queued bytes and then by the time the current write
+     * has been waiting for completion.
+     *
+     * Connections without pending outbound data are not included
+     *
+     * @param limit the maximum number of connections to be returned
+     * @return a list of the slowest connections
+     */
+    public List<WebSocketConnection> slowest(int limit) {
+        Set<WebSocketConnection> found = Collections.newSetFromMap(new IdentityHashMap<WebSocketConnection, Boolean>());
+        List<WebSocketConnection> retList = new ArrayList<>();
+        for (ConcurrentMap<WebSocketConnection, WebSocketConnection> connections : registry.values()) {
+            for (WebSocketConnection conn : connections.keySet()) {
+                if (conn.closed() || !found.add(conn)) {
+                    continue;
+                }
+                WebSocketOutboundQueue queue = WebSocketConnection.Util.outboundQueue(conn);
+                if (null != queue && (queue.getDepth() > 0 || queue.getPendingWriteMs() > 0)) {
+                    retList.add(conn);
+                }
+            }
+        }
+        Collections.sort(retList, SLOWEST_FIRST);
+        return retList.size() > limit ? retList.subList(0, limit) : retList;
+    }
+
+    private static final Comparator<WebSocketConnection> SLOWEST_FIRST = new Comparator<WebSocketConnection>() {
+        @Override
+        public int compare(WebSocketConnection o1, WebSocketConnection o2) {
+            WebSocketOutboundQueue q1 = WebSocketConnection.Util.outboundQueue(o1), q2 = WebSocketConnection.Util.outboundQueue(o2);
+            int n = compare(q2.getQueuedBytes(), q1.getQueuedBytes());
+            return 0 != n ? n : compare(q2.getPendingWriteMs(), q1.getPendingWriteMs());
+        }
+
+        private int compare(long l1, long l2) {
+            return l1 < l2 ? -1 : (l1 == l2 ? 0 : 1);
+        }
+    };
+
     @Override
     protected void releaseResources() {
         for (ConcurrentMap<WebSocketConnection, WebSocketConnection> connections : registry.values()) {
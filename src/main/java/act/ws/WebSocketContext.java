@@ -33,13 +33,15 @@ import org.osgl.util.S;
 
 import java.util.*;
 
-public class WebSocketContext extends ActContext.Base<WebSocketContext> implements WebSocketConnection {
+public class WebSocketContext extends ActContext.Base<WebSocketContext> implements WebSocketConnection, WebSocketConnection.PreparedMessageSender,
+        WebSocketConnection.BinarySender, WebSocketConnection.Buffered {
 
     private WebSocketConnection connection;
     private WebSocketConnectionManager manager;
     private ActionContext actionContext;
     private String url;
     private String stringMessage;
+    private byte[] binaryMessage;
     private boolean isJson;
     private Map<String, List<String>> queryParams;
 
@@ -93,11 +95,25 @@ public class WebSocketContext extends ActContext.Base<WebSocketContext> implemen
      */
     public WebSocketContext messageReceived(String receivedMessage) {
         this.stringMessage = S.string(receivedMessage).trim();
+        this.binaryMessage = null;
         isJson = stringMessage.startsWith("{") || stringMessage.startsWith("]");
         tryParseQueryParams();
         return this;
     }
 
+    /**
+     * Called when remote end send a binary message to this connection
+     * @param receivedMessage the binary message received
+     * @return this context
+     */
+    public WebSocketContext messageReceived(byte[] receivedMessage) {
+        this.binaryMessage = $.notNull(receivedMessage);
+        this.stringMessage = null;
+        this.isJson = false;
+        this.queryParams = new HashMap<>();
+        return this;
+    }
+
     /**
      * Tag the websocket connection hold by this context with label specified
      * @param label the label used to tag the websocket connection
@@ -116,6 +132,18 @@ public class WebSocketContext extends ActContext.Base<WebSocketContext> implemen
         return isJson;
     }
 
+    /**
+     * Returns the binary message received
+     * @return the binary message or `null` if the message received is a text message
+     */
+    public byte[] binaryMessage() {
+        return binaryMessage;
+    }
+
+    public boolean isBinary() {
+        return null != binaryMessage;
+    }
+
     /**
      * Send a message to the connection of this context
      * @param message the message to be sent
@@ -136,6 +164,16 @@ public class WebSocketContext extends ActContext.Base<WebSocketContext> implemen
         return this;
     }
 
+    /**
+     * Send binary data to the connection of this context
+     * @param data the data to be sent
+     * @return this context
+     */
+    public WebSocketContext sendBinaryToSelf(byte[] data) {
+        sendBinary(data);
+        return this;
+    }
+
     /**
      * Send message to all connections connected to the same URL of this context with
      * the connection of this context excluded
@@ -254,11 +292,7 @@ public class WebSocketContext extends ActContext.Base<WebSocketContext> implemen
     }
 
     private WebSocketContext sendToConnections(String message, String key, WebSocketConnectionRegistry registry, boolean excludeSelf) {
-        for (WebSocketConnection conn : registry.get(key)) {
-            if (!excludeSelf || connection != conn) {
-                conn.send(message);
-            }
-        }
+        manager.broadcast(PreparedMessage.of(message), registry, key, excludeSelf ? connection : null);
         return this;
     }
 
@@ -267,6 +301,21 @@ public class WebSocketContext extends ActContext.Base<WebSocketContext> implemen
         connection.send(message);
     }
 
+    @Override
+    public void send(PreparedMessage message) {
+        WebSocketConnection.Util.send(connection, message);
+    }
+
+    @Override
+    public void sendBinary(byte[] data) {
+        WebSocketConnection.Util.sendBinary(connection, data);
+    }
+
+    @Override
+    public WebSocketOutboundQueue outboundQueue() {
+        return WebSocketConnection.Util.outboundQueue(connection);
+    }
+
     @Override
     public void close() {
         connection.close();
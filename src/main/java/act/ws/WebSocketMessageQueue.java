@@ -0,0 +1,160 @@
+package act.ws;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.util.LogSupport;
+import org.osgl.$;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A per connection serial queue that hand over websocket message handling
+ * tasks to a worker {@link Executor}.
+ *
+ * Tasks dispatched to the same queue are executed one after another in the
+ * order they are dispatched, while tasks of different queues run in parallel.
+ *
+ * When the number of in flight tasks reaches the limit, the queue calls
+ * {@link FlowControl#suspend()} so that the network layer stops reading
+ * from the connection, and calls {@link FlowControl#resume()} once
+ * the queued tasks are drained below the limit.
+ */
+public class WebSocketMessageQueue extends LogSupport {
+
+    /**
+     * Allow the network layer to apply back pressure to the remote end
+     */
+    public interface FlowControl {
+        /**
+         * Stop reading messages from the connection
+         */
+        void suspend();
+
+        /**
+         * Resume reading messages from the connection
+         */
+        void resume();
+    }
+
+    private final Executor executor;
+    private final int inFlightMax;
+    private final FlowControl flowControl;
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private boolean suspended;
+
+    private final Runnable drainer = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+
+    /**
+     * Construct a message queue.
+     *
+     * @param executor the worker executor
+     * @param inFlightMax the in flight task limit, `0` means no limit
+     * @param flowControl the flow control callback, could be `null`
+     */
+    public WebSocketMessageQueue(Executor executor, int inFlightMax, FlowControl flowControl) {
+        this.executor = $.notNull(executor);
+        this.inFlightMax = inFlightMax;
+        this.flowControl = flowControl;
+    }
+
+    /**
+     * Queue a task to be executed after all tasks previously dispatched
+     * to this queue
+     *
+     * @param task the task
+     */
+    public void dispatch(Runnable task) {
+        queue.offer($.notNull(task));
+        if (inFlight.incrementAndGet() >= inFlightMax && inFlightMax > 0) {
+            suspendIfSaturated();
+        }
+        schedule();
+    }
+
+    /**
+     * Returns number of tasks dispatched to this queue and not finished yet
+     * @return the in flight task number
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private void schedule() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(drainer);
+        } catch (RejectedExecutionException e) {
+            draining.set(false);
+            warn(e, "websocket message handling rejected, %s message(s) dropped", queue.size());
+            queue.clear();
+            inFlight.set(0);
+            resumeIfDrained();
+        }
+    }
+
+    private void drain() {
+        Runnable task;
+        while (null != (task = queue.poll())) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                error(e, "error handling websocket message");
+            }
+            if (inFlight.decrementAndGet() < inFlightMax) {
+                resumeIfDrained();
+            }
+        }
+        draining.set(false);
+        // task might be offered after the last poll and before the flag reset
+        if (!queue.isEmpty()) {
+            schedule();
+        }
+    }
+
+    private synchronized void suspendIfSaturated() {
+        if (!suspended && null != flowControl && inFlight.get() >= inFlightMax) {
+            suspended = true;
+            flowControl.suspend();
+        }
+    }
+
+    private synchronized void resumeIfDrained() {
+        if (suspended && inFlight.get() < inFlightMax) {
+            suspended = false;
+            flowControl.resume();
+        }
+    }
+
+}
@@ -0,0 +1,388 @@
+package act.ws;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.metric.BatchCounter;
+import act.metric.Metric;
+import org.osgl.$;
+import org.osgl.util.S;
+
+import java.util.LinkedList;
+import java.util.ListIterator;
+
+/**
+ * Bounded outbound message queue of a websocket connection.
+ *
+ * Only one message is written to the network at a time, the rest of the
+ * messages are kept in the queue until the previous write completed. When
+ * the queue reaches the maximum number of messages or bytes, the
+ * {@link OverflowPolicy} decides what to do with the new message.
+ *
+ * The network layer writes messages through {@link Transport} and report
+ * the write result via {@link #writeComplete()} and {@link #writeFailed(Throwable)}.
+ */
+public class WebSocketOutboundQueue {
+
+    /**
+     * Decide what to do when a message is sent to a full outbound queue
+     */
+    public enum OverflowPolicy {
+        /**
+         * Drop the oldest queued messages to make room for the new message
+         */
+        DROP_OLDEST,
+
+        /**
+         * Drop the new message
+         */
+        DROP_NEWEST,
+
+        /**
+         * Replace the queued message that has the same {@link PreparedMessage#coalesceKey() coalesce key}
+         * with the new message. Falls back to {@link #DROP_OLDEST} if no such message found
+         */
+        COALESCE,
+
+        /**
+         * Close the connection
+         */
+        DISCONNECT;
+
+        public static OverflowPolicy valueOfIgnoreCase(String s) {
+            for (OverflowPolicy policy : values()) {
+                if (S.eq(policy.name(), s.trim().toUpperCase().replace('-', '_'))) {
+                    return policy;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * The network layer that write messages to the remote end
+     */
+    public interface Transport {
+        /**
+         * Start writing the message to remote end. Implementation must call
+         * either {@link WebSocketOutboundQueue#writeComplete()} or
+         * {@link WebSocketOutboundQueue#writeFailed(Throwable)} once the
+         * write finished
+         *
+         * @param message the message to be written
+         */
+        void write(PreparedMessage message);
+
+        /**
+         * Close the connection
+         */
+        void disconnect();
+    }
+
+    private final Transport transport;
+    private final int maxMessages;
+    private final int maxBytes;
+    private final OverflowPolicy policy;
+    private final Metric metric;
+
+    private final LinkedList<PreparedMessage> pending = new LinkedList<>();
+    private PreparedMessage writing;
+    private long writeStart;
+    private Thread writer;
+    private boolean writeCompletedInPlace;
+    private boolean closed;
+
+    private long queuedBytes;
+    private int maxDepth;
+    private long sent;
+    private long dropped;
+    private long writeNs;
+
+    /**
+     * Construct an outbound queue.
+     *
+     * @param transport the network layer
+     * @param maxMessages maximum number of queued messages, `0` means no limit
+     * @param maxBytes maximum number of queued payload bytes, `0` means no limit
+     * @param policy the overflow policy
+     * @param metric the metric to count dropped messages, could be `null`
+     */
+    public WebSocketOutboundQueue(Transport transport, int maxMessages, int maxBytes, OverflowPolicy policy, Metric metric) {
+        this.transport = $.notNull(transport);
+        this.maxMessages = maxMessages;
+        this.maxBytes = maxBytes;
+        this.policy = $.notNull(policy);
+        this.metric = null == metric ? Metric.NULL_METRIC : metric;
+    }
+
+    /**
+     * Send a message through this queue.
+     *
+     * @param message the message
+     * @return `true` if the message is written or queued, `false` if it is dropped
+     */
+    @SuppressWarnings("fallthrough")
+    public boolean offer(PreparedMessage message) {
+        PreparedMessage toWrite = null;
+        boolean disconnect = false;
+        boolean accepted = true;
+        synchronized (this) {
+            if (closed) {
+                drop(1);
+                return false;
+            }
+            if (null == writing) {
+                toWrite = startWrite(message);
+            } else if (!overflow(message.length())) {
+                enqueue(message);
+            } else {
+                switch (policy) {
+                    case DROP_NEWEST:
+                        drop(1);
+                        accepted = false;
+                        break;
+                    case COALESCE:
+                        if (coalesce(message)) {
+                            break;
+                        }
+                        // fall through to drop oldest
+                    case DROP_OLDEST:
+                        accepted = makeRoom(message.length());
+                        if (accepted) {
+                            enqueue(message);
+                        } else {
+                            drop(1);
+                        }
+                        break;
+                    case DISCONNECT:
+                        drop(pending.size() + 1);
+                        pending.clear();
+                        queuedBytes = 0;
+                        closed = true;
+                        disconnect = true;
+                        accepted = false;
+                        break;
+                    default:
+                        throw new IllegalStateException();
+                }
+            }
+        }
+        if (disconnect) {
+            transport.disconnect();
+        } else if (null != toWrite) {
+            write(toWrite);
+        }
+        return accepted;
+    }
+
+    /**
+     * Called by network layer when the current write finished successfully
+     */
+    public void writeComplete() {
+        PreparedMessage next;
+        synchronized (this) {
+            sent++;
+            metric.countOnce("sent");
+            writeNs += System.nanoTime() - writeStart;
+            writing = null;
+            if (writer == Thread.currentThread()) {
+                // write completed in place, let the writer loop pick the next message
+                writeCompletedInPlace = true;
+                return;
+            }
+            next = next();
+        }
+        write(next);
+    }
+
+    /**
+     * Called by network layer when the current write failed. All queued
+     * messages will be dropped
+     *
+     * @param cause the cause of the failure
+     */
+    public void writeFailed(Throwable cause) {
+        synchronized (this) {
+            drop(pending.size() + (null == writing ? 0 : 1));
+            pending.clear();
+            queuedBytes = 0;
+            writing = null;
+            closed = true;
+        }
+    }
+
+    /**
+     * Drop all queued messages and reject any further message
+     */
+    public synchronized void close() {
+        pending.clear();
+        queuedBytes = 0;
+        closed = true;
+    }
+
+    /**
+     * Returns number of messages waiting in the queue
+     */
+    public synchronized int getDepth() {
+        return pending.size();
+    }
+
+    /**
+     * Returns number of payload bytes waiting in the queue
+     */
+    public synchronized long getQueuedBytes() {
+        return queuedBytes;
+    }
+
+    /**
+     * Returns the maximum depth the queue has ever reached
+     */
+    public synchronized int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Returns number of messages written to the network
+     */
+    public synchronized long getSent() {
+        return sent;
+    }
+
+    /**
+     * Returns number of messages dropped
+     */
+    public synchronized long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Returns the average time in milliseconds to write a message
+     */
+    public synchronized long getAvgWriteMs() {
+        return 0 == sent ? 0 : writeNs / sent / 1000000L;
+    }
+
+    /**
+     * Returns how long in milliseconds the message currently being written
+     * has been waiting for completion
+     */
+    public synchronized long getPendingWriteMs() {
+        return null == writing ? 0 : (System.nanoTime() - writeStart) / 1000000L;
+    }
+
+    private void write(PreparedMessage message) {
+        Thread me = Thread.currentThread();
+        while (null != message) {
+            synchronized (this) {
+                writer = me;
+                writeCompletedInPlace = false;
+            }
+            try {
+                transport.write(message);
+            } catch (RuntimeException e) {
+                writeFailed(e);
+                throw e;
+            }
+            synchronized (this) {
+                if (writer != me) {
+                    // completed asynchronously and another thread took over
+                    return;
+                }
+                writer = null;
+                if (!writeCompletedInPlace) {
+                    return;
+                }
+                message = next();
+            }
+        }
+    }
+
+    private PreparedMessage startWrite(PreparedMessage message) {
+        writing = message;
+        writeStart = System.nanoTime();
+        return message;
+    }
+
+    private PreparedMessage next() {
+        PreparedMessage message = pending.poll();
+        if (null == message || closed) {
+            return null;
+        }
+        queuedBytes -= message.length();
+        return startWrite(message);
+    }
+
+    private void enqueue(PreparedMessage message) {
+        pending.offer(message);
+        queuedBytes += message.length();
+        maxDepth = Math.max(maxDepth, pending.size());
+    }
+
+    private boolean overflow(int length) {
+        return (maxMessages > 0 && pending.size() >= maxMessages)
+                || (maxBytes > 0 && queuedBytes + length > maxBytes);
+    }
+
+    private boolean coalesce(PreparedMessage message) {
+        String key = message.coalesceKey();
+        if (null == key) {
+            return false;
+        }
+        ListIterator<PreparedMessage> itr = pending.listIterator();
+        while (itr.hasNext()) {
+            PreparedMessage queued = itr.next();
+            if (S.eq(key, queued.coalesceKey())) {
+                long bytes = queuedBytes - queued.length() + message.length();
+                if (maxBytes > 0 && bytes > maxBytes) {
+                    return false;
+                }
+                // replace the queued message in place to keep the order
+                itr.set(message);
+                queuedBytes = bytes;
+                drop(1);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean makeRoom(int length) {
+        if (maxBytes > 0 && length > maxBytes) {
+            return false;
+        }
+        while (!pending.isEmpty() && overflow(length)) {
+            PreparedMessage oldest = pending.poll();
+            queuedBytes -= oldest.length();
+            drop(1);
+        }
+        return true;
+    }
+
+    private void drop(int n) {
+        dropped += n;
+        if (metric instanceof BatchCounter) {
+            ((BatchCounter) metric).count("dropped", n);
+        } else {
+            for (int i = 0; i < n; ++i) {
+                metric.countOnce("dropped");
+            }
+        }
+    }
+}
@@ -20,6 +20,8 @@ package act.xio;
  * #L%
  */
 
+import java.util.concurrent.Executor;
+
 /**
  * An `NetworkDispatcher` can dispatch a network computation context to a worker thread
  */
@@ -41,4 +43,20 @@ public interface NetworkDispatcher {
      */
     void keep();
 
+    /**
+     * A `NetworkDispatcher` that is able to dispatch a job to a given
+     * executor, e.g. an executor running tasks on virtual threads.
+     *
+     * Dispatchers that do not implement this interface always dispatch
+     * to their own worker thread
+     */
+    interface ExecutorAware {
+        /**
+         * Dispatch handling request job to the executor specified
+         * @param job the request handling job
+         * @param executor the executor
+         */
+        void dispatch(NetworkJob job, Executor executor);
+    }
+
 }
@@ -49,6 +49,8 @@ import org.osgl.mvc.result.Result;
 import org.osgl.util.E;
 import org.osgl.util.S;
 
+import java.util.concurrent.Executor;
+
 /**
  * A `NetworkHandler` can be registered to an {@link Network} and get invoked when
  * there are network event (e.g. an HTTP request) incoming
@@ -182,7 +184,12 @@ public class NetworkHandler extends DestroyableBase {
             }
         };
         if (method.unsafe() || !requestHandler.express(ctx)) {
-            dispatcher.dispatch(job);
+            Executor executor = app.jobManager().virtualThreadExecutor();
+            if (null != executor && dispatcher instanceof NetworkDispatcher.ExecutorAware) {
+                ((NetworkDispatcher.ExecutorAware) dispatcher).dispatch(job, executor);
+            } else {
+                dispatcher.dispatch(job);
+            }
         } else {
             job.run();
         }
@@ -22,6 +22,11 @@ package act.xio;
 
 import act.Destroyable;
 import act.conf.AppConfig;
+import act.ws.PreparedMessage;
+import act.ws.WebSocketOutboundQueue;
+import org.osgl.util.E;
+
+import java.nio.ByteBuffer;
 
 /**
  * A WebSocket connection
@@ -61,4 +66,95 @@ public interface WebSocketConnection extends Destroyable {
      */
     boolean closed();
 
+    /**
+     * A connection that sends {@link PreparedMessage} directly.
+     *
+     * The implementation shall send the {@link PreparedMessage#payload() encoded payload}
+     * directly as text or binary frame depending on {@link PreparedMessage#isBinary()},
+     * so that a message broadcast to many connections get encoded only once
+     */
+    interface PreparedMessageSender {
+        /**
+         * Send a prepared message through websocket
+         * @param message the prepared message
+         */
+        void send(PreparedMessage message);
+    }
+
+    /**
+     * A connection that supports sending binary messages
+     */
+    interface BinarySender {
+        /**
+         * Send binary data through websocket
+         *
+         * Note the data array must not be changed after calling this method
+         *
+         * @param data the binary data
+         */
+        void sendBinary(byte[] data);
+    }
+
+    /**
+     * A connection that buffers outbound messages in a {@link WebSocketOutboundQueue}
+     */
+    interface Buffered {
+        /**
+         * Returns the outbound queue that buffers messages sent to this connection
+         * @return the outbound queue, or `null` if not available, e.g. a context
+         *         wrapping a connection that is not buffered
+         */
+        WebSocketOutboundQueue outboundQueue();
+    }
+
+    /**
+     * Send messages through connections that might or might not
+     * implement the optional interfaces
+     */
+    class Util {
+
+        /**
+         * Send a prepared message through the connection specified. If the connection
+         * is not a {@link PreparedMessageSender}, the message is sent with
+         * {@link WebSocketConnection#send(String)} or {@link #sendBinary(WebSocketConnection, byte[])}
+         *
+         * @param connection the connection
+         * @param message the prepared message
+         */
+        public static void send(WebSocketConnection connection, PreparedMessage message) {
+            if (connection instanceof PreparedMessageSender) {
+                ((PreparedMessageSender) connection).send(message);
+            } else if (message.isBinary()) {
+                ByteBuffer payload = message.payload();
+                byte[] data = new byte[payload.remaining()];
+                payload.get(data);
+                sendBinary(connection, data);
+            } else {
+                connection.send(message.text());
+            }
+        }
+
+        /**
+         * Send binary data through the connection specified
+         *
+         * @param connection the connection
+         * @param data the binary data
+         * @throws org.osgl.exception.UnsupportedException if the connection is not a {@link BinarySender}
+         */
+        public static void sendBinary(WebSocketConnection connection, byte[] data) {
+            E.unsupportedIf(!(connection instanceof BinarySender), "binary message not supported by connection: %s", connection);
+            ((BinarySender) connection).sendBinary(data);
+        }
+
+        /**
+         * Returns the outbound queue of the connection specified
+         *
+         * @param connection the connection
+         * @return the outbound queue or `null` if the connection does not buffer outbound messages
+         */
+        public static WebSocketOutboundQueue outboundQueue(WebSocketConnection connection) {
+            return connection instanceof Buffered ? ((Buffered) connection).outboundQueue() : null;
+        }
+    }
+
 }
@@ -26,12 +26,13 @@ import act.app.App;
 import act.controller.meta.ActionMethodMetaInfo;
 import act.controller.meta.ControllerClassMetaInfo;
 import act.controller.meta.HandlerParamMetaInfo;
+import act.handler.NonBlock;
 import act.handler.RequestHandlerBase;
 import act.inject.param.*;
 import act.sys.Env;
+import act.ws.PreparedMessage;
 import act.ws.WebSocketConnectionManager;
 import act.ws.WebSocketContext;
-import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONException;
 import com.esotericsoftware.reflectasm.MethodAccess;
 import org.osgl.$;
@@ -39,10 +40,10 @@ import org.osgl.inject.BeanSpec;
 import org.osgl.mvc.annotation.WsAction;
 import org.osgl.mvc.result.BadRequest;
 import org.osgl.util.E;
-import org.osgl.util.S;
 import org.osgl.util.StringValueResolver;
 
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Set;
 
@@ -63,12 +64,15 @@ public abstract class WebSocketConnectionHandler extends RequestHandlerBase {
     private JsonDTOClassManager jsonDTOClassManager;
     private int paramCount;
     private int fieldsAndParamsCount;
-    private String singleJsonFieldName;
+    private BeanSpec singleJsonField;
     private List<BeanSpec> paramSpecs;
     private Object host;
     private boolean isWsHandler;
     private Class[] paramTypes;
     private boolean isSingleParam;
+    // index of the `byte[]` or `ByteBuffer` typed parameter to receive binary message
+    private int binaryParamIndex = -1;
+    protected boolean nonBlock;
 
     // used to compose connection only websocket handler
     protected WebSocketConnectionHandler(WebSocketConnectionManager manager) {
@@ -100,6 +104,7 @@ public abstract class WebSocketConnectionHandler extends RequestHandlerBase {
         try {
             this.method = handlerClass.getMethod(methodInfo.name(), paramTypes);
             this.isWsHandler = null != this.method.getAnnotation(WsAction.class);
+            this.nonBlock = this.method.isAnnotationPresent(NonBlock.class);
             this.disabled = this.disabled || !Env.matches(method);
         } catch (NoSuchMethodException e) {
             throw E.unexpected(e);
@@ -120,10 +125,17 @@ public abstract class WebSocketConnectionHandler extends RequestHandlerBase {
         }
 
         paramCount = handler.paramCount();
+        for (int i = 0; i < paramCount; ++i) {
+            Class<?> paramType = paramTypes[i];
+            if (byte[].class == paramType || ByteBuffer.class == paramType) {
+                binaryParamIndex = i;
+                break;
+            }
+        }
         paramSpecs = jsonDTOClassManager.beanSpecs(handlerClass, method);
         fieldsAndParamsCount = paramSpecs.size();
         if (fieldsAndParamsCount == 1) {
-            singleJsonFieldName = paramSpecs.get(0).name();
+            singleJsonField = paramSpecs.get(0);
         }
 
         ParamValueLoader[] loaders = paramLoaderService.methodParamLoaders(host, method);
@@ -148,6 +160,18 @@ public abstract class WebSocketConnectionHandler extends RequestHandlerBase {
         return isWsHandler;
     }
 
+    /**
+     * Check if the websocket message shall be handled on the network IO thread
+     * directly.
+     *
+     * @return `true` if the handler method is annotated with {@link NonBlock},
+     *          there is no handler method or async dispatching is disabled
+     *          by configuration
+     */
+    protected boolean handleOnIoThread() {
+        return disabled || nonBlock || !connectionManager.app().config().wsDispatchAsync();
+    }
+
     @Override
     public void prepareAuthentication(ActionContext context) {
     }
@@ -169,6 +193,10 @@ public abstract class WebSocketConnectionHandler extends RequestHandlerBase {
         }
         if (retVal instanceof String) {
             context.sendToSelf((String) retVal);
+        } else if (retVal instanceof byte[]) {
+            context.sendBinaryToSelf((byte[]) retVal);
+        } else if (retVal instanceof ByteBuffer) {
+            context.send(PreparedMessage.ofBinary((ByteBuffer) retVal));
         } else {
             context.sendJsonToSelf(retVal);
         }
@@ -179,6 +207,13 @@ public abstract class WebSocketConnectionHandler extends RequestHandlerBase {
             return DUMP_PARAMS;
         }
         Object[] params = paramLoaderService.loadMethodParams(host, method, context);
+        if (context.isBinary()) {
+            if (binaryParamIndex > -1) {
+                byte[] data = context.binaryMessage();
+                params[binaryParamIndex] = byte[].class == paramTypes[binaryParamIndex] ? data : ByteBuffer.wrap(data);
+            }
+            return params;
+        }
         if (isSingleParam) {
             for (int i = 0; i < paramCount; ++i) {
                 if (null == params[i]) {
@@ -216,7 +251,8 @@ public abstract class WebSocketConnectionHandler extends RequestHandlerBase {
             return;
         }
         try {
-            JsonDTO dto = JSON.parseObject(patchedJsonBody(context), dtoClass);
+            BeanSpec singleField = 1 < fieldsAndParamsCount ? null : singleJsonField(context);
+            JsonDTO dto = JsonDTOParser.parse(context.stringMessage(), dtoClass, singleField);
             context.attribute(JsonDTO.CTX_ATTR_KEY, dto);
         } catch (JSONException e) {
             if (e.getCause() != null) {
@@ -228,64 +264,18 @@ public abstract class WebSocketConnectionHandler extends RequestHandlerBase {
         }
     }
 
-    /**
-     * Suppose method signature is: `public void foo(Foo foo)`, and a JSON content is
-     * not `{"foo": {foo-content}}`, then wrap it as `{"foo": body}`
-     */
-    private String patchedJsonBody(WebSocketContext context) {
-        String body = context.stringMessage();
-        if (S.blank(body) || 1 < fieldsAndParamsCount) {
-            return body;
-        }
-        String theName = singleJsonFieldName(context);
-        int theNameLen = theName.length();
-        if (null == theName) {
-            return body;
-        }
-        body = body.trim();
-        boolean needPatch = body.charAt(0) == '[';
-        if (!needPatch) {
-            if (body.charAt(0) != '{') {
-                throw new IllegalArgumentException("Cannot parse JSON string: " + body);
-            }
-            boolean startCheckName = false;
-            int nameStart = -1;
-            for (int i = 1; i < body.length(); ++i) {
-                char c = body.charAt(i);
-                if (c == ' ') {
-                    continue;
-                }
-                if (startCheckName) {
-                    if (c == '"') {
-                        break;
-                    }
-                    int id = i - nameStart - 1;
-                    if (id >= theNameLen || theName.charAt(i - nameStart - 1) != c) {
-                        needPatch = true;
-                        break;
-                    }
-                } else if (c == '"') {
-                    startCheckName = true;
-                    nameStart = i;
-                }
-            }
-        }
-        return needPatch ? S.fmt("{\"%s\": %s}", theName, body) : body;
-    }
-
-    private String singleJsonFieldName(WebSocketContext context) {
-        if (null != singleJsonFieldName) {
-            return singleJsonFieldName;
+    private BeanSpec singleJsonField(WebSocketContext context) {
+        if (null != singleJsonField) {
+            return singleJsonField;
         }
         Set<String> set = context.paramKeys();
         for (BeanSpec spec: paramSpecs) {
             String name = spec.name();
             if (!set.contains(name)) {
-                return name;
+                return spec;
             }
         }
         return null;
     }
 
-
 }
@@ -24,7 +24,9 @@ import act.xio.NetworkDispatcher;
 import act.xio.NetworkJob;
 import io.undertow.server.HttpServerExchange;
 
-class UndertowNetworkDispatcher implements NetworkDispatcher {
+import java.util.concurrent.Executor;
+
+class UndertowNetworkDispatcher implements NetworkDispatcher, NetworkDispatcher.ExecutorAware {
 
     final HttpServerExchange exchange;
     private boolean dispatched;
@@ -39,6 +41,12 @@ class UndertowNetworkDispatcher implements NetworkDispatcher {
         this.dispatched = true;
     }
 
+    @Override
+    public void dispatch(NetworkJob job, Executor executor) {
+        exchange.dispatch(executor, job);
+        this.dispatched = true;
+    }
+
     @Override
     public void keep() {
         if (!this.dispatched) {
@@ -21,8 +21,12 @@ package act.xio.undertow;
  */
 
 import act.Act;
+import act.conf.AppConfig;
 import act.util.DestroyableBase;
+import act.ws.PreparedMessage;
+import act.ws.WebSocketOutboundQueue;
 import act.xio.WebSocketConnection;
+import io.undertow.websockets.core.WebSocketCallback;
 import io.undertow.websockets.core.WebSocketChannel;
 import io.undertow.websockets.core.WebSockets;
 import org.osgl.$;
@@ -30,16 +34,22 @@ import org.osgl.http.H;
 
 import java.io.IOException;
 
-public class UndertowWebSocketConnection extends DestroyableBase implements WebSocketConnection {
+public class UndertowWebSocketConnection extends DestroyableBase implements WebSocketConnection,
+        WebSocketConnection.PreparedMessageSender, WebSocketConnection.BinarySender, WebSocketConnection.Buffered {
 
     private final WebSocketChannel channel;
     private final String sessionId;
     private final String username;
+    private final WebSocketOutboundQueue outboundQueue;
 
     public UndertowWebSocketConnection(WebSocketChannel channel, H.Session session) {
         this.channel = $.notNull(channel);
         this.sessionId = session.id();
-        this.username = session.get(Act.appConfig().sessionKeyUsername());
+        AppConfig config = Act.appConfig();
+        this.username = session.get(config.sessionKeyUsername());
+        this.outboundQueue = new WebSocketOutboundQueue(new ChannelTransport(),
+                config.wsOutboundMaxMessages(), config.wsOutboundMaxBytes(),
+                config.wsOutboundOverflowPolicy(), Act.metricPlugin().metric("act.ws.outbound"));
     }
 
     @Override
@@ -54,11 +64,27 @@ public class UndertowWebSocketConnection extends DestroyableBase implements WebS
 
     @Override
     public void send(String message) {
-        WebSockets.sendText(message, channel, null);
+        outboundQueue.offer(PreparedMessage.of(message));
+    }
+
+    @Override
+    public void sendBinary(byte[] data) {
+        outboundQueue.offer(PreparedMessage.ofBinary(data));
+    }
+
+    @Override
+    public void send(PreparedMessage message) {
+        outboundQueue.offer(message);
+    }
+
+    @Override
+    public WebSocketOutboundQueue outboundQueue() {
+        return outboundQueue;
     }
 
     @Override
     protected void releaseResources() {
+        outboundQueue.close();
         try {
             channel.sendClose();
         } catch (IOException e) {
@@ -75,4 +101,30 @@ public class UndertowWebSocketConnection extends DestroyableBase implements WebS
     public boolean closed() {
         return isDestroyed();
     }
+
+    private class ChannelTransport implements WebSocketOutboundQueue.Transport, WebSocketCallback<Void> {
+        @Override
+        public void write(PreparedMessage message) {
+            if (message.isBinary()) {
+                WebSockets.sendBinary(message.payload(), channel, this);
+            } else {
+                WebSockets.sendText(message.payload(), channel, this);
+            }
+        }
+
+        @Override
+        public void disconnect() {
+            destroy();
+        }
+
+        @Override
+        public void complete(WebSocketChannel channel, Void context) {
+            outboundQueue.writeComplete();
+        }
+
+        @Override
+        public void onError(WebSocketChannel channel, Void context, Throwable throwable) {
+            outboundQueue.writeFailed(throwable);
+        }
+    }
 }
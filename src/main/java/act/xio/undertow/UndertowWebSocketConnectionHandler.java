@@ -22,24 +22,27 @@ package act.xio.undertow;
 
 import act.Act;
 import act.app.ActionContext;
+import act.conf.AppConfig;
 import act.controller.meta.ActionMethodMetaInfo;
 import act.view.ActErrorResult;
 import act.ws.WebSocketCloseEvent;
 import act.ws.WebSocketConnectEvent;
 import act.ws.WebSocketConnectionManager;
 import act.ws.WebSocketContext;
+import act.ws.WebSocketMessageQueue;
 import act.xio.WebSocketConnection;
 import act.xio.WebSocketConnectionHandler;
 import io.undertow.Handlers;
 import io.undertow.server.HttpServerExchange;
 import io.undertow.websockets.WebSocketConnectionCallback;
-import io.undertow.websockets.core.AbstractReceiveListener;
-import io.undertow.websockets.core.BufferedTextMessage;
-import io.undertow.websockets.core.StreamSourceFrameChannel;
-import io.undertow.websockets.core.WebSocketChannel;
+import io.undertow.websockets.WebSocketProtocolHandshakeHandler;
+import io.undertow.websockets.core.*;
+import io.undertow.websockets.extensions.PerMessageDeflateHandshake;
 import io.undertow.websockets.spi.WebSocketHttpExchange;
+import org.xnio.Pooled;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 class UndertowWebSocketConnectionHandler extends WebSocketConnectionHandler {
 
@@ -59,7 +62,7 @@ class UndertowWebSocketConnectionHandler extends WebSocketConnectionHandler {
         final UndertowRequest req = (UndertowRequest) context.req();
         HttpServerExchange exchange = req.exchange();
         try {
-            Handlers.websocket(new WebSocketConnectionCallback() {
+            WebSocketProtocolHandshakeHandler handshakeHandler = Handlers.websocket(new WebSocketConnectionCallback() {
                 @Override
                 public void onConnect(WebSocketHttpExchange exchange, WebSocketChannel channel) {
                     final WebSocketConnection connection = new UndertowWebSocketConnection(channel, context.session());
@@ -69,16 +72,42 @@ class UndertowWebSocketConnectionHandler extends WebSocketConnectionHandler {
                     if (logger.isTraceEnabled()) {
                         logger.trace("websocket context[%s] created for %s", connection.sessionId(), context.req().url());
                     }
+                    final WebSocketMessageQueue queue = handleOnIoThread() ? null : messageQueue(channel);
                     channel.getReceiveSetter().set(new AbstractReceiveListener() {
                         @Override
                         protected void onFullTextMessage(WebSocketChannel channel, BufferedTextMessage message) throws IOException {
-                            WebSocketContext.current(wsCtx);
-                            String payload = message.getData();
+                            final String payload = message.getData();
                             if (logger.isTraceEnabled()) {
                                 logger.trace("websocket message received: %s", payload);
                             }
-                            wsCtx.messageReceived(payload);
-                            invoke(wsCtx);
+                            if (null == queue) {
+                                handleMessage(wsCtx, payload);
+                            } else {
+                                queue.dispatch(new Runnable() {
+                                    @Override
+                                    public void run() {
+                                        handleMessage(wsCtx, payload);
+                                    }
+                                });
+                            }
+                        }
+
+                        @Override
+                        protected void onFullBinaryMessage(WebSocketChannel channel, BufferedBinaryMessage message) throws IOException {
+                            final byte[] payload = bytesOf(message);
+                            if (logger.isTraceEnabled()) {
+                                logger.trace("websocket binary message received: %s bytes", payload.length);
+                            }
+                            if (null == queue) {
+                                handleMessage(wsCtx, payload);
+                            } else {
+                                queue.dispatch(new Runnable() {
+                                    @Override
+                                    public void run() {
+                                        handleMessage(wsCtx, payload);
+                                    }
+                                });
+                            }
                         }
 
                         @Override
@@ -88,19 +117,78 @@ class UndertowWebSocketConnectionHandler extends WebSocketConnectionHandler {
                             }
                             WebSocketContext.current(wsCtx);
                             super.onClose(webSocketChannel, channel);
-                            connection.destroy();
-                            context.app().eventBus().trigger(new WebSocketCloseEvent(wsCtx));
+                            if (null == queue) {
+                                handleClose(wsCtx, connection);
+                            } else {
+                                // make sure close event is triggered after pending messages handled
+                                queue.dispatch(new Runnable() {
+                                    @Override
+                                    public void run() {
+                                        WebSocketContext.current(wsCtx);
+                                        handleClose(wsCtx, connection);
+                                    }
+                                });
+                            }
                         }
                     });
                     channel.resumeReceives();
                     Act.eventBus().trigger(new WebSocketConnectEvent(wsCtx));
                 }
 
-            }).handleRequest(exchange);
+            });
+            AppConfig config = connectionManager.app().config();
+            if (config.wsCompressionEnabled()) {
+                handshakeHandler.addExtension(new PerMessageDeflateHandshake(false, config.wsCompressionLevel()));
+            }
+            handshakeHandler.handleRequest(exchange);
         } catch (RuntimeException e) {
             throw e;
         } catch (Exception e) {
             throw ActErrorResult.of(e);
         }
     }
+
+    private void handleMessage(WebSocketContext wsCtx, String payload) {
+        WebSocketContext.current(wsCtx);
+        wsCtx.messageReceived(payload);
+        invoke(wsCtx);
+    }
+
+    private void handleMessage(WebSocketContext wsCtx, byte[] payload) {
+        WebSocketContext.current(wsCtx);
+        wsCtx.messageReceived(payload);
+        invoke(wsCtx);
+    }
+
+    private static byte[] bytesOf(BufferedBinaryMessage message) {
+        Pooled<ByteBuffer[]> data = message.getData();
+        try {
+            ByteBuffer buffer = WebSockets.mergeBuffers(data.getResource());
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return bytes;
+        } finally {
+            data.free();
+        }
+    }
+
+    private void handleClose(WebSocketContext wsCtx, WebSocketConnection connection) {
+        connection.destroy();
+        wsCtx.app().eventBus().trigger(new WebSocketCloseEvent(wsCtx));
+    }
+
+    private WebSocketMessageQueue messageQueue(final WebSocketChannel channel) {
+        int inFlightMax = connectionManager.app().config().wsDispatchInFlightMax();
+        return new WebSocketMessageQueue(channel.getWorker(), inFlightMax, new WebSocketMessageQueue.FlowControl() {
+            @Override
+            public void suspend() {
+                channel.suspendReceives();
+            }
+
+            @Override
+            public void resume() {
+                channel.resumeReceives();
+            }
+        });
+    }
 }
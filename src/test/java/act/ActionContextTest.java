@@ -21,6 +21,7 @@ package act;
  */
 
 import act.app.ActionContext;
+import act.inject.genie.RequestScope;
 import org.junit.Before;
 import org.junit.Test;
 import org.osgl.http.H;
@@ -99,4 +100,36 @@ public class ActionContextTest extends ActTestBase {
         eq("BAR", ctx.paramVal("foo"));
         eq(1, ctx.paramVals("foo").length);
     }
+    @Test
+    public void requestScopeSlotShallBeStable() {
+        int foo = RequestScope.slot("requestScopeSlotTest.foo");
+        int bar = RequestScope.slot("requestScopeSlotTest.bar");
+        no(foo == bar);
+        eq(foo, RequestScope.slot("requestScopeSlotTest.foo"));
+    }
+
+    @Test
+    public void storeRequestScopedObjectBySlot() {
+        isNull(ctx.requestScoped(0));
+        ctx.requestScoped(2, "foo");
+        eq("foo", ctx.requestScoped(2));
+        // slot beyond the initial capacity
+        ctx.requestScoped(100, "bar");
+        eq("bar", ctx.requestScoped(100));
+        eq("foo", ctx.requestScoped(2));
+        isNull(ctx.requestScoped(1000));
+    }
+
+    @Test
+    public void requestScopeShallStoreObjectInCurrentContext() {
+        ctx.saveLocal();
+        try {
+            RequestScope.INSTANCE.put("requestScopeTest.foo", "FOO");
+            eq("FOO", RequestScope.INSTANCE.get("requestScopeTest.foo"));
+            eq("FOO", ctx.requestScoped(RequestScope.slot("requestScopeTest.foo")));
+        } finally {
+            ActionContext.clearCurrent();
+        }
+    }
+
 }
@@ -0,0 +1,158 @@
+package act.app;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.util.IO;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.*;
+
+public class CompilationCacheTest extends ActTestBase {
+
+    private File root;
+    private CompilationCache cache;
+
+    @Before
+    public void prepare() throws Exception {
+        root = Files.createTempDirectory("act-cc").toFile();
+        cache = new CompilationCache();
+        write("A", "class A { int x = B.X; }");
+        write("B", "class B { static final int X = 1; }");
+        write("C", "class C {}");
+        for (Source source : load().values()) {
+            source.compiled(new byte[]{0});
+            cache.put(source);
+        }
+    }
+
+    @Test
+    public void itShallRestoreUnchangedSources() throws Exception {
+        Map<String, Source> sources = load();
+        yes(cache.restore(sources).isEmpty());
+        for (Source source : sources.values()) {
+            notNull(source.bytes());
+        }
+    }
+
+    @Test
+    public void itShallRecompileChangedSourcesAndDependents() throws Exception {
+        write("B", "class B { static final int X = 2; }");
+        Map<String, Source> sources = load();
+        Set<String> names = new HashSet<>();
+        for (Source source : cache.restore(sources)) {
+            names.add(source.className());
+        }
+        eq(new HashSet<>(Arrays.asList("A", "B")), names);
+        notNull(sources.get("C").bytes());
+        isNull(sources.get("A").bytes());
+    }
+
+    @Test
+    public void itShallRecompileTransitiveDependents() throws Exception {
+        write("A", "class A { static final int Y = B.X; }");
+        write("D", "class D { int z = A.Y; }");
+        for (Source source : load().values()) {
+            source.compiled(new byte[]{0});
+            cache.put(source);
+        }
+        write("B", "class B { static final int X = 2; }");
+        Map<String, Source> sources = load();
+        Set<String> names = new HashSet<>();
+        for (Source source : cache.restore(sources)) {
+            names.add(source.className());
+        }
+        eq(new HashSet<>(Arrays.asList("A", "B", "D")), names);
+        notNull(sources.get("C").bytes());
+    }
+
+    @Test
+    public void itShallRecompileAllSourcesAfterClear() throws Exception {
+        cache.clear();
+        eq(3, cache.restore(load()).size());
+    }
+
+    @Test
+    public void itShallReuseBytecodePersistedByPreviousRun() throws Exception {
+        File dir = Files.createTempDirectory("act-cc-bytecode").toFile();
+        CompilationCache persistent = new CompilationCache(dir, "cp");
+        for (Source source : load().values()) {
+            source.compiled(new byte[]{0});
+            persistent.put(source);
+        }
+        write("C", "class C { int y; }");
+        Map<String, Source> sources = load();
+        List<Source> toBeCompiled = new CompilationCache(dir, "cp").restore(sources);
+        eq(1, toBeCompiled.size());
+        eq("C", toBeCompiled.get(0).className());
+        eq(1, sources.get("A").bytes().length);
+    }
+
+    @Test
+    public void itShallDiscardPersistedBytecodeWhenClasspathChanged() throws Exception {
+        File dir = Files.createTempDirectory("act-cc-bytecode").toFile();
+        CompilationCache persistent = new CompilationCache(dir, "cp");
+        for (Source source : load().values()) {
+            source.compiled(new byte[]{0});
+            persistent.put(source);
+        }
+        eq(3, new CompilationCache(dir, "cp2").restore(load()).size());
+    }
+
+    @Test
+    public void itShallChangeFingerprintWhenJarChanged() throws Exception {
+        File jar = File.createTempFile("act-cc", ".jar");
+        IO.writeContent("a", jar);
+        List<File> jars = Arrays.asList(jar);
+        String fingerprint = CompilationCache.fingerprint(jars);
+        eq(fingerprint, CompilationCache.fingerprint(jars));
+        IO.writeContent("ab", jar);
+        no(fingerprint.equals(CompilationCache.fingerprint(jars)));
+    }
+
+    @Test
+    public void itShallCollectReferencedClassesFromBytecode() throws Exception {
+        InputStream is = getClass().getResourceAsStream("/act/app/CompilationCache.class");
+        Set<String> references = new HashSet<>();
+        CompilationCache.collectReferences(IO.readContent(is), references);
+        yes(references.contains("act.util.LogSupport"));
+        yes(references.contains("act.app.Source"));
+        no(references.contains("java.lang.String"));
+    }
+
+    private void write(String className, String code) {
+        IO.writeContent(code, new File(root, className + ".java"));
+    }
+
+    private Map<String, Source> load() {
+        Map<String, Source> sources = new HashMap<>();
+        for (File file : root.listFiles()) {
+            Source source = Source.ofFile(root, file);
+            sources.put(source.className(), source);
+        }
+        return sources;
+    }
+
+}
@@ -0,0 +1,72 @@
+package act.app.util;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.BenchmarkBase;
+import act.conf.AppConfig;
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.util.Charsets;
+import org.osgl.util.Crypto;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compare the per request crypto cost, i.e. sign and encrypt/decrypt
+ * a session cookie, of {@link AppCrypto} with {@link Crypto}
+ */
+@BenchmarkOptions(warmupRounds = 5, benchmarkRounds = 20)
+public class AppCryptoBenchmark extends BenchmarkBase {
+
+    private static final int LOOPS = 10000;
+    private static final String SECRET = "secret";
+    private static final String SESSION = "___ts\u00011500000000000\u0000___id\u0001e6b5d5c5-6f0e-4d4e-9c5a\u0000username\u0001tom@abc.com";
+
+    private AppCrypto crypto;
+    private byte[] secret;
+
+    @Before
+    public void prepare() {
+        AppConfig config = mock(AppConfig.class);
+        when(config.secret()).thenReturn(SECRET);
+        crypto = new AppCrypto(config);
+        secret = SECRET.getBytes(Charsets.UTF_8);
+    }
+
+    @Test
+    public void osglCrypto() {
+        for (int i = 0; i < LOOPS; ++i) {
+            String data = Crypto.encryptAES(Crypto.sign(SESSION, secret) + "-" + SESSION, secret);
+            Crypto.sign(Crypto.decryptAES(data, secret), secret);
+        }
+    }
+
+    @Test
+    public void appCrypto() {
+        for (int i = 0; i < LOOPS; ++i) {
+            String data = crypto.encrypt(crypto.sign(SESSION) + "-" + SESSION);
+            crypto.sign(crypto.decrypt(data));
+        }
+    }
+
+}
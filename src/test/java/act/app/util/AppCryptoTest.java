@@ -0,0 +1,103 @@
+package act.app.util;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import act.conf.AppConfig;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.$;
+import org.osgl.util.Charsets;
+import org.osgl.util.Crypto;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AppCryptoTest extends ActTestBase {
+
+    private static final String SECRET = "secret";
+    private static final String MESSAGE = "foo\u0001bar\u0000中文";
+
+    private AppCrypto crypto;
+
+    @Before
+    public void prepare() {
+        AppConfig config = mock(AppConfig.class);
+        when(config.secret()).thenReturn(SECRET);
+        crypto = new AppCrypto(config);
+    }
+
+    @Test
+    public void signShallBeCompatibleWithOsglCrypto() {
+        eq(Crypto.sign(MESSAGE, bytes(SECRET)), crypto.sign(MESSAGE));
+        eq(crypto.sign(MESSAGE), crypto.sign(MESSAGE));
+    }
+
+    @Test
+    public void encryptShallBeCompatibleWithOsglCrypto() {
+        // Crypto.decryptAES decode bytes with platform charset
+        String ascii = "foo\u0001bar";
+        eq(ascii, Crypto.decryptAES(crypto.encrypt(ascii), bytes(SECRET)));
+        eq(MESSAGE, crypto.decrypt(Crypto.encryptAES(MESSAGE, bytes(SECRET))));
+        eq(MESSAGE, crypto.decrypt(crypto.encrypt(MESSAGE)));
+    }
+
+    @Test
+    public void byteArrayApisShallRoundTrip() {
+        byte[] message = bytes(MESSAGE);
+        eq(message, crypto.decrypt(crypto.encrypt(message)));
+        eq(20, crypto.sign(message).length);
+    }
+
+    @Test
+    public void verifyPasswordAsyncShallUpgradeHashCost() throws Exception {
+        AppConfig config = mock(AppConfig.class);
+        when(config.secret()).thenReturn(SECRET);
+        when(config.passwordHashCost()).thenReturn(4);
+        String hash = new AppCrypto(config).passwordHash("password");
+        when(config.passwordHashCost()).thenReturn(5);
+        when(config.passwordHashPoolSize()).thenReturn(1);
+        when(config.passwordHashQueueSize()).thenReturn(10);
+        AppCrypto crypto = new AppCrypto(config);
+        yes(crypto.needsRehash(hash));
+        final AtomicReference<String> newHash = new AtomicReference<>();
+        $.Visitor<String> rehashHandler = new $.Visitor<String>() {
+            @Override
+            public void visit(String s) {
+                newHash.set(s);
+            }
+        };
+        no(crypto.verifyPasswordAsync("wrong".toCharArray(), hash, rehashHandler).get());
+        isNull(newHash.get());
+        yes(crypto.verifyPasswordAsync("password".toCharArray(), hash, rehashHandler).get());
+        yes(newHash.get().startsWith("$2a$05$"));
+        no(crypto.needsRehash(newHash.get()));
+        yes(crypto.verifyPassword("password", newHash.get()));
+        crypto.destroy();
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(Charsets.UTF_8);
+    }
+
+}
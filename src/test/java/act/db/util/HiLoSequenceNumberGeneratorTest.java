@@ -0,0 +1,91 @@
+package act.db.util;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+
+public class HiLoSequenceNumberGeneratorTest extends ActTestBase {
+
+    private static final Executor SYNC = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    @Test
+    public void itShallServeNumbersInSequence() {
+        _SequenceNumberGenerator.InMemorySequenceNumberGenerator delegate = new _SequenceNumberGenerator.InMemorySequenceNumberGenerator();
+        HiLoSequenceNumberGenerator gen = new HiLoSequenceNumberGenerator(delegate, 10, null);
+        for (long l = 0; l < 25; ++l) {
+            eq(l, gen.next("foo"));
+        }
+        eq(25L, gen.get("foo"));
+        eq(30L, delegate.get("foo"));
+        eq(3L, gen.windows().get(0).getAllocations());
+    }
+
+    @Test
+    public void itShallPrefetchNextBlock() {
+        _SequenceNumberGenerator.InMemorySequenceNumberGenerator delegate = new _SequenceNumberGenerator.InMemorySequenceNumberGenerator();
+        HiLoSequenceNumberGenerator gen = new HiLoSequenceNumberGenerator(delegate, 8, SYNC);
+        for (long l = 0; l < 7; ++l) {
+            eq(l, gen.next("foo"));
+        }
+        HiLoSequenceNumberGenerator.Window window = gen.windows().get(0);
+        yes(window.isPrefetched());
+        eq(2L, window.getAllocations());
+        for (long l = 7; l < 10; ++l) {
+            eq(l, gen.next("foo"));
+        }
+        no(window.isPrefetched());
+        eq(2L, window.getAllocations());
+    }
+
+    @Test
+    public void itShallNotServeDuplicateNumbersConcurrently() throws Exception {
+        final HiLoSequenceNumberGenerator gen = new HiLoSequenceNumberGenerator(new _SequenceNumberGenerator.InMemorySequenceNumberGenerator(), 16, SYNC);
+        final Set<Long> numbers = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+        final int threads = 8, perThread = 1000;
+        final CountDownLatch latch = new CountDownLatch(threads);
+        for (int i = 0; i < threads; ++i) {
+            new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < perThread; ++j) {
+                        numbers.add(gen.next("foo"));
+                    }
+                    latch.countDown();
+                }
+            }.start();
+        }
+        latch.await();
+        eq(threads * perThread, numbers.size());
+    }
+
+}
@@ -0,0 +1,142 @@
+package act.i18n;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import act.app.App;
+import act.app.TestingAppClassLoader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+import static org.mockito.Mockito.when;
+
+public class I18nTest extends ActTestBase {
+
+    private File dir;
+    private BundleClassLoader classLoader;
+
+    @Before
+    public void prepare() throws Exception {
+        setup();
+        I18n.clearCache();
+        dir = bundleDir("hello=Hello\ngreet=Hello {0}, you have {1} new messages\nname=Tom\n");
+        classLoader = new BundleClassLoader(mockApp, dir);
+        when(mockApp.classLoader()).thenReturn(classLoader);
+    }
+
+    @After
+    public void cleanup() {
+        I18n.clearCache();
+    }
+
+    @Test
+    public void itShallResolveMessageWithoutArguments() {
+        eq("Hello", i18n("hello"));
+        eq("Hello", i18n("hello"));
+    }
+
+    @Test
+    public void itShallReturnMessageIdIfNotFound() {
+        eq("nothing", i18n("nothing"));
+    }
+
+    @Test
+    public void itShallFormatMessageWithArguments() {
+        eq("Hello Tom, you have 3 new messages", i18n("greet", "name", 3));
+        eq("Hello Bob, you have 5 new messages", i18n("greet", "Bob", 5));
+    }
+
+    @Test
+    public void itShallReplaceCacheWhenClassLoaderChanged() throws Exception {
+        eq("Hello", i18n("hello"));
+        BundleClassLoader refreshed = new BundleClassLoader(mockApp, bundleDir("hello=Hi\n"));
+        when(mockApp.classLoader()).thenReturn(refreshed);
+        eq("Hi", i18n("hello"));
+    }
+
+    @Test
+    public void itShallReloadMessagesAfterClearCache() throws Exception {
+        eq("Hello", i18n("hello"));
+        write(dir, "hello=Hi\n");
+        ResourceBundle.clearCache(classLoader);
+        eq("Hello", i18n("hello"));
+        I18n.clearCache();
+        eq("Hi", i18n("hello"));
+    }
+
+    private static String i18n(String msgId, Object... args) {
+        return I18n.i18n(Locale.ROOT, TestBundle.class, msgId, args);
+    }
+
+    private static File bundleDir(String content) throws IOException {
+        File dir = Files.createTempDirectory("i18n").toFile();
+        dir.deleteOnExit();
+        write(dir, content);
+        return dir;
+    }
+
+    private static void write(File dir, String content) throws IOException {
+        File file = new File(dir, TestBundle.class.getName().replace('.', '/') + ".properties");
+        file.getParentFile().mkdirs();
+        file.deleteOnExit();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Specify the bundle name. The bundle content is served from a temporary
+     * directory by {@link BundleClassLoader}
+     */
+    private static class TestBundle {
+    }
+
+    private static class BundleClassLoader extends TestingAppClassLoader {
+        private final File dir;
+
+        BundleClassLoader(App app, File dir) {
+            super(app);
+            this.dir = dir;
+        }
+
+        @Override
+        public URL getResource(String name) {
+            File file = new File(dir, name);
+            if (file.exists()) {
+                try {
+                    return file.toURI().toURL();
+                } catch (MalformedURLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return super.getResource(name);
+        }
+    }
+
+}
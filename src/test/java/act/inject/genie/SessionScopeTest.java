@@ -0,0 +1,87 @@
+package act.inject.genie;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.cache.CacheService;
+import org.osgl.cache.CacheServiceProvider;
+import org.osgl.http.H;
+import org.osgl.http.HttpConfig;
+
+/**
+ * Test {@link SessionScope.RequestView}
+ */
+public class SessionScopeTest extends ActTestBase {
+
+    private static final int TTL = 600;
+
+    H.Session session;
+
+    @Before
+    public void prepare() {
+        CacheService cache = CacheServiceProvider.Impl.Simple.get("session-scope-test");
+        cache.startup();
+        HttpConfig.setSessionCache(cache);
+        session = new H.Session();
+    }
+
+    @Test
+    public void itShallReadSessionCacheOncePerRequest() {
+        new SessionScope.RequestView(session).put("foo", "bar", TTL);
+        SessionScope.RequestView view = new SessionScope.RequestView(session);
+        eq("bar", view.get("foo", 0));
+        session.cache("foo", "baz", TTL);
+        eq("bar", view.get("foo", 0));
+    }
+
+    @Test
+    public void itShallNotWriteBackObjectReadInTheSameRequest() {
+        new SessionScope.RequestView(session).put("foo", "bar", TTL);
+        SessionScope.RequestView view = new SessionScope.RequestView(session);
+        Object bar = view.get("foo", 0);
+        session.cache("foo", "baz", TTL);
+        view.put("foo", bar, TTL);
+        view.touch(TTL);
+        eq("baz", session.cached("foo"));
+    }
+
+    @Test
+    public void itShallTouchObjectAboutToExpire() {
+        new SessionScope.RequestView(session).put("foo", "bar", TTL);
+        Object entry = session.cached("foo");
+
+        // remaining TTL above threshold
+        SessionScope.RequestView view = new SessionScope.RequestView(session);
+        view.get("foo", 1000L);
+        view.touch(TTL);
+        same(entry, session.cached("foo"));
+
+        // remaining TTL below threshold
+        view = new SessionScope.RequestView(session);
+        eq("bar", view.get("foo", TTL * 2 * 1000L));
+        view.touch(TTL);
+        no(entry == session.cached("foo"));
+        eq("bar", new SessionScope.RequestView(session).get("foo", 0));
+    }
+
+}
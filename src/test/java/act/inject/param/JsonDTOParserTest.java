@@ -0,0 +1,149 @@
+package act.inject.param;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import com.alibaba.fastjson.JSON;
+import org.junit.Test;
+import org.osgl.inject.BeanSpec;
+import org.osgl.util.S;
+
+import java.lang.annotation.Annotation;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+
+public class JsonDTOParserTest extends ActTestBase {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    public static class ListDTO extends JsonDTO {
+        public void setFoo(List<String> foo) {
+            set("foo", foo);
+        }
+    }
+
+    public static class StringDTO extends JsonDTO {
+        public void setName(String name) {
+            set("name", name);
+        }
+    }
+
+    @Test
+    public void itShallWrapBareArray() throws Exception {
+        verifyList("[\"a\", \"b\"]", "a", "b");
+    }
+
+    @Test
+    public void itShallNotWrapObjectKeyedByTheField() throws Exception {
+        verifyList("{\"foo\": [\"a\"]}", "a");
+    }
+
+    @Test
+    public void itShallSkipLeadingWhitespace() throws Exception {
+        verifyList("\n\t  [\"a\"]", "a");
+        verifyList("\r\n {\"foo\": [\"a\"]}", "a");
+    }
+
+    @Test
+    public void itShallSkipByteOrderMark() throws Exception {
+        eq(Arrays.asList("a"), parse("\uFEFF[\"a\"]", ListDTO.class, "foo").get("foo"));
+        eq(Arrays.asList("a"), parse("\uFEFF {\"foo\": [\"a\"]}", ListDTO.class, "foo").get("foo"));
+    }
+
+    @Test
+    public void itShallWrapBareValue() throws Exception {
+        eq("abc", parse("\"abc\"", StringDTO.class, "name").get("name"));
+    }
+
+    @Test
+    public void itShallReturnNullOnEmptyBody() throws Exception {
+        isNull(parse("", ListDTO.class, "foo"));
+        isNull(parse("  \n", ListDTO.class, "foo"));
+        isNull(legacyParse("", ListDTO.class, "foo"));
+    }
+
+    private void verifyList(String body, String... expected) throws Exception {
+        List<String> list = Arrays.asList(expected);
+        eq(list, parse(body, ListDTO.class, "foo").get("foo"));
+        // the String based path and the previous body patching approach shall agree
+        eq(list, JsonDTOParser.parse(body, ListDTO.class, spec(ListDTO.class, "foo")).get("foo"));
+        eq(list, legacyParse(body, ListDTO.class, "foo").get("foo"));
+    }
+
+    private static JsonDTO parse(String body, Class<? extends JsonDTO> dtoClass, String name) throws Exception {
+        JsonDTO bytesParsed = JsonDTOParser.parse(body.getBytes(UTF_8), UTF_8, dtoClass, spec(dtoClass, name));
+        JsonDTO stringParsed = JsonDTOParser.parse(body, dtoClass, spec(dtoClass, name));
+        if (null == bytesParsed) {
+            isNull(stringParsed);
+        } else {
+            eq(bytesParsed.get(name), stringParsed.get(name));
+        }
+        return bytesParsed;
+    }
+
+    private static BeanSpec spec(Class<? extends JsonDTO> dtoClass, String name) throws Exception {
+        String setter = "set" + S.capFirst(name);
+        for (java.lang.reflect.Method method : dtoClass.getMethods()) {
+            if (method.getName().equals(setter)) {
+                return BeanSpec.of(method.getGenericParameterTypes()[0], new Annotation[0], name, null);
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    // The body patching logic replaced by JsonDTOParser
+    private static JsonDTO legacyParse(String body, Class<? extends JsonDTO> dtoClass, String theName) {
+        if (S.blank(body)) {
+            return JSON.parseObject(body, dtoClass);
+        }
+        body = body.trim();
+        boolean needPatch = body.charAt(0) == '[';
+        if (!needPatch) {
+            if (body.charAt(0) != '{') {
+                throw new IllegalArgumentException("Cannot parse JSON string: " + body);
+            }
+            boolean startCheckName = false;
+            int nameStart = -1;
+            for (int i = 1; i < body.length(); ++i) {
+                char c = body.charAt(i);
+                if (c == ' ') {
+                    continue;
+                }
+                if (startCheckName) {
+                    if (c == '"') {
+                        break;
+                    }
+                    int id = i - nameStart - 1;
+                    if (id >= theName.length() || theName.charAt(i - nameStart - 1) != c) {
+                        needPatch = true;
+                        break;
+                    }
+                } else if (c == '"') {
+                    startCheckName = true;
+                    nameStart = i;
+                }
+            }
+        }
+        return JSON.parseObject(needPatch ? S.fmt("{\"%s\": %s}", theName, body) : body, dtoClass);
+    }
+
+}
@@ -0,0 +1,75 @@
+package act.inject.param;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import act.util.ActContext;
+import org.junit.Test;
+import org.osgl.util.C;
+
+import static org.mockito.Mockito.*;
+
+public class ParamTreeTest extends ActTestBase {
+
+    @Test
+    public void itShallOnlyMaterializeDemandedRoots() {
+        ActContext<?> context = mock(ActContext.class);
+        when(context.paramKeys()).thenReturn(C.set("user.name", "user[tags][0]", "other.x"));
+        when(context.paramVals("user.name")).thenReturn(new String[]{"tom"});
+        when(context.paramVals("user[tags][0]")).thenReturn(new String[]{"a"});
+        ParamTree tree = new ParamTree();
+        tree.build(context);
+
+        ParamTreeNode user = tree.node(ParamKey.of("user"));
+        yes(user.isMap());
+        eq("tom", user.child("name").value());
+        yes(user.child("tags").isMap());
+        eq("a", tree.node(ParamKey.of(new String[]{"user", "tags", "0"})).value());
+        verify(context, never()).paramVals("other.x");
+    }
+
+    @Test
+    public void parsedKeysShallBeCached() {
+        ParamKey key = ParamTree.paramKey("foo.bar[0][id]");
+        eq(ParamKey.of(new String[]{"foo", "bar", "0", "id"}), key);
+        same(key, ParamTree.paramKey("foo.bar[0][id]"));
+    }
+
+    @Test
+    public void rootNameShallMatchParsedKey() {
+        for (String rawKey : new String[]{"foo", "foo.bar", "foo[0.05]", "foo[bar].id", "[foo][bar]", ".foo"}) {
+            eq(ParamTree.paramKey(rawKey).seq()[0], ParamTree.rootName(rawKey));
+        }
+    }
+
+    @Test
+    public void undemandedKeysShallNotBeParsed() {
+        ActContext<?> context = mock(ActContext.class);
+        when(context.paramKeys()).thenReturn(C.set("user.name", "random[key]"));
+        when(context.paramVals("user.name")).thenReturn(new String[]{"tom"});
+        ParamTree tree = new ParamTree();
+        tree.build(context);
+        eq("tom", tree.node(ParamKey.of("user")).child("name").value());
+        yes(ParamTree.keyCache.containsKey("user.name"));
+        no(ParamTree.keyCache.containsKey("random[key]"));
+    }
+
+}
@@ -0,0 +1,75 @@
+package act.inject.param;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import act.validation.Email;
+import act.validation.NotBlank;
+import org.junit.Test;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+public class ParamValidatorTest extends ActTestBase {
+
+    public static class Foo {
+        public void builtIn(@NotNull @Size(min = 2, max = 3) String name, @Email String email, @NotBlank String note, @NotNull int n, @Size(max = 1) List<String> list) {}
+        public void custom(@Min(1) int n) {}
+        public void cascaded(@Valid Foo foo) {}
+    }
+
+    @Test
+    public void itShallCheckBuiltInConstraints() throws Exception {
+        ParamValidator validator = ParamValidator.of(method("builtIn"));
+        yes(validator.isValid(new Object[]{"ab", null, "x", 0, null}));
+        yes(validator.isValid(new Object[]{"abc", "a@b.com", "x", 0, list("a")}));
+        no(validator.isValid(new Object[]{null, null, "x", 0, null}));
+        no(validator.isValid(new Object[]{"abcd", null, "x", 0, null}));
+        no(validator.isValid(new Object[]{"ab", "a@b", "x", 0, null}));
+        no(validator.isValid(new Object[]{"ab", null, " ", 0, null}));
+        no(validator.isValid(new Object[]{"ab", null, "x", 0, list("a", "b")}));
+    }
+
+    @Test
+    public void itShallNotSupportOtherConstraints() throws Exception {
+        same(ParamValidator.UNSUPPORTED, ParamValidator.of(method("custom")));
+        same(ParamValidator.UNSUPPORTED, ParamValidator.of(method("cascaded")));
+    }
+
+    private static List<String> list(String... items) {
+        return Arrays.asList(items);
+    }
+
+    private static Method method(String name) {
+        for (Method method : Foo.class.getMethods()) {
+            if (method.getName().equals(name)) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+}
@@ -0,0 +1,95 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.util.IO;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+public class OutboxJournalTest extends ActTestBase {
+
+    private File dir;
+
+    @Before
+    public void prepare() throws Exception {
+        dir = Files.createTempDirectory("outbox").toFile();
+    }
+
+    @After
+    public void cleanup() {
+        IO.delete(dir, true);
+    }
+
+    @Test
+    public void itShallRecoverEntriesNotAcknowledged() {
+        OutboxJournal journal = new OutboxJournal(dir, 4096);
+        long a = journal.append("foo", "a".getBytes());
+        long b = journal.append("bar", "b".getBytes());
+        long c = journal.append("foo", "c".getBytes());
+        journal.ack(b);
+        eq(2, journal.pending());
+        journal.close();
+
+        journal = new OutboxJournal(dir, 4096);
+        List<OutboxJournal.Entry> entries = journal.recovered();
+        eq(2, entries.size());
+        eq(a, entries.get(0).id());
+        eq("foo", entries.get(0).type());
+        eq("a", new String(entries.get(0).payload()));
+        eq(c, entries.get(1).id());
+        long d = journal.append("foo", "d".getBytes());
+        yes(d > c);
+        journal.ack(a);
+        journal.ack(c);
+        journal.close();
+
+        journal = new OutboxJournal(dir, 4096);
+        entries = journal.recovered();
+        eq(1, entries.size());
+        eq(d, entries.get(0).id());
+        journal.close();
+    }
+
+    @Test
+    public void itShallPurgeAcknowledgedSegments() {
+        OutboxJournal journal = new OutboxJournal(dir, 4096);
+        byte[] payload = new byte[1000];
+        long first = journal.append("foo", payload);
+        for (int i = 0; i < 20; ++i) {
+            journal.ack(journal.append("foo", payload));
+        }
+        yes(journal.segments() > 2);
+        journal.ack(first);
+        eq(1, journal.segments());
+        eq(0, journal.pending());
+        journal.close();
+        journal = new OutboxJournal(dir, 4096);
+        eq(0, journal.recovered().size());
+        journal.close();
+    }
+
+}
@@ -0,0 +1,130 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.osgl.util.IO;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.*;
+
+public class OutboxTest extends ActTestBase {
+
+    private File dir;
+    private OutboxJournal journal;
+    private Outbox outbox;
+
+    @Before
+    public void prepare() throws Exception {
+        dir = Files.createTempDirectory("outbox").toFile();
+        journal = new OutboxJournal(dir, 4096);
+        // run tasks and retries synchronously
+        Answer<Object> runNow = new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                try {
+                    ((Callable) invocation.getArguments()[0]).call();
+                } catch (Exception e) {
+                    // ignore
+                }
+                return null;
+            }
+        };
+        AppJobManager jobManager = mock(AppJobManager.class);
+        when(jobManager.now(any(Callable.class))).thenAnswer(runNow);
+        when(jobManager.delay(any(Callable.class), anyLong(), any(TimeUnit.class))).thenAnswer(runNow);
+        outbox = new Outbox(journal, jobManager);
+    }
+
+    @After
+    public void cleanup() {
+        journal.close();
+        IO.delete(dir, true);
+    }
+
+    @Test
+    public void itShallAcknowledgeSucceededTask() {
+        outbox.submit("foo", "a".getBytes(), new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                return true;
+            }
+        });
+        eq(0, outbox.pending());
+        no(new File(dir, "dead").exists());
+    }
+
+    @Test
+    public void itShallRetryFailedTaskAndMoveItToDeadLetter() {
+        final AtomicInteger attempts = new AtomicInteger();
+        outbox.submit("foo", "a".getBytes(), new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                attempts.incrementAndGet();
+                throw new RuntimeException("failed");
+            }
+        });
+        eq(Outbox.RETRY_DELAYS.length + 1, attempts.get());
+        eq(0, outbox.pending());
+        eq(1, new File(dir, "dead").list().length);
+    }
+
+    @Test
+    public void itShallTreatFalseAsFailure() {
+        final AtomicInteger attempts = new AtomicInteger();
+        outbox.submit("foo", "a".getBytes(), new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                return attempts.incrementAndGet() > 1;
+            }
+        });
+        eq(2, attempts.get());
+        eq(0, outbox.pending());
+        no(new File(dir, "dead").exists());
+    }
+
+    @Test
+    public void itShallMoveRecoveredTaskWithoutHandlerToDeadLetter() {
+        journal.append("unknown", "a".getBytes());
+        journal.close();
+        journal = new OutboxJournal(dir, 4096);
+        outbox = new Outbox(journal, mock(AppJobManager.class));
+        outbox.replay();
+        eq(0, outbox.pending());
+        File[] files = new File(dir, "dead").listFiles();
+        eq(1, files.length);
+        eq("a", IO.readContentAsString(files[0]));
+        journal.close();
+        journal = new OutboxJournal(dir, 4096);
+        eq(0, journal.recovered().size());
+    }
+
+}
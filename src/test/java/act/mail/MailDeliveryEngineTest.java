@@ -0,0 +1,187 @@
+package act.mail;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.mail.Message;
+import javax.mail.Session;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MailDeliveryEngineTest extends ActTestBase {
+
+    /**
+     * A minimum SMTP server that accepts all messages
+     */
+    private static class SmtpStub extends Thread {
+        final ServerSocket serverSocket;
+        final AtomicInteger connections = new AtomicInteger();
+        final AtomicInteger messages = new AtomicInteger();
+        volatile int dropAfterMessages = -1;
+
+        SmtpStub() throws IOException {
+            serverSocket = new ServerSocket(0);
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    final Socket socket = serverSocket.accept();
+                    connections.incrementAndGet();
+                    Thread t = new Thread() {
+                        @Override
+                        public void run() {
+                            serve(socket);
+                        }
+                    };
+                    t.setDaemon(true);
+                    t.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        void serve(Socket socket) {
+            try {
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), "US-ASCII"));
+                Writer out = new OutputStreamWriter(socket.getOutputStream(), "US-ASCII");
+                reply(out, "220 stub");
+                String line;
+                while (null != (line = in.readLine())) {
+                    String cmd = line.length() < 4 ? line : line.substring(0, 4).toUpperCase();
+                    if ("DATA".equals(cmd)) {
+                        reply(out, "354 go ahead");
+                        while (null != (line = in.readLine()) && !".".equals(line)) {
+                            // discard content
+                        }
+                        int n = messages.incrementAndGet();
+                        if (n == dropAfterMessages) {
+                            socket.close();
+                            return;
+                        }
+                        reply(out, "250 ok");
+                    } else if ("QUIT".equals(cmd)) {
+                        reply(out, "221 bye");
+                        break;
+                    } else if ("EHLO".equals(cmd) || "HELO".equals(cmd)) {
+                        reply(out, "250 stub");
+                    } else {
+                        reply(out, "250 ok");
+                    }
+                }
+                socket.close();
+            } catch (IOException e) {
+                // connection dropped
+            }
+        }
+
+        void reply(Writer out, String s) throws IOException {
+            out.write(s);
+            out.write("\r\n");
+            out.flush();
+        }
+    }
+
+    private SmtpStub stub;
+    private Session session;
+
+    @Before
+    public void startStub() throws Exception {
+        stub = new SmtpStub();
+        stub.start();
+        Properties p = new Properties();
+        p.setProperty("mail.smtp.host", "127.0.0.1");
+        p.setProperty("mail.smtp.port", String.valueOf(stub.serverSocket.getLocalPort()));
+        session = Session.getInstance(p);
+    }
+
+    @After
+    public void stopStub() throws Exception {
+        stub.serverSocket.close();
+    }
+
+    @Test
+    public void itShallReuseConnections() throws Exception {
+        final MailDeliveryEngine engine = new MailDeliveryEngine(session, 2, 0, 0, 0, null);
+        final int threads = 4, perThread = 10;
+        final CountDownLatch latch = new CountDownLatch(threads);
+        final AtomicInteger errors = new AtomicInteger();
+        for (int i = 0; i < threads; ++i) {
+            new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        for (int j = 0; j < perThread; ++j) {
+                            engine.send(message());
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    latch.countDown();
+                }
+            }.start();
+        }
+        latch.await();
+        eq(0, errors.get());
+        eq(threads * perThread, stub.messages.get());
+        eq((long) threads * perThread, engine.sent());
+        yes(stub.connections.get() <= 2);
+        engine.close();
+        eq(0, engine.idleConnections());
+    }
+
+    @Test
+    public void itShallRetryOnBrokenConnection() throws Exception {
+        MailDeliveryEngine engine = new MailDeliveryEngine(session, 1, 0, 2, 1, null);
+        engine.send(message());
+        stub.dropAfterMessages = 2;
+        engine.send(message());
+        engine.send(message());
+        eq(3L, engine.sent());
+        eq(1L, engine.retried());
+        eq(2L, engine.connects());
+        engine.close();
+    }
+
+    private MimeMessage message() throws Exception {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(new InternetAddress("from@example.com"));
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress("to@example.com"));
+        message.setSubject("test");
+        message.setText("hello");
+        message.saveChanges();
+        return message;
+    }
+
+}
@@ -0,0 +1,129 @@
+package act.util;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.$;
+import org.osgl.util.C;
+import org.osgl.util.IO;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+public class FsChangeDetectorTest extends ActTestBase {
+
+    private File dir;
+    private FsChangeDetector detector;
+    private List<FsEvent> events = new ArrayList<>();
+
+    @Before
+    public void prepare() throws Exception {
+        dir = java.nio.file.Files.createTempDirectory("fsdetect").toFile();
+        IO.writeContent("a", new File(dir, "A.java"));
+        prepareDetector();
+    }
+
+    private void prepareDetector() {
+        detector = new FsChangeDetector(dir, new $.Predicate<String>() {
+            @Override
+            public boolean test(String s) {
+                return s.endsWith(".java");
+            }
+        }, new FsEventListener() {
+            @Override
+            public void on(FsEvent... events) {
+                FsChangeDetectorTest.this.events.addAll(C.listOf(events));
+            }
+        });
+    }
+
+    @After
+    public void cleanup() {
+        detector.close();
+        IO.delete(dir, true);
+    }
+
+    @Test
+    public void itShallReportNoChange() {
+        detector.detectChanges();
+        yes(events.isEmpty());
+    }
+
+    @Test
+    public void itShallDetectNewFileInNewFolder() throws Exception {
+        File sub = new File(dir, "sub");
+        yes(sub.mkdir());
+        IO.writeContent("b", new File(sub, "B.java"));
+        IO.writeContent("x", new File(sub, "readme.txt"));
+        awaitChanges();
+        detector.detectChanges();
+        eq(1, events.size());
+        eq(FsEvent.Kind.CREATE, events.get(0).kind());
+        eq(new File(sub, "B.java").getAbsolutePath(), events.get(0).paths().get(0));
+        events.clear();
+        detector.detectChanges();
+        yes(events.isEmpty());
+    }
+
+    @Test
+    public void itShallDetectDeletedFile() throws Exception {
+        yes(new File(dir, "A.java").delete());
+        awaitChanges();
+        detector.detectChanges();
+        eq(1, events.size());
+        eq(FsEvent.Kind.DELETE, events.get(0).kind());
+    }
+
+    @Test
+    public void itShallCheckAllQueuedKeysForPendingChanges() throws Exception {
+        File ignored = new File(dir, "ignored");
+        File src = new File(dir, "src");
+        yes(ignored.mkdir());
+        yes(src.mkdir());
+        detector.close();
+        prepareDetector();
+        IO.writeContent("x", new File(ignored, "readme.txt"));
+        Thread.sleep(200);
+        IO.writeContent("b", new File(src, "B.java"));
+        // let the watch service queue both keys
+        Thread.sleep(500);
+        yes(detector.hasPendingChanges());
+    }
+
+    @Test
+    public void itShallReportPendingChangesAfterClose() {
+        no(detector.hasPendingChanges());
+        detector.close();
+        yes(detector.hasPendingChanges());
+    }
+
+    private void awaitChanges() throws InterruptedException {
+        // the watch service reports events asynchronously
+        for (int i = 0; i < 50 && !detector.hasPendingChanges(); ++i) {
+            Thread.sleep(100);
+        }
+    }
+
+}
@@ -87,4 +87,24 @@ public class SessionManagerTest extends ActTestBase {
         eq("bar", session1.get("foo"));
     }
 
+    @Test
+    public void testVerifiedSessionCache() {
+        when(config.sessionCacheSize()).thenReturn(16);
+        when(config.encryptSession()).thenReturn(true);
+        resolver = new SessionManager.CookieResolver(app);
+        String content = resolver.dissolveIntoCookieContent(session, true);
+        eq(content, resolver.dissolveIntoCookieContent(session, true));
+        for (int i = 0; i < 3; ++i) {
+            H.Session session1 = new H.Session();
+            resolver.resolveFromCookieContent(session1, content, true);
+            eq("bar", session1.get("foo"));
+        }
+        verify(app, times(1)).sign(anyString());
+        verify(app, never()).decrypt(anyString());
+
+        H.Session session2 = new H.Session();
+        resolver.resolveFromCookieContent(session2, "x" + content, true);
+        isNull(session2.get("foo"));
+    }
+
 }
@@ -0,0 +1,197 @@
+package act.view;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import act.util.ActContext;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.osgl.http.H;
+
+import java.util.*;
+
+import static org.mockito.Mockito.*;
+
+public class ViewManagerTest extends ActTestBase {
+
+    private ViewManager viewManager;
+    private TestView view;
+
+    @Before
+    public void prepare() throws Exception {
+        setup();
+        view = new TestView();
+        viewManager = new ViewManager();
+        viewManager.register(view);
+        viewManager.onAppStart();
+        when(mockAppConfig.defaultView()).thenReturn(view);
+        when(mockAppConfig.templatePathResolver()).thenReturn(new TemplatePathResolver());
+    }
+
+    @Test
+    public void itShallReuseTemplateResolvedForSameContext() {
+        view.found("/foo/Bar/index.html");
+        Template template = viewManager.load(context("/foo/Bar/index", H.Format.HTML, Locale.ENGLISH));
+        notNull(template);
+        same(template, viewManager.load(context("/foo/Bar/index", H.Format.HTML, Locale.ENGLISH)));
+        eq(1, view.loads);
+    }
+
+    @Test
+    public void itShallResolveDifferentTemplatesForDifferentFormats() {
+        view.found("/foo/Bar/index.html", "/foo/Bar/index.json");
+        Template html = viewManager.load(context("/foo/Bar/index", H.Format.HTML, Locale.ENGLISH));
+        Template json = viewManager.load(context("/foo/Bar/index", H.Format.JSON, Locale.ENGLISH));
+        eq("/foo/Bar/index.html", view.pathOf(html));
+        eq("/foo/Bar/index.json", view.pathOf(json));
+    }
+
+    @Test
+    public void itShallResolveDifferentTemplatesForDifferentLocales() {
+        view.found("/foo/Bar/index.html");
+        Template en = viewManager.load(context("/foo/Bar/index", H.Format.HTML, Locale.ENGLISH));
+        Template fr = viewManager.load(context("/foo/Bar/index", H.Format.HTML, Locale.FRENCH));
+        no(en == fr);
+        eq(2, view.loads);
+        same(fr, viewManager.load(context("/foo/Bar/index", H.Format.HTML, Locale.FRENCH)));
+    }
+
+    @Test
+    public void itShallReplayAmendedTemplatePathOnCachedHit() {
+        view.found("/foo/Bar/index.html");
+        ActContext first = context("index", H.Format.HTML, Locale.ENGLISH);
+        Template template = viewManager.load(first);
+        eq("/foo/Bar/index.html", view.pathOf(template));
+        eq("foo/Bar/index.html", first.templatePath());
+
+        ActContext second = context("index", H.Format.HTML, Locale.ENGLISH);
+        same(template, viewManager.load(second));
+        eq("foo/Bar/index.html", second.templatePath());
+        eq(1, view.loads);
+    }
+
+    @Test
+    public void itShallNotCacheWithCustomTemplatePathResolver() {
+        when(mockAppConfig.templatePathResolver()).thenReturn(new TemplatePathResolver() {
+        });
+        view.found("/foo/Bar/index.html");
+        viewManager.load(context("/foo/Bar/index", H.Format.HTML, Locale.ENGLISH));
+        viewManager.load(context("/foo/Bar/index", H.Format.HTML, Locale.ENGLISH));
+        eq(2, view.loads);
+    }
+
+    @Test
+    public void itShallNotCacheWhenViewSelectionDependsOnOtherState() {
+        viewManager.register(new TestView() {
+            @Override
+            public String name() {
+                return "custom";
+            }
+
+            @Override
+            public boolean appliedTo(ActContext context) {
+                return super.appliedTo(context);
+            }
+        });
+        viewManager.onAppStart();
+        view.found("/foo/Bar/index.html");
+        viewManager.load(context("/foo/Bar/index", H.Format.HTML, Locale.ENGLISH));
+        viewManager.load(context("/foo/Bar/index", H.Format.HTML, Locale.ENGLISH));
+        eq(2, view.loads);
+    }
+
+    @Test
+    public void itShallClearResolvedTemplatesOnReload() {
+        view.found("/foo/Bar/index.html");
+        Template template = viewManager.load(context("/foo/Bar/index", H.Format.HTML, Locale.ENGLISH));
+        viewManager.reload(mockApp);
+        no(template == viewManager.load(context("/foo/Bar/index", H.Format.HTML, Locale.ENGLISH)));
+        eq(2, view.loads);
+    }
+
+    @Test
+    public void itShallClearResolvedTemplatesOnReset() {
+        view.found("/foo/Bar/index.html");
+        Template template = viewManager.load(context("/foo/Bar/index", H.Format.HTML, Locale.ENGLISH));
+        viewManager.reset();
+        viewManager.register(view);
+        viewManager.onAppStart();
+        no(template == viewManager.load(context("/foo/Bar/index", H.Format.HTML, Locale.ENGLISH)));
+        eq(2, view.loads);
+    }
+
+    private ActContext context(String templatePath, H.Format format, Locale locale) {
+        final ActContext context = mock(ActContext.class);
+        final String[] path = {templatePath};
+        when(context.config()).thenReturn(mockAppConfig);
+        when(context.templatePathIsImplicit()).thenReturn(true);
+        when(context.methodPath()).thenReturn("foo.Bar.index");
+        when(context.accept()).thenReturn(format);
+        when(context.locale()).thenReturn(locale);
+        when(context.templatePath()).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer(InvocationOnMock invocation) throws Throwable {
+                return path[0];
+            }
+        });
+        when(context.templatePath(anyString())).thenAnswer(new Answer<ActContext>() {
+            @Override
+            public ActContext answer(InvocationOnMock invocation) throws Throwable {
+                path[0] = (String) invocation.getArguments()[0];
+                return context;
+            }
+        });
+        return context;
+    }
+
+    private static class TestView extends View {
+        private Set<String> paths = new HashSet<>();
+        private Map<Template, String> loaded = new IdentityHashMap<>();
+        int loads;
+
+        void found(String... paths) {
+            this.paths.addAll(Arrays.asList(paths));
+        }
+
+        String pathOf(Template template) {
+            return loaded.get(template);
+        }
+
+        @Override
+        public String name() {
+            return "test";
+        }
+
+        @Override
+        protected Template loadTemplate(String resourcePath, ActContext context) {
+            if (!paths.contains(resourcePath)) {
+                return null;
+            }
+            loads++;
+            Template template = mock(Template.class);
+            loaded.put(template, resourcePath);
+            return template;
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+package act.ws;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import act.app.util.AppCrypto;
+import act.conf.AppConfig;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static act.ws.WebSocketClusterBridge.Message;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MulticastWebSocketClusterBridgeTest extends ActTestBase {
+
+    private AppCrypto crypto;
+
+    @Before
+    public void prepare() {
+        crypto = crypto("secret");
+    }
+
+    @Test
+    public void itShallPackMultipleMessagesIntoOneDatagram() throws Exception {
+        List<Message> messages = new ArrayList<>();
+        messages.add(new Message(1L, 1L, Message.Scope.TAG, "news", false, "hello".getBytes("UTF-8")));
+        messages.add(new Message(1L, 2L, Message.Scope.USER, "\u5f20\u4e09", true, new byte[]{0, 1, 2}));
+        byte[] data = MulticastWebSocketClusterBridge.encode(messages, crypto);
+        List<Message> decoded = MulticastWebSocketClusterBridge.decode(data, 0, data.length, crypto);
+        eq(2, decoded.size());
+        Message m1 = decoded.get(0), m2 = decoded.get(1);
+        eq(2L, m2.seq());
+        eq(Message.Scope.TAG, m1.scope());
+        eq("news", m1.key());
+        no(m1.isBinary());
+        eq("hello", new String(m1.payload(), "UTF-8"));
+        eq("\u5f20\u4e09", m2.key());
+        yes(m2.isBinary());
+        eq(3, m2.payload().length);
+        yes(m1.encodedLength() + m2.encodedLength() + 6 + 20 >= data.length);
+    }
+
+    @Test
+    public void itShallRejectTamperedDatagram() throws Exception {
+        byte[] data = signedDatagram(crypto);
+        data[10] ^= 1;
+        try {
+            MulticastWebSocketClusterBridge.decode(data, 0, data.length, crypto);
+            fail("tampered datagram shall be rejected");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void itShallRejectDatagramSignedWithOtherSecret() throws Exception {
+        byte[] data = signedDatagram(crypto("other"));
+        try {
+            MulticastWebSocketClusterBridge.decode(data, 0, data.length, crypto);
+            fail("datagram signed with other secret shall be rejected");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    private static byte[] signedDatagram(AppCrypto crypto) throws Exception {
+        List<Message> messages = new ArrayList<>();
+        messages.add(new Message(1L, 1L, Message.Scope.URL, "/ws", false, "hello".getBytes("UTF-8")));
+        return MulticastWebSocketClusterBridge.encode(messages, crypto);
+    }
+
+    private static AppCrypto crypto(String secret) {
+        AppConfig config = mock(AppConfig.class);
+        when(config.secret()).thenReturn(secret);
+        return new AppCrypto(config);
+    }
+
+}
@@ -0,0 +1,114 @@
+package act.ws;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WebSocketMessageQueueTest extends ActTestBase {
+
+    private ExecutorService executor;
+
+    @Before
+    public void prepare() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void teardown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void itShallHandleMessagesInOrder() throws Exception {
+        WebSocketMessageQueue queue = new WebSocketMessageQueue(executor, 0, null);
+        final List<Integer> handled = Collections.synchronizedList(new ArrayList<Integer>());
+        final int total = 1000;
+        final CountDownLatch latch = new CountDownLatch(total);
+        for (int i = 0; i < total; ++i) {
+            final int n = i;
+            queue.dispatch(new Runnable() {
+                @Override
+                public void run() {
+                    handled.add(n);
+                    latch.countDown();
+                }
+            });
+        }
+        yes(latch.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < total; ++i) {
+            eq(i, handled.get(i));
+        }
+    }
+
+    @Test
+    public void itShallSuspendWhenInFlightLimitReached() throws Exception {
+        final AtomicInteger suspended = new AtomicInteger();
+        final AtomicInteger resumed = new AtomicInteger();
+        WebSocketMessageQueue queue = new WebSocketMessageQueue(executor, 2, new WebSocketMessageQueue.FlowControl() {
+            @Override
+            public void suspend() {
+                suspended.incrementAndGet();
+            }
+
+            @Override
+            public void resume() {
+                resumed.incrementAndGet();
+            }
+        });
+        final CountDownLatch blocker = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(2);
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    blocker.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            }
+        };
+        queue.dispatch(task);
+        eq(0, suspended.get());
+        queue.dispatch(task);
+        eq(1, suspended.get());
+        blocker.countDown();
+        yes(done.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 100 && queue.inFlight() > 0; ++i) {
+            Thread.sleep(10);
+        }
+        eq(0, queue.inFlight());
+        eq(1, resumed.get());
+    }
+
+}
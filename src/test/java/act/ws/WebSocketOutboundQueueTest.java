@@ -0,0 +1,123 @@
+package act.ws;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+
+public class WebSocketOutboundQueueTest extends ActTestBase {
+
+    private static class ManualTransport implements WebSocketOutboundQueue.Transport {
+        List<String> written = new ArrayList<>();
+        boolean completeInPlace;
+        boolean disconnected;
+        WebSocketOutboundQueue queue;
+
+        @Override
+        public void write(PreparedMessage message) {
+            written.add(message.text());
+            if (completeInPlace) {
+                queue.writeComplete();
+            }
+        }
+
+        @Override
+        public void disconnect() {
+            disconnected = true;
+        }
+    }
+
+    private ManualTransport transport = new ManualTransport();
+
+    private WebSocketOutboundQueue queue(int maxMessages, WebSocketOutboundQueue.OverflowPolicy policy) {
+        WebSocketOutboundQueue queue = new WebSocketOutboundQueue(transport, maxMessages, 0, policy, null);
+        transport.queue = queue;
+        return queue;
+    }
+
+    private void offer(WebSocketOutboundQueue queue, String... messages) {
+        for (String message : messages) {
+            queue.offer(PreparedMessage.of(message));
+        }
+    }
+
+    private void drain(WebSocketOutboundQueue queue) {
+        transport.completeInPlace = true;
+        queue.writeComplete();
+    }
+
+    @Test
+    public void itShallWriteOneMessageAtATime() {
+        WebSocketOutboundQueue queue = queue(0, WebSocketOutboundQueue.OverflowPolicy.DROP_NEWEST);
+        offer(queue, "a", "b", "c");
+        eq(asList("a"), transport.written);
+        eq(2, queue.getDepth());
+        drain(queue);
+        eq(asList("a", "b", "c"), transport.written);
+        eq(0, queue.getDepth());
+        eq(3L, queue.getSent());
+    }
+
+    @Test
+    public void testDropOldest() {
+        WebSocketOutboundQueue queue = queue(2, WebSocketOutboundQueue.OverflowPolicy.DROP_OLDEST);
+        offer(queue, "a", "b", "c", "d");
+        eq(1L, queue.getDropped());
+        drain(queue);
+        eq(asList("a", "c", "d"), transport.written);
+    }
+
+    @Test
+    public void testDropNewest() {
+        WebSocketOutboundQueue queue = queue(2, WebSocketOutboundQueue.OverflowPolicy.DROP_NEWEST);
+        offer(queue, "a", "b", "c", "d");
+        eq(1L, queue.getDropped());
+        drain(queue);
+        eq(asList("a", "b", "c"), transport.written);
+    }
+
+    @Test
+    public void testCoalesce() {
+        WebSocketOutboundQueue queue = queue(2, WebSocketOutboundQueue.OverflowPolicy.COALESCE);
+        queue.offer(PreparedMessage.of("a"));
+        queue.offer(PreparedMessage.of("x1").withCoalesceKey("x"));
+        queue.offer(PreparedMessage.of("b"));
+        queue.offer(PreparedMessage.of("x2").withCoalesceKey("x"));
+        eq(1L, queue.getDropped());
+        drain(queue);
+        eq(asList("a", "x2", "b"), transport.written);
+    }
+
+    @Test
+    public void testDisconnect() {
+        WebSocketOutboundQueue queue = queue(2, WebSocketOutboundQueue.OverflowPolicy.DISCONNECT);
+        offer(queue, "a", "b", "c", "d");
+        yes(transport.disconnected);
+        eq(3L, queue.getDropped());
+        no(queue.offer(PreparedMessage.of("e")));
+    }
+
+}
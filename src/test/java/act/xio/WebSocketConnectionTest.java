@@ -0,0 +1,99 @@
+package act.xio;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import act.util.DestroyableBase;
+import act.ws.PreparedMessage;
+import org.junit.Test;
+import org.osgl.exception.UnsupportedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class WebSocketConnectionTest extends ActTestBase {
+
+    private static class PlainConnection extends DestroyableBase implements WebSocketConnection {
+        List<String> texts = new ArrayList<>();
+
+        @Override
+        public String sessionId() {
+            return "sid";
+        }
+
+        @Override
+        public String username() {
+            return null;
+        }
+
+        @Override
+        public void send(String message) {
+            texts.add(message);
+        }
+
+        @Override
+        public void close() {
+            destroy();
+        }
+
+        @Override
+        public boolean closed() {
+            return isDestroyed();
+        }
+    }
+
+    private static class BinaryConnection extends PlainConnection implements WebSocketConnection.BinarySender {
+        List<byte[]> binaries = new ArrayList<>();
+
+        @Override
+        public void sendBinary(byte[] data) {
+            binaries.add(data);
+        }
+    }
+
+    @Test
+    public void preparedTextMessageShallFallBackToSendString() {
+        PlainConnection connection = new PlainConnection();
+        WebSocketConnection.Util.send(connection, PreparedMessage.of("hello"));
+        eq(Arrays.asList("hello"), connection.texts);
+    }
+
+    @Test
+    public void preparedBinaryMessageShallFallBackToSendBinary() {
+        BinaryConnection connection = new BinaryConnection();
+        WebSocketConnection.Util.send(connection, PreparedMessage.ofBinary(new byte[]{1, 2, 3}));
+        eq(1, connection.binaries.size());
+        yes(Arrays.equals(new byte[]{1, 2, 3}, connection.binaries.get(0)));
+        yes(connection.texts.isEmpty());
+    }
+
+    @Test(expected = UnsupportedException.class)
+    public void binaryMessageShallBeRejectedByTextOnlyConnection() {
+        WebSocketConnection.Util.send(new PlainConnection(), PreparedMessage.ofBinary(new byte[]{1}));
+    }
+
+    @Test
+    public void unbufferedConnectionShallHaveNoOutboundQueue() {
+        isNull(WebSocketConnection.Util.outboundQueue(new PlainConnection()));
+    }
+
+}